@@ -0,0 +1,136 @@
+package com.sandarun.Online.Food.ordering.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.OnlineFoodOrderingApplication;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.Category;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.CategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+import com.sandarun.Online.Food.ordering.request.CreateFoodRequest;
+import com.sandarun.Online.Food.ordering.request.CreateRestaurantRequest;
+import com.sandarun.Online.Food.ordering.service.FoodService;
+import com.sandarun.Online.Food.ordering.service.RestaurantService;
+
+/**
+ * Boots the application once per benchmark JVM against an in-memory H2 in
+ * PostgreSQL mode and seeds a customer, a restaurant owner and a menu.
+ */
+final class BenchmarkApplication {
+
+	static final int MENU_SIZE = 200;
+	static final String CUSTOMER_EMAIL = "bench.customer@example.com";
+
+	private static BenchmarkApplication instance;
+
+	final ConfigurableApplicationContext context;
+	final String customerJwt;
+	final Long restaurantId;
+	final List<Long> foodIds = new ArrayList<>();
+
+	static synchronized BenchmarkApplication get() {
+		if (instance == null) {
+			instance = new BenchmarkApplication();
+		}
+		return instance;
+	}
+
+	static synchronized void close() {
+		if (instance != null) {
+			instance.context.close();
+			instance = null;
+		}
+	}
+
+	private BenchmarkApplication() {
+		context = new SpringApplicationBuilder(OnlineFoodOrderingApplication.class)
+				// Command line arguments, so they win over application.properties
+				.run(
+						"--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+						"--spring.datasource.username=sa",
+						"--spring.datasource.password=",
+						"--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"--spring.jpa.hibernate.ddl-auto=create-drop",
+						// The migrations hold PostgreSQL partial indexes
+						"--spring.flyway.enabled=false",
+						"--spring.devtools.restart.enabled=false",
+						"--server.port=0",
+						"--logging.level.root=WARN");
+
+		TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+		UserRepository userRepository = context.getBean(UserRepository.class);
+
+		User owner = new User();
+		owner.setEmail("bench.owner@example.com");
+		owner.setFullName("Bench Owner");
+		owner.setRole(USER_ROLE.ROLE_RESTAURANT_OWNER);
+		owner = userRepository.save(owner);
+
+		Address restaurantAddress = new Address();
+		restaurantAddress.setCity("Colombo");
+		restaurantAddress.setLatitude(6.9271);
+		restaurantAddress.setLongitude(79.8612);
+
+		CreateRestaurantRequest restaurantRequest = new CreateRestaurantRequest();
+		restaurantRequest.setName("Bench Kitchen");
+		restaurantRequest.setCuisineType("Sri Lankan");
+		restaurantRequest.setDescription("Seeded for benchmarks");
+		restaurantRequest.setAddress(restaurantAddress);
+		restaurantRequest.setImages(List.of("https://example.com/bench.png"));
+		// Seeding runs in transactions the way open-session-in-view wraps the real requests
+		User restaurantOwner = owner;
+		restaurantId = tx.execute(status -> context.getBean(RestaurantService.class).createRestaurant(restaurantRequest, restaurantOwner).getId());
+
+		tx.executeWithoutResult(status -> {
+			Restaurant restaurant = context.getBean(RestaurantRepository.class).findById(restaurantId).orElseThrow();
+			List<Category> categories = new ArrayList<>();
+			for (String name : List.of("Rice", "Kottu", "Curry", "Drinks", "Desserts")) {
+				Category category = new Category();
+				category.setName(name);
+				category.setRestaurant(restaurant);
+				categories.add(context.getBean(CategoryRepository.class).save(category));
+			}
+			FoodService foodService = context.getBean(FoodService.class);
+			for (int i = 0; i < MENU_SIZE; i++) {
+				CreateFoodRequest food = new CreateFoodRequest();
+				food.setName((i % 2 == 0 ? "Chicken " : "Veg ") + categories.get(i % categories.size()).getName() + " " + i);
+				food.setDescription("Benchmark dish number " + i);
+				food.setPrice(500L + i);
+				food.setVegetarian(i % 2 == 1);
+				food.setImages(List.of("https://example.com/food/" + i + ".png"));
+				foodIds.add(foodService.createFood(food, categories.get(i % categories.size()), restaurant).getId());
+			}
+		});
+
+		User customer = new User();
+		customer.setEmail(CUSTOMER_EMAIL);
+		customer.setFullName("Bench Customer");
+		Address home = new Address();
+		home.setStreet("1 Galle Road");
+		home.setCity("Colombo");
+		home.setLatitude(6.90);
+		home.setLongitude(79.85);
+		customer.getAddresses().add(home);
+		userRepository.save(customer);
+
+		UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(CUSTOMER_EMAIL, null,
+				List.of(new SimpleGrantedAuthority(USER_ROLE.ROLE_CUSTOMER.toString())));
+		customerJwt = "Bearer " + context.getBean(JwtProvider.class).genarateToken(auth);
+	}
+
+	<T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+}
@@ -0,0 +1,48 @@
+package com.sandarun.Online.Food.ordering.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.sandarun.Online.Food.ordering.model.Cart;
+import com.sandarun.Online.Food.ordering.model.CartItem;
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.service.CartServiceImp;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CartBenchmark {
+
+	@Param({ "5", "50" })
+	public int cartSize;
+
+	private final CartServiceImp cartService = new CartServiceImp();
+	private Cart cart;
+
+	@Setup
+	public void setUp() {
+		cart = new Cart();
+		for (long i = 0; i < cartSize; i++) {
+			Food food = new Food();
+			food.setId(i);
+			food.setPrice(300 + i);
+			CartItem item = new CartItem();
+			item.setFood(food);
+			item.setQuantity((int) (i % 4) + 1);
+			cart.getItem().add(item);
+		}
+	}
+
+	@Benchmark
+	public Long calculateTotals() throws Exception {
+		return cartService.calculateCartTotals(cart);
+	}
+}
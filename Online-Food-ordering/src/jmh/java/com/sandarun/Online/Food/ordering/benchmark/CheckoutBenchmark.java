@@ -0,0 +1,120 @@
+package com.sandarun.Online.Food.ordering.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
+import com.sandarun.Online.Food.ordering.dto.FoodDto;
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.service.CartService;
+import com.sandarun.Online.Food.ordering.service.FoodService;
+import com.sandarun.Online.Food.ordering.service.OrderService;
+import com.sandarun.Online.Food.ordering.service.UserService;
+
+/**
+ * Database backed paths against H2 in PostgreSQL mode. Every operation runs
+ * in a transaction the way open-session-in-view wraps a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckoutBenchmark {
+
+	private BenchmarkApplication app;
+	private TransactionTemplate tx;
+	private UserService userService;
+	private FoodService foodService;
+	private CartService cartService;
+	private OrderService orderService;
+	private AddCardItemRequest addItem;
+	private OrderRequest orderRequest;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		app = BenchmarkApplication.get();
+		tx = app.bean(TransactionTemplate.class);
+		userService = app.bean(UserService.class);
+		foodService = app.bean(FoodService.class);
+		cartService = app.bean(CartService.class);
+		orderService = app.bean(OrderService.class);
+
+		// A three item cart, the first item is the one the merge benchmark keeps adding to
+		for (int i = 0; i < 3; i++) {
+			AddCardItemRequest req = new AddCardItemRequest();
+			req.setFoodId(app.foodIds.get(i * 7));
+			req.setQuantity(1);
+			tx.execute(status -> {
+				try {
+					return cartService.addItemToCart(req, app.customerJwt);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+		addItem = new AddCardItemRequest();
+		addItem.setFoodId(app.foodIds.get(0));
+		addItem.setQuantity(1);
+
+		orderRequest = new OrderRequest();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkApplication.close();
+	}
+
+	@Benchmark
+	public User findUserByJwtToken() throws Exception {
+		return userService.findUserByJwtToken(app.customerJwt);
+	}
+
+	@Benchmark
+	public List<FoodDto> searchFood() {
+		return tx.execute(status -> foodService.searchFood("Kottu"));
+	}
+
+	@Benchmark
+	public List<FoodDto> restaurantMenu() {
+		return tx.execute(status -> foodService.getRestaurantsFood(app.restaurantId));
+	}
+
+	@Benchmark
+	public CartItemDto addItemToCartMerge() {
+		return tx.execute(status -> {
+			try {
+				return cartService.addItemToCart(addItem, app.customerJwt);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	// The cart is not cleared by checkout, so every invocation places the same three item order
+	@Benchmark
+	public List<OrderDto> createOrder() {
+		return tx.execute(status -> {
+			try {
+				User user = userService.findUserByJwtToken(app.customerJwt);
+				// Checkout to the customer's saved address, as a managed entity
+				orderRequest.setDeliveryAddress(user.getAddresses().get(0));
+				return orderService.createOrder(orderRequest, user);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+}
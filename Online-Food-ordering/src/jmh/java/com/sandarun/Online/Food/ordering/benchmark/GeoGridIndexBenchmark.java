@@ -0,0 +1,77 @@
+package com.sandarun.Online.Food.ordering.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.sandarun.Online.Food.ordering.util.GeoGridIndex;
+
+/**
+ * Radius search over 100k restaurants spread across an area the size of Sri
+ * Lanka, through the grid and as the haversine scan over every point it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeoGridIndexBenchmark {
+
+	private static final int RESTAURANTS = 100_000;
+	private static final int QUERIES = 1024;
+
+	@Param({ "3", "10" })
+	public double radiusKm;
+
+	private GeoGridIndex index;
+	private double[][] points;
+	private double[][] queries;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		index = new GeoGridIndex(0.02);
+		points = new double[RESTAURANTS][];
+		for (int i = 0; i < RESTAURANTS; i++) {
+			points[i] = new double[] { 5.9 + random.nextDouble() * 4, 79.6 + random.nextDouble() * 2.3 };
+			index.put(i, points[i][0], points[i][1]);
+		}
+		// Cycling through many query points keeps the JIT from specializing on one
+		queries = new double[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new double[] { 5.9 + random.nextDouble() * 4, 79.6 + random.nextDouble() * 2.3 };
+		}
+	}
+
+	@Benchmark
+	public List<GeoGridIndex.Match> gridWithinRadius() {
+		double[] query = nextQuery();
+		return index.withinRadius(query[0], query[1], radiusKm, Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public List<Long> naiveScan() {
+		double[] query = nextQuery();
+		List<Long> matches = new ArrayList<>();
+		for (int i = 0; i < RESTAURANTS; i++) {
+			if (GeoGridIndex.distanceKm(query[0], query[1], points[i][0], points[i][1]) <= radiusKm) {
+				matches.add((long) i);
+			}
+		}
+		return matches;
+	}
+
+	private double[] nextQuery() {
+		next = (next + 1) & (QUERIES - 1);
+		return queries[next];
+	}
+}
@@ -0,0 +1,45 @@
+package com.sandarun.Online.Food.ordering.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+	private JwtProvider jwtProvider;
+	private Authentication authentication;
+	private String jwt;
+
+	@Setup
+	public void setUp() {
+		jwtProvider = new JwtProvider();
+		authentication = new UsernamePasswordAuthenticationToken("bench@example.com", null,
+				List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+		jwt = "Bearer " + jwtProvider.genarateToken(authentication);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtProvider.genarateToken(authentication);
+	}
+
+	@Benchmark
+	public String validateToken() {
+		return jwtProvider.getEmailFromJwtToken(jwt);
+	}
+}
@@ -0,0 +1,91 @@
+package com.sandarun.Online.Food.ordering.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.dto.MenuItemDto;
+import com.sandarun.Online.Food.ordering.model.Category;
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+
+/**
+ * Menu filtering and serialization without a database, on menus the size of
+ * a small cafe and of a large chain outlet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuBenchmark {
+
+	@Param({ "50", "500" })
+	public int menuSize;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private List<Food> menu;
+	private List<MenuItemDto> menuDtos;
+
+	@Setup
+	public void setUp() {
+		List<Category> categories = new ArrayList<>();
+		for (long i = 0; i < 8; i++) {
+			Category category = new Category();
+			category.setId(i);
+			category.setName("Category " + i);
+			categories.add(category);
+		}
+		menu = new ArrayList<>();
+		for (long i = 0; i < menuSize; i++) {
+			Food food = new Food();
+			food.setId(i);
+			food.setName("Dish " + i);
+			food.setDescription("A reasonably long description for dish number " + i + " with a few ingredients listed");
+			food.setPrice(450 + i);
+			food.setCategory(categories.get((int) (i % categories.size())));
+			food.setImages(List.of("https://example.com/food/" + i + "/1.png", "https://example.com/food/" + i + "/2.png"));
+			food.setAvailable(i % 7 != 0);
+			food.setVegetarian(i % 3 == 0);
+			food.setSeasonal(i % 11 == 0);
+			List<IngredientsItems> ingredients = new ArrayList<>();
+			for (long j = 0; j < 4; j++) {
+				IngredientsItems ingredient = new IngredientsItems();
+				ingredient.setId(i * 4 + j);
+				ingredient.setName("Ingredient " + j);
+				ingredients.add(ingredient);
+			}
+			food.setIngredients(ingredients);
+			menu.add(food);
+		}
+		menuDtos = menu.stream().map(MenuItemDto::fromFood).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<Food> filterVegetarianInCategory() {
+		return menu.stream()
+				.filter(Food::isVegetarian)
+				.filter(food -> food.getCategory() != null && "Category 3".equals(food.getCategory().getName()))
+				.collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<MenuItemDto> mapToDtos() {
+		return menu.stream().map(MenuItemDto::fromFood).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public byte[] serializeDtos() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(menuDtos);
+	}
+}
@@ -1,8 +1,12 @@
 package com.sandarun.Online.Food.ordering.config;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -27,6 +31,14 @@ public class AppConfig {
 
         http.sessionManagement(managment->managment.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(Authorize->Authorize
+                        // Only writes out what an already authorized request started, e.g. a StreamingResponseBody
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Clearing the second-level cache hits every restaurant, not only the caller's
+                        .requestMatchers(HttpMethod.DELETE, "/api/admin/cache").hasRole("ADMIN")
+                        // Load balancers probe health without a token, metrics name restaurants and queries.
+                        // Prometheus scrapes with an admin bearer token.
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
                         .requestMatchers("/api/admin/**").hasAnyRole("ADMIN", "RESTAURANT_OWNER")
 //                        .requestMatchers("/api/**").authenticated()
                         .anyRequest().permitAll()
@@ -49,7 +61,7 @@ public class AppConfig {
                 config.setAllowedMethods(Collections.singletonList("*"));
                 config.setAllowCredentials(true);
                 config.setAllowedHeaders(Collections.singletonList("*"));
-                config.setExposedHeaders(Arrays.asList("Authorization"));
+                config.setExposedHeaders(Arrays.asList("Authorization", "Server-Timing"));
                 config.setMaxAge(3600L);
                 return config;
             }
@@ -0,0 +1,72 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String QUERY_RESULTS_REGION="default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION="default-update-timestamps-region";
+
+    // Region -> {max entries, ttl seconds}, overridable with l2cache.<region>.max-size / ttl-seconds
+    public static final Map<String,long[]> REGIONS=new LinkedHashMap<>();
+    static {
+        REGIONS.put("restaurant", new long[]{5000, 600});
+        REGIONS.put("restaurant.images", new long[]{5000, 600});
+        REGIONS.put("address", new long[]{10000, 600});
+        REGIONS.put("food", new long[]{50000, 600});
+        REGIONS.put("food.images", new long[]{50000, 600});
+        REGIONS.put("food.ingredients", new long[]{50000, 600});
+        REGIONS.put("category", new long[]{10000, 1800});
+        REGIONS.put("ingredientCategory", new long[]{10000, 1800});
+        REGIONS.put("ingredientCategory.ingredients", new long[]{10000, 1800});
+        REGIONS.put("ingredientItem", new long[]{50000, 1800});
+        REGIONS.put(QUERY_RESULTS_REGION, new long[]{2000, 300});
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment env) {
+        // A manager of its own per context, the provider's default one is shared by every context in the JVM
+        CachingProvider provider=Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager=provider.getCacheManager(URI.create(CacheConfig.class.getName()+"/"+UUID.randomUUID()), provider.getDefaultClassLoader());
+
+        for(Map.Entry<String,long[]> region:REGIONS.entrySet()){
+            long maxSize=env.getProperty("l2cache."+region.getKey()+".max-size", Long.class, region.getValue()[0]);
+            long ttlSeconds=env.getProperty("l2cache."+region.getKey()+".ttl-seconds", Long.class, region.getValue()[1]);
+
+            CaffeineConfiguration<Object,Object> configuration=new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region.getKey(), configuration);
+        }
+
+        // Query results are checked against these timestamps, so they must never be evicted
+        CaffeineConfiguration<Object,Object> timestamps=new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,127 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Only active when a replica or extra shards are configured, otherwise Spring Boot builds the single pool as before
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isEmpty() or !'${sharding.urls:}'.isEmpty()")
+public class DataSourceConfig {
+
+    // Zero while the replica has replayed everything it received, otherwise the age of the last replayed commit
+    private static final String POSTGRES_LAG_QUERY="SELECT CASE WHEN pg_last_wal_receive_lsn() IS NULL OR pg_last_wal_receive_lsn()=pg_last_wal_replay_lsn() THEN 0"
+            +" ELSE EXTRACT(EPOCH FROM now()-pg_last_xact_replay_timestamp())*1000 END";
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource=properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "datasource.replica.url")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:}") String username,
+                                              @Value("${datasource.replica.password:}") String password) {
+        // Without a username of its own the replica reuses the primary's credentials
+        HikariDataSource dataSource=DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username.isEmpty()?properties.determineUsername():username)
+                .password(username.isEmpty()?properties.determinePassword():password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.url")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             @Qualifier("replicaDataSource") DataSource replica,
+                                                             @Value("${datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+                                                             @Value("${datasource.replica.lag-query:}") String lagQuery) {
+        ReplicaRoutingDataSource routing=new ReplicaRoutingDataSource(replica, lagQuery.isEmpty()?POSTGRES_LAG_QUERY:lagQuery, maxLagMillis);
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, ReplicaRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    // Shard 0 is the primary, behind its replica when there is one
+    @Bean
+    @ConditionalOnProperty(name = "sharding.urls")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties,
+                                                         @Qualifier("primaryDataSource") DataSource primary,
+                                                         ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+                                                         @Value("${sharding.urls}") List<String> urls,
+                                                         @Value("${sharding.username:}") String username,
+                                                         @Value("${sharding.password:}") String password) {
+        List<HikariDataSource> shardPools=new ArrayList<>();
+        for(String url:urls){
+            HikariDataSource dataSource=DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url)
+                    .username(username.isEmpty()?properties.determineUsername():username)
+                    .password(username.isEmpty()?properties.determinePassword():password)
+                    .build();
+            dataSource.setPoolName("shard-"+(shardPools.size()+1));
+            shardPools.add(dataSource);
+        }
+        DataSource shardZero=replicaRoutingDataSource.getIfAvailable();
+        return new ShardRoutingDataSource(shardZero==null?primary:shardZero, shardPools);
+    }
+
+    // Every shard runs the same migrations, the reference tables on shards past 0 are replication targets
+    @Bean
+    @ConditionalOnProperty(name = "sharding.urls")
+    public FlywayMigrationStrategy shardedMigrationStrategy(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            for(DataSource shard:shardRoutingDataSource.getShardPools()){
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            }
+        };
+    }
+
+    // The proxy holds back the physical connection until the first statement, by then the transaction is marked read-only
+    // and the shard is chosen
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource,
+                                 ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        DataSource target=shardRoutingDataSource.getIfAvailable();
+        if(target==null){
+            target=replicaRoutingDataSource.getIfAvailable();
+        }
+        return new LazyConnectionDataSourceProxy(target==null?primary:target);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.url")
+    public MeterBinder replicaLagMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> Gauge.builder("datasource.replica.lag", replicaRoutingDataSource, ReplicaRoutingDataSource::getReplicaLagMillis)
+                .description("Replication lag seen by the last probe, -1 while the replica is unreachable")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
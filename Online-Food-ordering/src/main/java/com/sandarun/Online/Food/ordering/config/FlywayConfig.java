@@ -0,0 +1,25 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class FlywayConfig {
+
+    // ${sharded} in the migrations, V3 only drops the cross-shard foreign keys when extra shards are configured
+    @Bean
+    public FlywayConfigurationCustomizer shardingPlaceholder(@Value("${sharding.urls:}") List<String> shardUrls) {
+        boolean sharded=shardUrls.stream().anyMatch(url -> !url.isBlank());
+        return configuration -> {
+            Map<String,String> placeholders=new HashMap<>(configuration.getPlaceholders());
+            placeholders.put("sharded", String.valueOf(sharded));
+            configuration.placeholders(placeholders);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.sandarun.Online.Food.ordering.config;
 
+import com.sandarun.Online.Food.ordering.util.RequestProfile;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -31,6 +32,7 @@ public class JwtTokenValidator extends OncePerRequestFilter {
 
         if(jwt!=null){
             jwt=jwt.substring(7);
+            long start=System.nanoTime();
 
             try{
                 SecretKey key= Keys.hmacShaKeyFor(JwtConstant.JWT_SECRET.getBytes());
@@ -44,6 +46,8 @@ public class JwtTokenValidator extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (Exception e) {
                 throw new BadCredentialsException("Invalid token .......");
+            } finally {
+                RequestProfile.record("jwt", start);
             }
         }
 
@@ -0,0 +1,144 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.sandarun.Online.Food.ordering.util.QueryCounter;
+import com.sandarun.Online.Food.ordering.util.RequestProfile;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.cache.CacheManager;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsConfig.class);
+
+    private static final String COUNTER_OWNER = MetricsConfig.class.getName() + ".COUNTER_OWNER";
+    private static final String SUSPENDED_COUNTS = MetricsConfig.class.getName() + ".SUSPENDED_COUNTS";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${n-plus-one.detection.enabled:false}") boolean detectNPlusOne,
+                         @Value("${n-plus-one.detection.threshold:3}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        QueryCounter.trackRepeatedShapes(detectNPlusOne ? repeatThreshold : 0);
+    }
+
+    // Enables @Timed on service methods, tagged with class and method only
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> {
+            for (String name : hibernateCacheManager.getCacheNames()) {
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name));
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryCounting() {
+        StatementInspector inspector = sql -> {
+            QueryCounter.statementPrepared(sql);
+            RequestProfile.statementPrepared(sql);
+            return sql;
+        };
+        PostLoadEventListener postLoad = event -> QueryCounter.entityLoaded();
+        IntegratorProvider integrators = () -> List.of(new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+                sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                        .appendListeners(EventType.POST_LOAD, postLoad);
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        });
+        return properties -> {
+            properties.put("hibernate.session_factory.statement_inspector", inspector);
+            properties.put("hibernate.integrator_provider", integrators);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                // The async dispatch of a request carries on with the counts its first dispatch started
+                QueryCounter.Counts suspended = (QueryCounter.Counts) request.getAttribute(SUSPENDED_COUNTS);
+                if (suspended != null) {
+                    request.removeAttribute(SUSPENDED_COUNTS);
+                    QueryCounter.resume(suspended);
+                } else if (QueryCounter.start()) {
+                    request.setAttribute(COUNTER_OWNER, Boolean.TRUE);
+                }
+                return true;
+            }
+
+            // Async handlers skip afterCompletion on the first dispatch, the worker thread must not keep the counts
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (request.getAttribute(COUNTER_OWNER) != null) {
+                    request.setAttribute(SUSPENDED_COUNTS, QueryCounter.stop());
+                }
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                // A test harness counting around the request reads the counts itself
+                if (request.getAttribute(COUNTER_OWNER) == null) {
+                    return;
+                }
+                QueryCounter.Counts counts = QueryCounter.stop();
+                // The route template keeps the tag bounded, never the raw path with ids in it
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+                DistributionSummary.builder("http.server.requests.db.statements")
+                        .tags("uri", uri, "method", request.getMethod())
+                        .maximumExpectedValue(1000d)
+                        .register(meterRegistry)
+                        .record(counts.getStatements());
+                DistributionSummary.builder("http.server.requests.db.entity.loads")
+                        .tags("uri", uri, "method", request.getMethod())
+                        .maximumExpectedValue(1000d)
+                        .register(meterRegistry)
+                        .record(counts.getEntityLoads());
+                for (QueryCounter.Suspect suspect : counts.getSuspects()) {
+                    log.warn("Suspected N+1 on {} {}: {} executions of [{}] from {}",
+                            request.getMethod(), uri, suspect.executions(), suspect.shape(), suspect.callSite());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.util.RequestProfile;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Opt-in request profiler, enabled with profiler.enabled=true. Phases end up in a
+ * Server-Timing header and slow requests are logged with their statement shapes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "profiler.enabled", havingValue = "true")
+public class ProfilingConfig {
+
+    public static final String SERVER_TIMING="Server-Timing";
+
+    private static final Logger log=LoggerFactory.getLogger(ProfilingConfig.class);
+
+    @Value("${profiler.slow-request-ms:500}")
+    private long slowRequestMs;
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> profilingFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration=new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+                RequestProfile profile=RequestProfile.start();
+                try{
+                    filterChain.doFilter(request, response);
+                }finally {
+                    RequestProfile.stop();
+                    // Bodies written by Jackson already carry the header, this covers the rest
+                    if(!profile.isHeaderWritten() && !response.isCommitted()){
+                        response.setHeader(SERVER_TIMING, profile.serverTiming());
+                    }
+                    if(profile.elapsedMillis()>=slowRequestMs){
+                        StringBuilder shapes=new StringBuilder();
+                        profile.getFingerprints().forEach((sql,count)->shapes.append("\n  ").append(count).append(" x ").append(sql));
+                        log.warn("Slow request {} {} took {} ms with {} statements [{}]{}",
+                                request.getMethod(), request.getRequestURI(), profile.elapsedMillis(),
+                                profile.getStatements(), profile.serverTiming(), shapes);
+                    }
+                }
+            }
+        });
+        // Ahead of the security chain so the JWT filter is inside the profile
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer profilingSessionEvents() {
+        return properties -> properties.put("hibernate.session.events.auto", ProfilingSessionEventListener.class.getName());
+    }
+
+    @Bean
+    public ServiceProfilingAspect serviceProfilingAspect() {
+        return new ServiceProfilingAspect();
+    }
+
+    // Replaces Boot's Jackson converter so serialization is timed before the header is sent
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException, HttpMessageNotWritableException {
+                RequestProfile profile=RequestProfile.current();
+                if(profile==null || profile.isHeaderWritten()
+                        || !(outputMessage instanceof ServletServerHttpResponse servletResponse)
+                        || servletResponse.getServletResponse().isCommitted()){
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                long start=System.nanoTime();
+                ByteArrayOutputStream buffer=new ByteArrayOutputStream(1024);
+                super.writeInternal(object, type, new HttpOutputMessage() {
+                    @Override
+                    public OutputStream getBody() {
+                        return buffer;
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return outputMessage.getHeaders();
+                    }
+                });
+                profile.addPhase("json", System.nanoTime()-start);
+                outputMessage.getHeaders().set(SERVER_TIMING, profile.serverTiming());
+                buffer.writeTo(outputMessage.getBody());
+            }
+        };
+    }
+
+    @Aspect
+    public static class ServiceProfilingAspect {
+
+        @Around("execution(public * com.sandarun.Online.Food.ordering.service..*(..))")
+        public Object profile(ProceedingJoinPoint joinPoint) throws Throwable {
+            RequestProfile profile=RequestProfile.current();
+            if(profile==null){
+                return joinPoint.proceed();
+            }
+            boolean outermost=profile.enterService();
+            long start=System.nanoTime();
+            try{
+                return joinPoint.proceed();
+            }finally {
+                profile.exitService();
+                if(outermost){
+                    // User lookup gets its own phase, it runs on nearly every endpoint
+                    String phase="findUserByJwtToken".equals(joinPoint.getSignature().getName()) ? "user" : "service";
+                    profile.addPhase(phase, System.nanoTime()-start);
+                }
+            }
+        }
+    }
+}
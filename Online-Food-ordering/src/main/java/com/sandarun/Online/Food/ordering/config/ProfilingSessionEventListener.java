@@ -0,0 +1,33 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.sandarun.Online.Food.ordering.util.RequestProfile;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Created by Hibernate for every session, so it only keeps the start of the statement in flight.
+ */
+public class ProfilingSessionEventListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart=System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestProfile.statementExecuted(System.nanoTime()-executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart=System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestProfile.statementExecuted(System.nanoTime()-batchStart);
+    }
+}
@@ -0,0 +1,125 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Must sit behind a LazyConnectionDataSourceProxy, the read-only flag is only known once the transaction has begun
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY="primary";
+    public static final String REPLICA="replica";
+
+    private static final Logger log=LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    // Principal -> time until which its reads stay on the primary
+    private final Map<String,Long> pinnedUntil=new ConcurrentHashMap<>();
+
+    private volatile long replicaLagMillis;
+    private volatile boolean replicaUsable=true;
+
+    public ReplicaRoutingDataSource(DataSource replica, String lagQuery, long maxLagMillis) {
+        this.replica=new JdbcTemplate(replica);
+        this.lagQuery=lagQuery;
+        this.maxLagMillis=maxLagMillis;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(!TransactionSynchronizationManager.isActualTransactionActive()){
+            return PRIMARY;
+        }
+
+        String principal=currentPrincipal();
+        long now=System.currentTimeMillis();
+
+        // Whoever writes reads from the primary until the replica can have caught up
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()){
+            if(principal!=null){
+                pinAfterCommit(principal);
+            }
+            return PRIMARY;
+        }
+
+        if(!replicaUsable){
+            return PRIMARY;
+        }
+        if(principal!=null){
+            Long until=pinnedUntil.get(principal);
+            if(until!=null && until>now){
+                return PRIMARY;
+            }
+        }
+        return REPLICA;
+    }
+
+    // The window starts at the commit, a write transaction can outlast it
+    private void pinAfterCommit(String principal) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pinnedUntil.put(principal, System.currentTimeMillis()+maxLagMillis);
+                }
+            });
+            return;
+        }
+        pinnedUntil.put(principal, System.currentTimeMillis()+maxLagMillis);
+    }
+
+    // A replica that is unreachable or further behind than the pin window serves no reads until it recovers
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-ms:1000}")
+    public void checkReplicaLag() {
+        Long lagMillis;
+        try{
+            Number lag=replica.queryForObject(lagQuery, Number.class);
+            lagMillis=lag==null?0L:lag.longValue();
+        }catch(DataAccessException e){
+            lagMillis=null;
+        }
+
+        boolean wasUsable=replicaUsable;
+        replicaLagMillis=lagMillis==null?-1:lagMillis;
+        replicaUsable=lagMillis!=null && lagMillis<=maxLagMillis;
+        if(wasUsable && !replicaUsable){
+            log.warn("Read replica {}, reads go to the primary", lagMillis==null?"is unreachable":"is "+lagMillis+" ms behind");
+        }else if(!wasUsable && replicaUsable){
+            log.info("Read replica caught up, reads go back to it");
+        }
+
+        long now=System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until<=now);
+    }
+
+    public long getReplicaLagMillis() {
+        return replicaLagMillis;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication=SecurityContextHolder.getContext().getAuthentication();
+        if(authentication==null || authentication instanceof AnonymousAuthenticationToken){
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,53 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.sandarun.Online.Food.ordering.util.ShardContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Must sit behind a LazyConnectionDataSourceProxy, ShardTemplate picks the shard before the first statement
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<HikariDataSource> shardPools;
+
+    // Shard 0 is the database that also holds the reference tables, the pools are shards 1..n-1
+    public ShardRoutingDataSource(DataSource shardZero, List<HikariDataSource> shardPools) {
+        if(shardPools.size()+1>ShardContext.MAX_SHARDS){
+            throw new IllegalArgumentException("At most "+ShardContext.MAX_SHARDS+" shards fit in an id");
+        }
+        this.shardPools=shardPools;
+
+        Map<Object,Object> targets=new HashMap<>();
+        targets.put(0, shardZero);
+        for(int shard=1;shard<=shardPools.size();shard++){
+            targets.put(shard, shardPools.get(shard-1));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shardZero);
+        // A shard nobody configured must fail loudly instead of landing on shard 0
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+
+    public int getShardCount() {
+        return shardPools.size()+1;
+    }
+
+    public List<HikariDataSource> getShardPools() {
+        return shardPools;
+    }
+
+    @Override
+    public void destroy() {
+        shardPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,179 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.sandarun.Online.Food.ordering.util.ShardContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Orders live on their restaurant's shard and carts on their customer's, everything else stays on shard 0.
+// Work for another shard runs in a transaction of its own, entities it returns are detached once it commits.
+@Component
+public class ShardTemplate {
+
+    private final PlatformTransactionManager transactionManager;
+    private final int shardCount;
+
+    // Null with a single shard, there is nothing to fan out to
+    private final ExecutorService scatterExecutor;
+
+    public ShardTemplate(PlatformTransactionManager transactionManager, ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        this.transactionManager=transactionManager;
+        ShardRoutingDataSource routing=shardRoutingDataSource.getIfAvailable();
+        this.shardCount=routing==null?1:routing.getShardCount();
+        this.scatterExecutor=shardCount==1?null:Executors.newFixedThreadPool(shardCount, r -> {
+            Thread thread=new Thread(r, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int shardForRestaurant(Long restaurantId) {
+        return ShardContext.shardFor(restaurantId, shardCount);
+    }
+
+    public int shardForCustomer(Long customerId) {
+        return ShardContext.shardFor(customerId, shardCount);
+    }
+
+    public int shardOfId(Long id) {
+        return ShardContext.shardOf(id);
+    }
+
+    // True when execute runs on the caller's transaction, which is always the case with one shard
+    public boolean joinsCurrentTransaction(int shard, boolean readOnly) {
+        return shard==ShardContext.current() && TransactionSynchronizationManager.isActualTransactionActive()
+                && (readOnly || !TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    public <T> T execute(int shard, boolean readOnly, Supplier<T> action) {
+        if(joinsCurrentTransaction(shard, readOnly)){
+            return action.get();
+        }
+        return executeInNewTransaction(shard, readOnly, action);
+    }
+
+    // Same as execute for service code, whose exceptions reach the caller unwrapped
+    public <T> T call(int shard, boolean readOnly, Callable<T> work) throws Exception {
+        try{
+            return execute(shard, readOnly, unchecked(work));
+        }catch(ShardWorkException e){
+            throw (Exception) e.getCause();
+        }
+    }
+
+    // Never joins the caller's transaction, for work that is retried after its own commit fails
+    public <T> T callInNewTransaction(int shard, boolean readOnly, Callable<T> work) throws Exception {
+        try{
+            return executeInNewTransaction(shard, readOnly, unchecked(work));
+        }catch(ShardWorkException e){
+            throw (Exception) e.getCause();
+        }
+    }
+
+    // Scatter-gather, one result per shard in shard order. Each shard is read in its own transaction on a
+    // pool thread that sees the caller's security context, so replica pinning still applies on shard 0.
+    public <T> List<T> executeOnEveryShard(boolean readOnly, Supplier<T> action) {
+        if(shardCount==1){
+            List<T> results=new ArrayList<>();
+            results.add(execute(0, readOnly, action));
+            return results;
+        }
+
+        SecurityContext securityContext=SecurityContextHolder.getContext();
+        List<Future<T>> futures=new ArrayList<>();
+        for(int shard=0;shard<shardCount;shard++){
+            int target=shard;
+            futures.add(scatterExecutor.submit(() -> {
+                SecurityContextHolder.setContext(securityContext);
+                try{
+                    return executeInNewTransaction(target, readOnly, action);
+                }finally{
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+
+        List<T> results=new ArrayList<>();
+        try{
+            for(Future<T> future:futures){
+                results.add(future.get());
+            }
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while gathering shard results", e);
+        }catch(ExecutionException e){
+            futures.forEach(future -> future.cancel(true));
+            if(e.getCause() instanceof RuntimeException cause){
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    public <T> List<T> callOnEveryShard(boolean readOnly, Callable<T> work) throws Exception {
+        try{
+            return executeOnEveryShard(readOnly, unchecked(work));
+        }catch(ShardWorkException e){
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private static <T> Supplier<T> unchecked(Callable<T> work) {
+        return () -> {
+            try{
+                return work.call();
+            }catch(RuntimeException e){
+                throw e;
+            }catch(Exception e){
+                throw new ShardWorkException(e);
+            }
+        };
+    }
+
+    private <T> T executeInNewTransaction(int shard, boolean readOnly, Supplier<T> action) {
+        int previous=ShardContext.current();
+        ShardContext.set(shard);
+        try{
+            TransactionTemplate transaction=new TransactionTemplate(transactionManager);
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> action.get());
+        }finally{
+            ShardContext.set(previous);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(scatterExecutor!=null){
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    private static class ShardWorkException extends RuntimeException {
+        ShardWorkException(Exception cause) {
+            super(cause);
+        }
+    }
+}
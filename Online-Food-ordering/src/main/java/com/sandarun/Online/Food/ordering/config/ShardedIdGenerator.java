@@ -0,0 +1,70 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import com.sandarun.Online.Food.ordering.util.ShardContext;
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Same <table>_seq sequences and pooled blocks of 50 as @GeneratedValue(AUTO), shard 0 ids come out unchanged.
+// Every shard draws from its own copy of the sequence, so each needs its own optimizer holding that shard's block.
+public class ShardedIdGenerator extends SequenceStyleGenerator {
+
+    private static final String INCREMENT_SIZE="50";
+
+    private GeneratorCreationContext creationContext;
+    private Type type;
+    private Properties parameters;
+    private ServiceRegistry serviceRegistry;
+    private SqlStringGenerationContext sqlContext;
+
+    private final Map<Integer,SequenceStyleGenerator> shardGenerators=new ConcurrentHashMap<>();
+
+    @Override
+    public void create(GeneratorCreationContext creationContext) throws MappingException {
+        super.create(creationContext);
+        this.creationContext=creationContext;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.putIfAbsent(INCREMENT_PARAM, INCREMENT_SIZE);
+        super.configure(type, parameters, serviceRegistry);
+        this.type=type;
+        this.parameters=parameters;
+        this.serviceRegistry=serviceRegistry;
+    }
+
+    @Override
+    public void initialize(SqlStringGenerationContext context) {
+        super.initialize(context);
+        this.sqlContext=context;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner) {
+        int shard=ShardContext.current();
+        if(shard==0){
+            return super.generate(session, owner);
+        }
+        Number value=(Number) shardGenerators.computeIfAbsent(shard, this::shardGenerator).generate(session, owner);
+        return ShardContext.encode(shard, value.longValue());
+    }
+
+    private SequenceStyleGenerator shardGenerator(int shard) {
+        SequenceStyleGenerator generator=new SequenceStyleGenerator();
+        generator.create(creationContext);
+        generator.configure(type, (Properties) parameters.clone(), serviceRegistry);
+        // Resolves to the sequence this generator already registered
+        generator.registerExportables(creationContext.getDatabase());
+        generator.initialize(sqlContext);
+        return generator;
+    }
+}
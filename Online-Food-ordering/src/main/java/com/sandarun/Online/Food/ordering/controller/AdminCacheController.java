@@ -0,0 +1,43 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.response.CacheStatsResponse;
+import com.sandarun.Online.Food.ordering.response.MessageResponse;
+import com.sandarun.Online.Food.ordering.service.CacheStatisticsService;
+import com.sandarun.Online.Food.ordering.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class AdminCacheController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
+
+        List<CacheStatsResponse> stats=cacheStatisticsService.getRegionStatistics();
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @DeleteMapping()
+    public ResponseEntity<MessageResponse> evictCache(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
+
+        cacheStatisticsService.evictAll();
+
+        MessageResponse response=new MessageResponse();
+        response.setMessage("Second-level cache cleared");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
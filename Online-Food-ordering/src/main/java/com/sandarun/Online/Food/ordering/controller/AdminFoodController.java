@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sandarun.Online.Food.ordering.dto.FoodDto;
 import com.sandarun.Online.Food.ordering.model.Food;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
@@ -37,11 +38,10 @@ public class AdminFoodController {
     private RestaurantService restaurantService;
 
     @PostMapping
-    public ResponseEntity<Food> createFood(@RequestBody CreateFoodRequest req,@RequestHeader("Authorization") String jwt)throws Exception{
+    public ResponseEntity<FoodDto> createFood(@RequestBody CreateFoodRequest req,@RequestHeader("Authorization") String jwt)throws Exception{
         
         User user=userService.findUserByJwtToken(jwt);
-        Restaurant restaurant=restaurantService.findRestaurantById(req.getRestaurantId());
-        Food food=foodService.createFood(req, req.getCategory(), restaurant);
+        FoodDto food=foodService.createFood(req);
 
         return new ResponseEntity<>(food,HttpStatus.CREATED);
     }
@@ -60,27 +60,22 @@ public class AdminFoodController {
     }
 
     @PutMapping("/{id}/update")
-    public ResponseEntity<Food> updateFood(@PathVariable Long id, @RequestBody CreateFoodRequest req, @RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<FoodDto> updateFood(@PathVariable Long id, @RequestBody CreateFoodRequest req, @RequestHeader("Authorization") String jwt) throws Exception {
         
         User user = userService.findUserByJwtToken(jwt);
         
-        // Validate that the user owns the restaurant that contains this food
-        Food existingFood = foodService.findFoodByID(id);
-        if (!existingFood.getRestaurant().getOwner().getId().equals(user.getId())) {
-            throw new Exception("You are not authorized to update this food item");
-        }
-        
-        Food updatedFood = foodService.updateFood(id, req, req.getCategory());
+        // Validates that the user owns the restaurant that contains this food
+        FoodDto updatedFood = foodService.updateFood(id, req, req.getCategory(), user);
         
         return new ResponseEntity<>(updatedFood, HttpStatus.OK);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Food> updateFoodAvalibilityStatus(@PathVariable Long id,@RequestHeader("Authorization") String jwt)throws Exception{
+    public ResponseEntity<FoodDto> updateFoodAvalibilityStatus(@PathVariable Long id,@RequestHeader("Authorization") String jwt)throws Exception{
         
         User user=userService.findUserByJwtToken(jwt);
 
-        Food food=foodService.updateAvailibilityStatus(id);
+        FoodDto food=foodService.updateAvailibilityStatus(id);
 
         return new ResponseEntity<>(food,HttpStatus.OK);
     }
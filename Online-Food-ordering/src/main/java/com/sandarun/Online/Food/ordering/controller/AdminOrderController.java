@@ -1,9 +1,14 @@
 package com.sandarun.Online.Food.ordering.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -14,10 +19,13 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
 import com.sandarun.Online.Food.ordering.model.Order;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.service.OrderExportService;
 import com.sandarun.Online.Food.ordering.service.OrderService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 
@@ -31,19 +39,43 @@ public class AdminOrderController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
     @GetMapping("/order/restaurant/{id}")
-    public ResponseEntity<List<Order>> getOrderHistory(@PathVariable Long id,@RequestParam(required = false)String order_status,@RequestHeader ("Authorization") String jwt)throws Exception{
+    public ResponseEntity<List<OrderDto>> getOrderHistory(@PathVariable Long id,@RequestParam(required = false)String order_status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestHeader ("Authorization") String jwt)throws Exception{
         
         User user=userService.findUserByJwtToken(jwt);
-        List<Order> orders=orderService.getRestaurantOrder(id, order_status);
+        List<OrderDto> orders=orderService.getRestaurantOrderHistory(id, order_status, from, to);
         return new ResponseEntity<>(orders,HttpStatus.OK);
     }
 
+    // Streams after the method returns, so nothing here may depend on a transaction of this request
+    @GetMapping("/order/restaurant/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportOrderHistory(@PathVariable Long id,@RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestHeader ("Authorization") String jwt)throws Exception{
+
+        User user=userService.findUserByJwtToken(jwt);
+        if(!format.equals("csv") && !format.equals("ndjson")){
+            throw new Exception("Export format must be csv or ndjson");
+        }
+        StreamingResponseBody body=out -> orderExportService.exportRestaurantOrders(id, format, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(format.equals("csv")?new MediaType("text", "csv", StandardCharsets.UTF_8):MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"restaurant-"+id+"-orders."+format+"\"")
+                .body(body);
+    }
+
     @PutMapping("/order/{id}/{orderstatus}")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id,@PathVariable String orderstatus,@RequestHeader ("Authorization") String jwt)throws Exception{
+    public ResponseEntity<OrderDto> updateOrderStatus(@PathVariable Long id,@PathVariable String orderstatus,@RequestHeader ("Authorization") String jwt)throws Exception{
         
         User user=userService.findUserByJwtToken(jwt);
-        Order order=orderService.updateOrder(id, orderstatus);
+        OrderDto order=orderService.updateOrder(id, orderstatus);
         return new ResponseEntity<>(order,HttpStatus.OK);
     }
 
@@ -1,9 +1,14 @@
 package com.sandarun.Online.Food.ordering.controller;
 
+import com.sandarun.Online.Food.ordering.dto.DeliveryZoneDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.CreateRestaurantRequest;
+import com.sandarun.Online.Food.ordering.request.DeliveryZoneRequest;
 import com.sandarun.Online.Food.ordering.response.MessageResponse;
+import com.sandarun.Online.Food.ordering.response.RestaurantDeletionStatus;
+import com.sandarun.Online.Food.ordering.service.DeliveryZoneService;
 import com.sandarun.Online.Food.ordering.service.RestaurantService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,46 +26,72 @@ public class AdminRestaurantController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DeliveryZoneService deliveryZoneService;
+
     @PostMapping()
-    public ResponseEntity<Restaurant> createRestaurant(@RequestBody CreateRestaurantRequest req , @RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<RestaurantSummaryDto> createRestaurant(@RequestBody CreateRestaurantRequest req , @RequestHeader("Authorization") String jwt) throws Exception {
         User user=userService.findUserByJwtToken(jwt);
 
-        Restaurant restaurant =restaurantService.createRestaurant(req,user);
+        RestaurantSummaryDto restaurant =restaurantService.createRestaurant(req,user);
         return new ResponseEntity<>(restaurant, HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Restaurant> updateRestaurant(@RequestBody CreateRestaurantRequest req , @RequestHeader("Authorization") String jwt , @PathVariable Long id) throws Exception {
+    public ResponseEntity<RestaurantSummaryDto> updateRestaurant(@RequestBody CreateRestaurantRequest req , @RequestHeader("Authorization") String jwt , @PathVariable Long id) throws Exception {
         User user=userService.findUserByJwtToken(jwt);
 
-        Restaurant restaurant=restaurantService.updateRestaurant(id,req);
+        RestaurantSummaryDto restaurant=restaurantService.updateRestaurant(id,req);
         return  new ResponseEntity<>(restaurant, HttpStatus.OK);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<MessageResponse> deleteRestaurant(@PathVariable Long id) throws Exception {
+    public ResponseEntity<RestaurantDeletionStatus> deleteRestaurant(@PathVariable Long id) throws Exception {
 
-        restaurantService.deleteRestaurant(id);
+        RestaurantDeletionStatus status=restaurantService.deleteRestaurant(id);
+        return new ResponseEntity<>(status,HttpStatus.ACCEPTED);
+    }
 
-        MessageResponse response=new MessageResponse();
-        response.setMessage("Restaurant deleted successfully");
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<RestaurantDeletionStatus> getDeletionStatus(@RequestHeader("Authorization") String jwt , @PathVariable Long id) throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
 
-        return new ResponseEntity<>(response,HttpStatus.OK);
+        RestaurantDeletionStatus status=restaurantService.getDeletionStatus(id);
+        return new ResponseEntity<>(status,HttpStatus.OK);
     }
 
     @PutMapping("/{id}/status")
-    public ResponseEntity<Restaurant> updateRestaurantStatus( @RequestHeader("Authorization") String jwt , @PathVariable Long id) throws Exception {
+    public ResponseEntity<RestaurantSummaryDto> updateRestaurantStatus( @RequestHeader("Authorization") String jwt , @PathVariable Long id) throws Exception {
         User user=userService.findUserByJwtToken(jwt);
 
-        Restaurant restaurant=restaurantService.updateRestaurantStatus(id);
+        RestaurantSummaryDto restaurant=restaurantService.updateRestaurantStatus(id);
         return  new ResponseEntity<>(restaurant, HttpStatus.OK);
     }
 
+    @PostMapping("/{id}/delivery-zones")
+    public ResponseEntity<DeliveryZoneDto> createDeliveryZone(@RequestBody DeliveryZoneRequest req , @RequestHeader("Authorization") String jwt , @PathVariable Long id) throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
+
+        DeliveryZoneDto zone=deliveryZoneService.createDeliveryZone(id, req);
+        return new ResponseEntity<>(zone, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/delivery-zones/{zoneId}")
+    public ResponseEntity<MessageResponse> deleteDeliveryZone(@RequestHeader("Authorization") String jwt , @PathVariable Long zoneId) throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
+
+        deliveryZoneService.deleteDeliveryZone(zoneId);
+
+        MessageResponse response=new MessageResponse();
+        response.setMessage("Delivery zone deleted successfully");
+        return new ResponseEntity<>(response,HttpStatus.OK);
+    }
+
     @GetMapping("/user")
-    public ResponseEntity<Restaurant> findRestaurantByUserId( @RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<RestaurantSummaryDto> findRestaurantByUserId( @RequestHeader("Authorization") String jwt) throws Exception {
         User user=userService.findUserByJwtToken(jwt);
         System.out.println("\nhellooooooo"+user+"\n");
-        Restaurant restaurant=restaurantService.findRestaurantByUserId(user.getId());
+        RestaurantSummaryDto restaurant=restaurantService.getRestaurantByUserId(user.getId());
         return new ResponseEntity<>(restaurant, HttpStatus.OK);
     }
 
@@ -1,6 +1,7 @@
 package com.sandarun.Online.Food.ordering.controller;
 
 import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
 import com.sandarun.Online.Food.ordering.model.Cart;
 import com.sandarun.Online.Food.ordering.model.USER_ROLE;
 import com.sandarun.Online.Food.ordering.model.User;
@@ -47,6 +48,9 @@ public class AuthController {
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private ShardTemplate shardTemplate;
+
     @PostMapping("/signup")
     public ResponseEntity<AuthResponse> createUserHandler(@RequestBody User user) throws  Exception{
 
@@ -65,7 +69,7 @@ public class AuthController {
 
         Cart cart=new Cart();
         cart.setCustomer(saveduser);
-        cartRepository.save(cart);
+        shardTemplate.call(shardTemplate.shardForCustomer(saveduser.getId()), false, ()->cartRepository.save(cart));
 
         Authentication authentication=new UsernamePasswordAuthenticationToken(user.getEmail(), user.getPassword());
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -12,12 +12,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
 import com.sandarun.Online.Food.ordering.model.Cart;
 import com.sandarun.Online.Food.ordering.model.CartItem;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
 import com.sandarun.Online.Food.ordering.request.UpdateCArtItemRequest;
 import com.sandarun.Online.Food.ordering.service.CartService;
+import com.sandarun.Online.Food.ordering.service.IdempotencyService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 
 @RestController
@@ -30,35 +33,40 @@ public class CartController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PutMapping("/cart/add")
-    public ResponseEntity<CartItem> addItemToCart(@RequestHeader ("Authorization") String jwt , @RequestBody AddCardItemRequest req)throws Exception{
-        CartItem cartItem=cartService.addItemToCart(req, jwt);
-        return new ResponseEntity<>(cartItem,HttpStatus.OK);
+    public ResponseEntity<CartItemDto> addItemToCart(@RequestHeader ("Authorization") String jwt , @RequestHeader (value = "Idempotency-Key", required = false) String idempotencyKey , @RequestBody AddCardItemRequest req)throws Exception{
+        // The service commits before the response is recorded, a failed commit is never replayed
+        return idempotencyService.execute("cart-add", idempotencyKey, jwt, req, ()->{
+            CartItemDto cartItem=cartService.addItemToCart(req, jwt);
+            return new ResponseEntity<>(cartItem,HttpStatus.OK);
+        });
     }
 
     @PutMapping("/cart-item/update")
-    public ResponseEntity<CartItem> updateCartItemQuantity(@RequestHeader ("Authorization") String jwt , @RequestBody UpdateCArtItemRequest req)throws Exception{
-        CartItem cartItem=cartService.updateCartItemQuantity(req.getCartItemId(), req.getQuantity());
+    public ResponseEntity<CartItemDto> updateCartItemQuantity(@RequestHeader ("Authorization") String jwt , @RequestBody UpdateCArtItemRequest req)throws Exception{
+        CartItemDto cartItem=cartService.updateCartItemQuantity(req.getCartItemId(), req.getQuantity());
         return new ResponseEntity<>(cartItem,HttpStatus.OK);
     }
 
     @DeleteMapping("/cart-item/{id}/remove")
-    public ResponseEntity<Cart> removeCartItem(@RequestHeader ("Authorization") String jwt , @PathVariable Long id)throws Exception{
-        Cart cart=cartService.removeItemFromCart(id, jwt);
+    public ResponseEntity<CartDto> removeCartItem(@RequestHeader ("Authorization") String jwt , @PathVariable Long id)throws Exception{
+        CartDto cart=cartService.removeItemFromCart(id, jwt);
         return new ResponseEntity<>(cart,HttpStatus.OK);
     }
 
     @PutMapping("/cart/clear")
-    public ResponseEntity<Cart> clearCart(@RequestHeader ("Authorization") String jwt )throws Exception{
+    public ResponseEntity<CartDto> clearCart(@RequestHeader ("Authorization") String jwt )throws Exception{
         User user=userService.findUserByJwtToken(jwt);
-        Cart cart=cartService.clearCart(user.getId());
+        CartDto cart=cartService.clearCart(user.getId());
         return new ResponseEntity<>(cart,HttpStatus.OK);
     }
 
     @GetMapping("/cart")
-    public ResponseEntity<Cart> findUserCart(@RequestHeader ("Authorization") String jwt )throws Exception{
-        User user=userService.findUserByJwtToken(jwt);
-        Cart cart=cartService.findCartByUserId(user.getId());
+    public ResponseEntity<CartDto> findUserCart(@RequestHeader ("Authorization") String jwt )throws Exception{
+        CartDto cart=cartService.getUserCart(jwt);
         return new ResponseEntity<>(cart,HttpStatus.OK);
     }
 }
@@ -3,12 +3,16 @@ package com.sandarun.Online.Food.ordering.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sandarun.Online.Food.ordering.dto.CatalogVersionDto;
+import com.sandarun.Online.Food.ordering.dto.CategoryDto;
 import com.sandarun.Online.Food.ordering.model.Category;
 import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.service.CatalogVersionService;
 import com.sandarun.Online.Food.ordering.service.CategoryService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 
@@ -23,22 +27,32 @@ public class CategoryController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
     @PostMapping("/admin/category")
-    public ResponseEntity<Category> createCategory(@RequestHeader("Authorization") String jwt,@RequestBody Category category)throws Exception{
+    public ResponseEntity<CategoryDto> createCategory(@RequestHeader("Authorization") String jwt,@RequestBody Category category)throws Exception{
 
         User user=userService.findUserByJwtToken(jwt);
-        Category createCategory=categoryService.createCategory(category.getName(), user.getId());
+        CategoryDto createCategory=categoryService.createCategory(category.getName(), user.getId());
         
         return new ResponseEntity<>(createCategory,HttpStatus.CREATED);
     
     }
 
     @GetMapping("/category/restaurant/{id}")
-    public ResponseEntity<List<Category>> getRestaurantCategory(@RequestHeader("Authorization") String jwt, @PathVariable Long id)throws Exception{
+    public ResponseEntity<List<CategoryDto>> getRestaurantCategory(@RequestHeader("Authorization") String jwt, @PathVariable Long id, @RequestHeader HttpHeaders headers)throws Exception{
+        CatalogVersionDto version=catalogVersionService.current(id);
+        String etag=catalogVersionService.etag(version, "categories");
+        long lastModified=catalogVersionService.lastModified(version);
+        if(catalogVersionService.notModified(etag, lastModified, headers)){
+            return catalogVersionService.notModifiedResponse(etag, lastModified);
+        }
+
         User user=userService.findUserByJwtToken(jwt);
-        List<Category> Categories=categoryService.findCategoryByRestaurantId(id);
+        List<CategoryDto> Categories=categoryService.findCategoryByRestaurantId(id);
         
-        return new ResponseEntity<>(Categories,HttpStatus.OK);
+        return catalogVersionService.okResponse(Categories, etag, lastModified);
     
     }
 }
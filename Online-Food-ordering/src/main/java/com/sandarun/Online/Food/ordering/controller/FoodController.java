@@ -3,6 +3,7 @@ package com.sandarun.Online.Food.ordering.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,11 +15,16 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sandarun.Online.Food.ordering.dto.CatalogVersionDto;
+import com.sandarun.Online.Food.ordering.dto.FoodDto;
 import com.sandarun.Online.Food.ordering.model.Food;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.CreateFoodRequest;
+import com.sandarun.Online.Food.ordering.response.MenuChangesResponse;
+import com.sandarun.Online.Food.ordering.service.CatalogVersionService;
 import com.sandarun.Online.Food.ordering.service.FoodService;
+import com.sandarun.Online.Food.ordering.service.MenuSyncService;
 import com.sandarun.Online.Food.ordering.service.RestaurantService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 
@@ -34,29 +40,51 @@ public class FoodController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private MenuSyncService menuSyncService;
+
     @GetMapping("/search")
-    public ResponseEntity<List<Food>> searchFood(@RequestParam String name,@RequestHeader("Authorization") String jwt)throws Exception{
+    public ResponseEntity<List<FoodDto>> searchFood(@RequestParam String name,@RequestHeader("Authorization") String jwt)throws Exception{
         
         User user=userService.findUserByJwtToken(jwt);
-        List<Food> foods=foodService.searchFood(name);
+        List<FoodDto> foods=foodService.searchFood(name);
 
         return new ResponseEntity<>(foods,HttpStatus.OK);
     }
 
     @GetMapping("/restaurant/{restaurantId}")
-    public ResponseEntity<List<Food>> getRestaurantFood(@PathVariable Long restaurantId,@RequestHeader("Authorization") String jwt)throws Exception{
+    public ResponseEntity<List<FoodDto>> getRestaurantFood(@PathVariable Long restaurantId,@RequestHeader("Authorization") String jwt,@RequestHeader HttpHeaders headers)throws Exception{
         
+        CatalogVersionDto version=catalogVersionService.current(restaurantId);
+        String etag=catalogVersionService.etag(version, "menu");
+        long lastModified=catalogVersionService.lastModified(version);
+        if(catalogVersionService.notModified(etag, lastModified, headers)){
+            return catalogVersionService.notModifiedResponse(etag, lastModified);
+        }
+
         User user=userService.findUserByJwtToken(jwt);
-        List<Food> foods=foodService.getRestaurantsFood(restaurantId);
+        List<FoodDto> foods=foodService.getRestaurantsFood(restaurantId);
 
-        return new ResponseEntity<>(foods,HttpStatus.OK);
+        return catalogVersionService.okResponse(foods, etag, lastModified);
+    }
+
+    @GetMapping("/restaurant/{restaurantId}/changes")
+    public ResponseEntity<MenuChangesResponse> getMenuChanges(@PathVariable Long restaurantId,@RequestParam(defaultValue = "0") long since,@RequestHeader("Authorization") String jwt)throws Exception{
+
+        User user=userService.findUserByJwtToken(jwt);
+        MenuChangesResponse changes=menuSyncService.getChanges(restaurantId, since);
+
+        return new ResponseEntity<>(changes,HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Food> getFoodById(@PathVariable Long id, @RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<FoodDto> getFoodById(@PathVariable Long id, @RequestHeader("Authorization") String jwt) throws Exception {
         
         User user = userService.findUserByJwtToken(jwt);
-        Food food = foodService.findFoodByID(id);
+        FoodDto food = foodService.getFoodById(id);
         
         return new ResponseEntity<>(food, HttpStatus.OK);
     }
@@ -0,0 +1,79 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.response.GroupCartResponse;
+import com.sandarun.Online.Food.ordering.response.MessageResponse;
+import com.sandarun.Online.Food.ordering.service.GroupCartService;
+import com.sandarun.Online.Food.ordering.service.UserService;
+
+@RestController
+@RequestMapping("/api/group-cart")
+public class GroupCartController {
+
+    @Autowired
+    private GroupCartService groupCartService;
+
+    @Autowired
+    private UserService userService;
+
+    @PostMapping
+    public ResponseEntity<CartDto> createGroupCart(@RequestHeader ("Authorization") String jwt)throws Exception{
+        User user=userService.findUserByJwtToken(jwt);
+        CartDto cart=groupCartService.createGroupCart(user);
+        return new ResponseEntity<>(cart,HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{id}/join")
+    public ResponseEntity<GroupCartResponse> joinGroupCart(@RequestHeader ("Authorization") String jwt , @PathVariable Long id)throws Exception{
+        User user=userService.findUserByJwtToken(jwt);
+        GroupCartResponse cart=groupCartService.joinGroupCart(id, user);
+        return new ResponseEntity<>(cart,HttpStatus.OK);
+    }
+
+    @PutMapping("/{id}/add")
+    public ResponseEntity<CartItemDto> addItem(@RequestHeader ("Authorization") String jwt , @PathVariable Long id , @RequestBody AddCardItemRequest req)throws Exception{
+        User user=userService.findUserByJwtToken(jwt);
+        CartItemDto cartItem=groupCartService.addItem(id, req, user);
+        return new ResponseEntity<>(cartItem,HttpStatus.OK);
+    }
+
+    @DeleteMapping("/{id}/item/{itemId}")
+    public ResponseEntity<MessageResponse> removeItem(@RequestHeader ("Authorization") String jwt , @PathVariable Long id , @PathVariable Long itemId)throws Exception{
+        User user=userService.findUserByJwtToken(jwt);
+        groupCartService.removeItem(id, itemId, user);
+
+        MessageResponse res=new MessageResponse();
+        res.setMessage("Item removed from group cart");
+        return new ResponseEntity<>(res,HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<GroupCartResponse> getGroupCart(@RequestHeader ("Authorization") String jwt , @PathVariable Long id)throws Exception{
+        User user=userService.findUserByJwtToken(jwt);
+        GroupCartResponse cart=groupCartService.getGroupCart(id, user);
+        return new ResponseEntity<>(cart,HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/events")
+    public SseEmitter subscribe(@RequestHeader ("Authorization") String jwt , @PathVariable Long id)throws Exception{
+        User user=userService.findUserByJwtToken(jwt);
+        return groupCartService.subscribe(id, user);
+    }
+}
@@ -13,8 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.sandarun.Online.Food.ordering.model.IngredientCategory;
-import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import com.sandarun.Online.Food.ordering.dto.IngredientCategoryDto;
+import com.sandarun.Online.Food.ordering.dto.IngredientItemDto;
 import com.sandarun.Online.Food.ordering.request.IngredientCategoryRequest;
 import com.sandarun.Online.Food.ordering.request.IngredientRequest;
 import com.sandarun.Online.Food.ordering.service.IngredientsService;
@@ -27,32 +27,32 @@ public class IngredientController {
     private IngredientsService ingredientsService;
 
     @PostMapping("/category")
-    public ResponseEntity<IngredientCategory> createIngredientCategory(@RequestBody IngredientCategoryRequest req)throws Exception{
-        IngredientCategory item=ingredientsService.createiIngredientCategory(req.getName(), req.getRestaurantId());
+    public ResponseEntity<IngredientCategoryDto> createIngredientCategory(@RequestBody IngredientCategoryRequest req)throws Exception{
+        IngredientCategoryDto item=ingredientsService.createiIngredientCategory(req.getName(), req.getRestaurantId());
         return new ResponseEntity<>(item,HttpStatus.CREATED);
     }
 
     @PostMapping()
-    public ResponseEntity<IngredientsItems> createIngredientItem(@RequestBody IngredientRequest req)throws Exception{
-        IngredientsItems item=ingredientsService.createIngredientsItems(req.getRestaurantId(), req.getName(),req.getCategoryId());
+    public ResponseEntity<IngredientItemDto> createIngredientItem(@RequestBody IngredientRequest req)throws Exception{
+        IngredientItemDto item=ingredientsService.createIngredientsItems(req.getRestaurantId(), req.getName(),req.getCategoryId());
         return new ResponseEntity<>(item,HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}/stoke")
-    public ResponseEntity<IngredientsItems> UpdateIngredientStock(@PathVariable Long id)throws Exception{
-        IngredientsItems item=ingredientsService.updateStock(id);
+    public ResponseEntity<IngredientItemDto> UpdateIngredientStock(@PathVariable Long id)throws Exception{
+        IngredientItemDto item=ingredientsService.updateStock(id);
         return new ResponseEntity<>(item,HttpStatus.OK);
     }
 
     @GetMapping("restaurant/{id}")
-    public ResponseEntity<List<IngredientsItems>> getRestaurantIngredient(@PathVariable Long id)throws Exception{
-        List<IngredientsItems> items=ingredientsService.findRestaurantIngredients(id);
+    public ResponseEntity<List<IngredientItemDto>> getRestaurantIngredient(@PathVariable Long id)throws Exception{
+        List<IngredientItemDto> items=ingredientsService.findRestaurantIngredients(id);
         return new ResponseEntity<>(items,HttpStatus.OK);
     }
 
     @GetMapping("restaurant/{id}/category")
-    public ResponseEntity<List<IngredientCategory>> getRestaurantIngredientCategory(@PathVariable Long id)throws Exception{
-        List<IngredientCategory> items=ingredientsService.findIngredientCategoriesByRestaurantId(id);
+    public ResponseEntity<List<IngredientCategoryDto>> getRestaurantIngredientCategory(@PathVariable Long id)throws Exception{
+        List<IngredientCategoryDto> items=ingredientsService.findIngredientCategoriesByRestaurantId(id);
         return new ResponseEntity<>(items,HttpStatus.OK);
     }
 }
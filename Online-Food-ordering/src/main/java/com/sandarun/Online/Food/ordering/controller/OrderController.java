@@ -1,23 +1,30 @@
 package com.sandarun.Online.Food.ordering.controller;
 
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
 import com.sandarun.Online.Food.ordering.model.CartItem;
 import com.sandarun.Online.Food.ordering.model.Order;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
 import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.response.ReorderResponse;
+import com.sandarun.Online.Food.ordering.service.IdempotencyService;
 import com.sandarun.Online.Food.ordering.service.OrderService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 
@@ -31,20 +38,35 @@ public class OrderController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("/order")
-    public ResponseEntity<Order> createOrder(@RequestHeader ("Authorization") String jwt , @RequestBody OrderRequest req)throws Exception{
+    public ResponseEntity<List<OrderDto>> createOrder(@RequestHeader ("Authorization") String jwt , @RequestHeader (value = "Idempotency-Key", required = false) String idempotencyKey , @RequestBody OrderRequest req)throws Exception{
         
-        User user=userService.findUserByJwtToken(jwt);
-        System.out.println("\n"+req+"\n");
-        Order order=orderService.createOrder(req, user);
-        return new ResponseEntity<>(order,HttpStatus.OK);
+        // The service commits before the response is recorded, a failed commit is never replayed
+        return idempotencyService.execute("create-order", idempotencyKey, jwt, req, ()->{
+            User user=userService.findUserByJwtToken(jwt);
+            System.out.println("\n"+req+"\n");
+            List<OrderDto> orders=orderService.createOrder(req, user);
+            return new ResponseEntity<>(orders,HttpStatus.OK);
+        });
     }
 
     @GetMapping("/order/user")
-    public ResponseEntity<List<Order>> getOrderHistory(@RequestHeader ("Authorization") String jwt)throws Exception{
+    public ResponseEntity<List<OrderDto>> getOrderHistory(@RequestHeader ("Authorization") String jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to)throws Exception{
         
-        User user=userService.findUserByJwtToken(jwt);
-        List<Order> orders=orderService.getUsersOrder(user.getId());
+        List<OrderDto> orders=orderService.getOrderHistory(jwt, from, to);
         return new ResponseEntity<>(orders,HttpStatus.OK);
     }
+
+    @PostMapping("/order/{id}/reorder")
+    public ResponseEntity<ReorderResponse> reorder(@RequestHeader ("Authorization") String jwt , @PathVariable Long id)throws Exception{
+
+        User user=userService.findUserByJwtToken(jwt);
+        ReorderResponse response=orderService.reorder(id, user);
+        return new ResponseEntity<>(response,HttpStatus.OK);
+    }
 }
@@ -1,16 +1,27 @@
 package com.sandarun.Online.Food.ordering.controller;
 
+import com.sandarun.Online.Food.ordering.dto.CatalogVersionDto;
+import com.sandarun.Online.Food.ordering.dto.DeliveryZoneDto;
 import com.sandarun.Online.Food.ordering.dto.RestaurantDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.response.NearbyRestaurantResponse;
+import com.sandarun.Online.Food.ordering.response.RestaurantPageResponse;
+import com.sandarun.Online.Food.ordering.service.CatalogVersionService;
+import com.sandarun.Online.Food.ordering.service.DeliveryZoneService;
+import com.sandarun.Online.Food.ordering.service.RestaurantGeoService;
+import com.sandarun.Online.Food.ordering.service.RestaurantPageService;
 import com.sandarun.Online.Food.ordering.service.RestaurantService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/restaurants")
@@ -22,31 +33,107 @@ public class RestaurantCotroller {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RestaurantGeoService restaurantGeoService;
+
+    @Autowired
+    private DeliveryZoneService deliveryZoneService;
+
+    @Autowired
+    private RestaurantPageService restaurantPageService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
 
     @GetMapping("/search")
-    public ResponseEntity<List<Restaurant>> searchRestaurant(@RequestHeader("Authorization") String jwt, @RequestParam String keyword)throws Exception {
+    public ResponseEntity<List<RestaurantSummaryDto>> searchRestaurant(@RequestHeader("Authorization") String jwt, @RequestParam String keyword, @RequestParam(defaultValue = "false") boolean openNow)throws Exception {
         User user=userService.findUserByJwtToken(jwt);
 
-        List<Restaurant> restaurants=restaurantService.searchRestaurant(keyword);
+        List<RestaurantSummaryDto> restaurants=restaurantService.searchRestaurant(keyword);
+        if(openNow){
+            restaurants=restaurants.stream().filter(RestaurantSummaryDto::isOpen).collect(Collectors.toList());
+        }
         return new ResponseEntity<>(restaurants, HttpStatus.OK);
     }
 
     @GetMapping()
-    public ResponseEntity<List<Restaurant>> getAllRestaurant(@RequestHeader("Authorization") String jwt)throws Exception {
+    public ResponseEntity<List<RestaurantSummaryDto>> getAllRestaurant(@RequestHeader("Authorization") String jwt, @RequestParam(defaultValue = "false") boolean openNow)throws Exception {
         User user=userService.findUserByJwtToken(jwt);
 
-        List<Restaurant> restaurants=restaurantService.getAllRestaurant();
+        List<RestaurantSummaryDto> restaurants=openNow?restaurantService.getOpenRestaurants():restaurantService.getAllRestaurant();
         return new ResponseEntity<>(restaurants, HttpStatus.OK);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Restaurant> findRestaurantById(@RequestHeader("Authorization") String jwt,@PathVariable Long id)throws Exception {
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyRestaurantResponse>> findNearbyRestaurants(@RequestHeader("Authorization") String jwt, @RequestParam double lat, @RequestParam double lon, @RequestParam(required = false) Double radiusKm, @RequestParam(defaultValue = "20") int limit)throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
+
+        if(limit<1){
+            throw new Exception("limit must be at least 1");
+        }
+        // The grid scan grows with the radius, an unbounded one walks every cell
+        if(radiusKm!=null && !(radiusKm>0 && radiusKm<=RestaurantGeoService.MAX_RADIUS_KM)){
+            throw new Exception("radiusKm must be above 0 and at most "+RestaurantGeoService.MAX_RADIUS_KM);
+        }
+        if(!(Math.abs(lat)<=90 && Math.abs(lon)<=180)){
+            throw new Exception("lat must be within 90 and lon within 180 degrees");
+        }
+
+        List<NearbyRestaurantResponse> restaurants=restaurantGeoService.findNearby(lat, lon, radiusKm, limit);
+        return new ResponseEntity<>(restaurants, HttpStatus.OK);
+    }
+
+    @GetMapping("/delivers-to")
+    public ResponseEntity<List<RestaurantSummaryDto>> findRestaurantsDeliveringTo(@RequestHeader("Authorization") String jwt, @RequestParam double lat, @RequestParam double lon)throws Exception {
         User user=userService.findUserByJwtToken(jwt);
 
-        Restaurant restaurants=restaurantService.findRestaurantById(id);
+        List<RestaurantSummaryDto> restaurants=deliveryZoneService.findRestaurantsDeliveringTo(lat, lon);
         return new ResponseEntity<>(restaurants, HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/delivery-zones")
+    public ResponseEntity<List<DeliveryZoneDto>> getDeliveryZones(@RequestHeader("Authorization") String jwt, @PathVariable Long id)throws Exception {
+        User user=userService.findUserByJwtToken(jwt);
+
+        List<DeliveryZoneDto> zones=deliveryZoneService.getRestaurantDeliveryZones(id);
+        return new ResponseEntity<>(zones, HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RestaurantSummaryDto> findRestaurantById(@RequestHeader("Authorization") String jwt,@PathVariable Long id,@RequestHeader HttpHeaders headers)throws Exception {
+        CatalogVersionDto version=catalogVersionService.current(id);
+        String etag=catalogVersionService.etag(version, "restaurant");
+        long lastModified=catalogVersionService.lastModified(version);
+        if(catalogVersionService.notModified(etag, lastModified, headers)){
+            return catalogVersionService.notModifiedResponse(etag, lastModified);
+        }
+
+        User user=userService.findUserByJwtToken(jwt);
+
+        RestaurantSummaryDto restaurants=restaurantService.findRestaurantDetailById(id);
+        return catalogVersionService.okResponse(restaurants, etag, lastModified);
+    }
+
+    @GetMapping("/{id}/page")
+    public ResponseEntity<RestaurantPageResponse> getRestaurantPage(@RequestHeader("Authorization") String jwt,@PathVariable Long id,@RequestHeader HttpHeaders headers)throws Exception {
+        CatalogVersionDto version=catalogVersionService.current(id);
+        String etag=catalogVersionService.etag(version, "page");
+        long lastModified=catalogVersionService.lastModified(version);
+        if(catalogVersionService.notModified(etag, lastModified, headers)){
+            return catalogVersionService.notModifiedResponse(etag, lastModified);
+        }
+
+        User user=userService.findUserByJwtToken(jwt);
+
+        RestaurantPageResponse page=restaurantPageService.getRestaurantPage(id);
+        // Sections that timed out must not be cached under the tag
+        if(!page.getMissingSections().isEmpty()){
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        }
+        return catalogVersionService.okResponse(page, etag, lastModified);
+    }
+
     @PutMapping("/{id}/add-favorites")
     public ResponseEntity<RestaurantDto> addToFavorites(@RequestHeader("Authorization") String jwt, @PathVariable Long id)throws Exception {
         User user=userService.findUserByJwtToken(jwt);
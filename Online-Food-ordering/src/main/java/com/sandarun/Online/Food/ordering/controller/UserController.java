@@ -1,14 +1,19 @@
 package com.sandarun.Online.Food.ordering.controller;
 
+import com.sandarun.Online.Food.ordering.dto.RestaurantDto;
+import com.sandarun.Online.Food.ordering.dto.UserDto;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.UpdateUserRequest;
 import com.sandarun.Online.Food.ordering.response.MessageResponse;
+import com.sandarun.Online.Food.ordering.service.RestaurantService;
 import com.sandarun.Online.Food.ordering.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
@@ -16,24 +21,34 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RestaurantService restaurantService;
+
     @GetMapping("/profile")
-    public ResponseEntity<User> findUserByJwtToken(@RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<UserDto> findUserByJwtToken(@RequestHeader("Authorization") String jwt) throws Exception {
 //        System.out.println("\nsadasd\n");
-        User user = userService.findUserByJwtToken(jwt);
+        UserDto user = userService.getUserProfile(jwt);
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
+    @GetMapping("/favorites")
+    public ResponseEntity<List<RestaurantDto>> getFavorites(@RequestHeader("Authorization") String jwt) throws Exception {
+        User user = userService.findUserByJwtToken(jwt);
+        List<RestaurantDto> favorites = restaurantService.getFavorites(user.getId());
+        return new ResponseEntity<>(favorites, HttpStatus.OK);
+    }
+
     @PutMapping("/profile")
-    public ResponseEntity<User> updateUserProfile(@RequestBody UpdateUserRequest request, @RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<UserDto> updateUserProfile(@RequestBody UpdateUserRequest request, @RequestHeader("Authorization") String jwt) throws Exception {
         User user = userService.findUserByJwtToken(jwt);
-        User updatedUser = userService.updateUser(user.getId(), request);
+        UserDto updatedUser = userService.updateUser(user.getId(), request);
         return new ResponseEntity<>(updatedUser, HttpStatus.OK);
     }
 
     @PostMapping("/address")
-    public ResponseEntity<User> addAddress(@RequestBody UpdateUserRequest request, @RequestHeader("Authorization") String jwt) throws Exception {
+    public ResponseEntity<UserDto> addAddress(@RequestBody UpdateUserRequest request, @RequestHeader("Authorization") String jwt) throws Exception {
         User user = userService.findUserByJwtToken(jwt);
-        User updatedUser=userService.updateUser(user.getId(), request);
+        UserDto updatedUser=userService.updateUser(user.getId(), request);
         
         MessageResponse response = new MessageResponse();
         response.setMessage("Address added successfully");
@@ -0,0 +1,30 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Cart;
+import com.sandarun.Online.Food.ordering.model.CartItem;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CartDto {
+
+    private  Long id;
+    private  UserDto customer;
+    private  Long total;
+    private List<CartItemDto> item=new ArrayList<>();
+    private  boolean groupCart;
+
+    public static CartDto fromCart(Cart cart) {
+        CartDto dto=new CartDto();
+        dto.setId(cart.getId());
+        dto.setCustomer(cart.getCustomer()==null?null:UserDto.fromUser(cart.getCustomer()));
+        dto.setTotal(cart.getTotal());
+        for(CartItem item:cart.getItem()){
+            dto.getItem().add(CartItemDto.fromCartItem(item));
+        }
+        dto.setGroupCart(cart.isGroupCart());
+        return dto;
+    }
+}
@@ -0,0 +1,27 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.CartItem;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CartItemDto {
+
+    private  Long id;
+    private  FoodDto food;
+    private  int quantity;
+    private List<String> ingredients;
+    private  Long totalPrice;
+
+    public static CartItemDto fromCartItem(CartItem item) {
+        CartItemDto dto=new CartItemDto();
+        dto.setId(item.getId());
+        dto.setFood(item.getFood()==null?null:FoodDto.fromFood(item.getFood()));
+        dto.setQuantity(item.getQuantity());
+        dto.setIngredients(item.getIngredients()==null?null:new ArrayList<>(item.getIngredients()));
+        dto.setTotalPrice(item.getTotalPrice());
+        return dto;
+    }
+}
@@ -0,0 +1,16 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+public class CatalogVersionDto {
+
+    private Long restaurantId;
+    private Long version;
+    // Null until the first change after the column was added
+    private Date modifiedAt;
+}
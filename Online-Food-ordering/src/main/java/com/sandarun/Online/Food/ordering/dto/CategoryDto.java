@@ -0,0 +1,20 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Category;
+import lombok.Data;
+
+@Data
+public class CategoryDto {
+
+    private  Long id;
+    private  String name;
+    private  Long version;
+
+    public static CategoryDto fromCategory(Category category) {
+        CategoryDto dto=new CategoryDto();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        dto.setVersion(category.getChangeVersion());
+        return dto;
+    }
+}
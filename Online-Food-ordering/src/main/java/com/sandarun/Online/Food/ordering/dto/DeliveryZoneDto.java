@@ -0,0 +1,27 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.DeliveryZone;
+import com.sandarun.Online.Food.ordering.model.GeoPoint;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class DeliveryZoneDto {
+
+    private  Long id;
+    private  String name;
+    private  Long fee;
+    private List<GeoPoint> points;
+
+    // The points are a lazy collection, only copied while the session is open
+    public static DeliveryZoneDto fromZone(DeliveryZone zone) {
+        DeliveryZoneDto dto=new DeliveryZoneDto();
+        dto.setId(zone.getId());
+        dto.setName(zone.getName());
+        dto.setFee(zone.getFee());
+        dto.setPoints(new ArrayList<>(zone.getPoints()));
+        return dto;
+    }
+}
@@ -0,0 +1,45 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Category;
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Same fields the Food entity used to serialize to, only copied while the session is open
+@Data
+public class FoodDto {
+
+    private  Long id;
+    private  String name;
+    private  String description;
+    private  Long price;
+    private  Category category;
+    private List<String> images;
+    private  boolean available;
+    private  Long res_id;
+    private  boolean vegetarian;
+    private  boolean seasonal;
+    private List<IngredientsItems> ingredients=new ArrayList<>();
+    private LocalDateTime creationDate;
+
+    public static FoodDto fromFood(Food food) {
+        FoodDto dto=new FoodDto();
+        dto.setId(food.getId());
+        dto.setName(food.getName());
+        dto.setDescription(food.getDescription());
+        dto.setPrice(food.getPrice());
+        dto.setCategory(food.getCategory());
+        dto.setImages(food.getImages()==null?null:new ArrayList<>(food.getImages()));
+        dto.setAvailable(food.isAvailable());
+        dto.setRes_id(food.getRes_id());
+        dto.setVegetarian(food.isVegetarian());
+        dto.setSeasonal(food.isSeasonal());
+        dto.setIngredients(new ArrayList<>(food.getIngredients()));
+        dto.setCreationDate(food.getCreationDate());
+        return dto;
+    }
+}
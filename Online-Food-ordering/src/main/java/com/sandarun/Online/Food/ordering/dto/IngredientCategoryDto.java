@@ -0,0 +1,37 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.IngredientCategory;
+import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class IngredientCategoryDto {
+
+    private  Long id;
+    private  String name;
+    private List<Item> ingredients=new ArrayList<>();
+
+    public static IngredientCategoryDto fromCategory(IngredientCategory category) {
+        IngredientCategoryDto dto=new IngredientCategoryDto();
+        dto.setId(category.getId());
+        dto.setName(category.getName());
+        for(IngredientsItems ingredient:category.getIngredients()){
+            Item item=new Item();
+            item.setId(ingredient.getId());
+            item.setName(ingredient.getName());
+            item.setInStock(ingredient.isInStoke());
+            dto.getIngredients().add(item);
+        }
+        return dto;
+    }
+
+    @Data
+    public static class Item {
+        private  Long id;
+        private  String name;
+        private  boolean inStock;
+    }
+}
@@ -0,0 +1,24 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import lombok.Data;
+
+@Data
+public class IngredientItemDto {
+
+    private  Long id;
+    private  String name;
+    private  Long categoryId;
+    private  boolean inStock;
+    private  Long version;
+
+    public static IngredientItemDto fromIngredient(IngredientsItems ingredient) {
+        IngredientItemDto dto=new IngredientItemDto();
+        dto.setId(ingredient.getId());
+        dto.setName(ingredient.getName());
+        dto.setCategoryId(ingredient.getCategory()==null?null:ingredient.getCategory().getId());
+        dto.setInStock(ingredient.isInStoke());
+        dto.setVersion(ingredient.getChangeVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,41 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+public class MenuItemDto {
+
+    private  Long id;
+    private  String name;
+    private  String description;
+    private  Long price;
+    private  Long categoryId;
+    private List<String> images;
+    private  boolean available;
+    private  boolean vegetarian;
+    private  boolean seasonal;
+    private List<Long> ingredientIds;
+    private  Long version;
+
+    public static MenuItemDto fromFood(Food food) {
+        MenuItemDto dto=new MenuItemDto();
+        dto.setId(food.getId());
+        dto.setName(food.getName());
+        dto.setDescription(food.getDescription());
+        dto.setPrice(food.getPrice());
+        dto.setCategoryId(food.getCategory()==null?null:food.getCategory().getId());
+        dto.setImages(food.getImages()==null?null:new ArrayList<>(food.getImages()));
+        dto.setAvailable(food.isAvailable());
+        dto.setVegetarian(food.isVegetarian());
+        dto.setSeasonal(food.isSeasonal());
+        dto.setIngredientIds(food.getIngredients().stream().map(IngredientsItems::getId).collect(Collectors.toList()));
+        dto.setVersion(food.getChangeVersion());
+        return dto;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.Order;
+import com.sandarun.Online.Food.ordering.model.OrderItem;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+@Data
+public class OrderDto {
+
+    private Long id;
+    private  UserDto customer;
+    private Long totalAmount;
+    private String orderStatus;
+    private Date createdAt;
+    private Date scheduledFor;
+    private Date releaseAt;
+    private Address deliveruAddress;
+    private List<OrderItemDto> items=new ArrayList<>();
+    private  int totalItem;
+    private  Long totalPrice;
+    private  Long deliveryFee;
+
+    public static OrderDto fromOrder(Order order) {
+        OrderDto dto=new OrderDto();
+        dto.setId(order.getId());
+        dto.setCustomer(order.getCustomer()==null?null:UserDto.fromUser(order.getCustomer()));
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setOrderStatus(order.getOrderStatus());
+        dto.setCreatedAt(order.getCreatedAt());
+        dto.setScheduledFor(order.getScheduledFor());
+        dto.setReleaseAt(order.getReleaseAt());
+        dto.setDeliveruAddress(order.getDeliveruAddress());
+        if(order.getItems()!=null){
+            for(OrderItem item:order.getItems()){
+                dto.getItems().add(OrderItemDto.fromOrderItem(item));
+            }
+        }
+        dto.setTotalItem(order.getTotalItem());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setDeliveryFee(order.getDeliveryFee());
+        return dto;
+    }
+}
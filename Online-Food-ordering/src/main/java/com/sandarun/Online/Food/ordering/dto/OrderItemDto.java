@@ -0,0 +1,27 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.OrderItem;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OrderItemDto {
+
+    private  Long id;
+    private  FoodDto food;
+    private  int quantity;
+    private  Long totalPrice;
+    private List<String> ingredients;
+
+    public static OrderItemDto fromOrderItem(OrderItem item) {
+        OrderItemDto dto=new OrderItemDto();
+        dto.setId(item.getId());
+        dto.setFood(item.getFood()==null?null:FoodDto.fromFood(item.getFood()));
+        dto.setQuantity(item.getQuantity());
+        dto.setTotalPrice(item.getTotalPrice());
+        dto.setIngredients(item.getIngredients()==null?null:new ArrayList<>(item.getIngredients()));
+        return dto;
+    }
+}
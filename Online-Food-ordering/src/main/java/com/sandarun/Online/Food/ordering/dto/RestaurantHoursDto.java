@@ -0,0 +1,14 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RestaurantHoursDto {
+
+    private Long id;
+    private String openingHours;
+    private String timeZone;
+    private boolean open;
+}
@@ -0,0 +1,13 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RestaurantLocationDto {
+
+    private Long id;
+    private Double latitude;
+    private Double longitude;
+}
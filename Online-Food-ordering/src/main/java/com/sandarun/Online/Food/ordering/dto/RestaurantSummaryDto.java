@@ -0,0 +1,42 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.ContactInformation;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RestaurantSummaryDto {
+
+    private  Long id;
+    private  String name;
+    private  String description;
+    private  String cuisineType;
+    private  Address address;
+    private  ContactInformation contactInformation;
+    private  String openingHours;
+    private  String timeZone;
+    private List<String> images;
+    private LocalDateTime registrationDate;
+    private  boolean open;
+
+    public static RestaurantSummaryDto fromRestaurant(Restaurant restaurant) {
+        RestaurantSummaryDto dto=new RestaurantSummaryDto();
+        dto.setId(restaurant.getId());
+        dto.setName(restaurant.getName());
+        dto.setDescription(restaurant.getDescription());
+        dto.setCuisineType(restaurant.getCuisineType());
+        dto.setAddress(restaurant.getAddress());
+        dto.setContactInformation(restaurant.getContactInformation());
+        dto.setOpeningHours(restaurant.getOpeningHours());
+        dto.setTimeZone(restaurant.getTimeZone());
+        dto.setImages(restaurant.getImages()==null?null:new ArrayList<>(restaurant.getImages()));
+        dto.setRegistrationDate(restaurant.getRegistrationDate());
+        dto.setOpen(restaurant.isOpen());
+        return dto;
+    }
+}
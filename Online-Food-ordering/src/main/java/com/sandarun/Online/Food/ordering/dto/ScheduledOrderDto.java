@@ -0,0 +1,14 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ScheduledOrderDto {
+
+    private Long id;
+    private Date releaseAt;
+}
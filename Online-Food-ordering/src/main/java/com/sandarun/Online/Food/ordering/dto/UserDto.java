@@ -0,0 +1,29 @@
+package com.sandarun.Online.Food.ordering.dto;
+
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class UserDto {
+
+    private  Long id;
+    private  String fullName;
+    private  String email;
+    private  USER_ROLE role;
+    private List<Address> addresses=new ArrayList<>();
+
+    public static UserDto fromUser(User user) {
+        UserDto dto=new UserDto();
+        dto.setId(user.getId());
+        dto.setFullName(user.getFullName());
+        dto.setEmail(user.getEmail());
+        dto.setRole(user.getRole());
+        dto.setAddresses(new ArrayList<>(user.getAddresses()));
+        return dto;
+    }
+}
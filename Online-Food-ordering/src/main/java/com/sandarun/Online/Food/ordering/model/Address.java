@@ -1,14 +1,19 @@
 package com.sandarun.Online.Food.ordering.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "address")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,4 +28,7 @@ public class Address {
     private String state;
     private String postalCode;
     private String country;
+
+    private Double latitude;
+    private Double longitude;
 }
@@ -0,0 +1,36 @@
+package com.sandarun.Online.Food.ordering.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.util.Date;
+
+// A completed order moved out of the order table, kept on the same shard under the same id
+@Entity
+@Table(name = "order_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    private Long customerId;
+    private Long restaurantId;
+    private String orderStatus;
+    private Date createdAt;
+
+    // Gzipped OrderDto JSON, a snapshot that stays readable after its foods are purged
+    @Column(columnDefinition = "bytea")
+    private byte[] payload;
+
+    // Archived rows are only ever inserted, save must not look the id up first
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
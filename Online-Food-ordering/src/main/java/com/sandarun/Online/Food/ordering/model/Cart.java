@@ -1,5 +1,7 @@
 package com.sandarun.Online.Food.ordering.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sandarun.Online.Food.ordering.config.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,19 +11,39 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// Bags are fetched one per query, ingredients and images of the items come in second passes
+@NamedEntityGraph(name = "Cart.items", attributeNodes = @NamedAttributeNode(value = "item", subgraph = "item"), subgraphs = {
+        @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "food", subgraph = "food")),
+        @NamedSubgraph(name = "food", attributeNodes = {@NamedAttributeNode("category"), @NamedAttributeNode("restaurant")})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ShardedId
     private  Long id;
 
+    // References into shard 0 cannot be foreign keys once carts live on other shards
     @OneToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private  User customer;
 
     private  Long total;
 
     @OneToMany(mappedBy = "cart",cascade = CascadeType.ALL,orphanRemoval = true)
     private List<CartItem> item=new ArrayList<>();
+
+    private boolean groupCart;
+
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User host;
+
+    @JsonIgnore
+    @ManyToMany
+    @JoinTable(name = "cart_participants", inverseForeignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT),
+            uniqueConstraints = @UniqueConstraint(name = "uk_cart_participants", columnNames = {"cart_id", "participants_id"}))
+    private List<User> participants=new ArrayList<>();
 }
@@ -1,6 +1,7 @@
 package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sandarun.Online.Food.ordering.config.ShardedId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,12 +10,14 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Entity
+// One line per participant and food in a group cart, solo cart lines have no participant and are not constrained
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_cart_item_participant_food", columnNames = {"cart_id", "participant_id", "food_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CartItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ShardedId
     private  Long id;
 
     @ManyToOne
@@ -22,6 +25,7 @@ public class CartItem {
     private  Cart cart;
 
     @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private  Food food;
 
     private  int quantity;
@@ -29,4 +33,10 @@ public class CartItem {
     private List<String> ingredients;
 
     private  Long totalPrice;
+
+    // Owner of the line in a group cart, each participant only edits their own lines
+    @ManyToOne
+    @JsonIgnore
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private User participant;
 }
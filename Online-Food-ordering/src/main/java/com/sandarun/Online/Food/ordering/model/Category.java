@@ -2,11 +2,15 @@ package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,7 +21,10 @@ public class Category {
 
     private String name;
 
-    @ManyToOne
+    @JsonIgnore
+    private Long changeVersion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnore
     private  Restaurant restaurant;
 
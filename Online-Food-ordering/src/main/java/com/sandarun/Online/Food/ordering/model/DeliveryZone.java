@@ -0,0 +1,34 @@
+package com.sandarun.Online.Food.ordering.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryZone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private String name;
+
+    private Long fee;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Restaurant restaurant;
+
+    // Polygon vertices in order, the last point connects back to the first
+    @ElementCollection
+    @OrderColumn
+    private List<GeoPoint> points=new ArrayList<>();
+}
@@ -2,6 +2,8 @@ package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,6 +14,8 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "food")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +31,7 @@ public class Food {
     @ManyToOne
     private  Category category;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "food.images")
     @Column(length = 1000)
     @ElementCollection
     private List<String> images;
@@ -34,7 +39,7 @@ public class Food {
     private  boolean available;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private  Restaurant restaurant;
 
     private Long res_id;
@@ -42,8 +47,20 @@ public class Food {
     private  boolean isVegetarian;
     private  boolean isSeasonal;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "food.ingredients")
     @ManyToMany
     private  List<IngredientsItems> ingredients =new ArrayList<>();
 
     private LocalDateTime creationDate;
+
+    @JsonIgnore
+    private Long changeVersion;
+
+    // Tombstone, the row is purged later by FoodCompactionService
+    @JsonIgnore
+    @Column(columnDefinition = "boolean default false")
+    private boolean deleted;
+
+    @JsonIgnore
+    private LocalDateTime deletedAt;
 }
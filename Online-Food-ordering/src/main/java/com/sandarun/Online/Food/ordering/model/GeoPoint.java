@@ -0,0 +1,16 @@
+package com.sandarun.Online.Food.ordering.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeoPoint {
+
+    private double latitude;
+    private double longitude;
+}
@@ -2,6 +2,9 @@ package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +13,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredientCategory")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,9 +26,12 @@ public class IngredientCategory {
     private  String name;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Restaurant restaurant;
 
+    // On a cache miss the ingredients of every category in the session load in one statement
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredientCategory.ingredients")
     @OneToMany(mappedBy = "category",cascade = CascadeType.ALL)
     private List<IngredientsItems> ingredients=new ArrayList<IngredientsItems>();
 }
@@ -1,12 +1,17 @@
 package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredientItem")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,13 +22,18 @@ public class IngredientsItems {
 
     private  String name;
 
+    // The category lists its items, serializing them again from here never ends
+    @JsonIgnoreProperties("ingredients")
     @ManyToOne
     private  IngredientCategory category;
 
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private  Restaurant restaurant;
 
     private  boolean inStoke=true;
 
+    @JsonIgnore
+    private Long changeVersion;
+
 }
@@ -1,6 +1,7 @@
 package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sandarun.Online.Food.ordering.config.ShardedId;
 import com.sandarun.Online.Food.ordering.dto.RestaurantDto;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -11,6 +12,13 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = "Order.items", attributeNodes = {
+        @NamedAttributeNode(value = "items", subgraph = "item"),
+        @NamedAttributeNode("deliveruAddress")
+}, subgraphs = {
+        @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode(value = "food", subgraph = "food")),
+        @NamedSubgraph(name = "food", attributeNodes = @NamedAttributeNode("category"))
+})
 @Table(name = "`order`")
 @Data
 @NoArgsConstructor
@@ -18,21 +26,29 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @ShardedId
     private Long id;
 
+    // References into shard 0 cannot be foreign keys once orders live on other shards
     @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private  User customer;
 
     @JsonIgnore
     @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Restaurant restaurant;
 
     private Long totalAmount;
     private String orderStatus;
     private Date createdAt;
 
+    // Set for order-for-later: the order stays SCHEDULED until releaseAt, then becomes PENDING
+    private Date scheduledFor;
+    private Date releaseAt;
+
     @ManyToOne
+    @JoinColumn(foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Address deliveruAddress;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -42,4 +58,5 @@ public class Order {
 
     private  int totalItem;
     private  Long totalPrice;
+    private  Long deliveryFee;
 }
@@ -2,16 +2,25 @@ package com.sandarun.Online.Food.ordering.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @Data
 @Entity
+@NamedEntityGraph(name = "Restaurant.detail", attributeNodes = {
+        @NamedAttributeNode("address"),
+        @NamedAttributeNode("images")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurant")
 @NoArgsConstructor
 @AllArgsConstructor
 public class Restaurant {
@@ -21,7 +30,7 @@ public class Restaurant {
     private Long id;
 
     @JsonIgnore
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     private  User owner;
 
     private String name;
@@ -37,9 +46,10 @@ public class Restaurant {
 
     private String openingHours;
 
-    @OneToMany(mappedBy = "restaurant",cascade = CascadeType.ALL, orphanRemoval = true)
-    private  List<Order> orders=new ArrayList<>();
+    // Zone id the opening hours are written in, e.g. Asia/Colombo
+    private String timeZone;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurant.images")
     @ElementCollection
     @Column(length = 1000)
     private  List<String> images;
@@ -48,10 +58,34 @@ public class Restaurant {
 
     private  boolean open;
 
+    // Set when a deletion starts, an unfinished purge is picked up again at startup
+    @JsonIgnore
+    @Column(columnDefinition = "boolean default false")
+    private boolean deleting;
+
+    // Menu change sequence, written and read only through RestaurantRepository's queries, the cached copy can lag
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long menuVersion;
+
+    // Highest menu version whose tombstones have been purged
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Long menuCompactedVersion;
+
+    // When menu_version last moved, the Last-Modified of the catalog responses
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private Date menuModifiedAt;
+
     @JsonIgnore
     @OneToMany(mappedBy = "restaurant",cascade =  CascadeType.ALL)
     private  List<Food> foods=new  ArrayList<>();
 
+    @JsonIgnore
+    @OneToMany(mappedBy = "restaurant",cascade = CascadeType.ALL, orphanRemoval = true)
+    private  List<DeliveryZone> deliveryZones=new ArrayList<>();
+
 
 
 
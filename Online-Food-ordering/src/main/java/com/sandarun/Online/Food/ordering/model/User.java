@@ -1,12 +1,12 @@
 package com.sandarun.Online.Food.ordering.model;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.sandarun.Online.Food.ordering.dto.RestaurantDto;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,17 +27,12 @@ public class User {
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private  String password;
 
+    // smallint is what PostgreSQL already stores, and unlike tinyint it also exists in H2's PostgreSQL mode
+    @JdbcTypeCode(SqlTypes.SMALLINT)
     private  USER_ROLE  role=USER_ROLE.ROLE_CUSTOMER;
 
 
 
-    @JsonIgnore
-    @OneToMany(cascade = CascadeType.ALL,mappedBy = "customer")
-    private List<Order> orders=new ArrayList<>();
-
-    @ElementCollection
-    private List<RestaurantDto>favorites=new ArrayList<>();
-
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "user_id") // This creates the foreign key in Address table
     private List<Address> addresses = new ArrayList<>();
@@ -0,0 +1,22 @@
+package com.sandarun.Online.Food.ordering.repository;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sandarun.Online.Food.ordering.model.ArchivedOrder;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder,Long>{
+
+    public List<ArchivedOrder> findByCustomerIdAndCreatedAtBetween(Long customerId,Date from,Date to);
+
+    public List<ArchivedOrder> findByRestaurantIdAndCreatedAtBetween(Long restaurantId,Date from,Date to);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedOrder o WHERE o.restaurantId=:restaurantId")
+    public int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
+}
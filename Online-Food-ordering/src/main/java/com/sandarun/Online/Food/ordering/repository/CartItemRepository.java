@@ -1,9 +1,26 @@
 package com.sandarun.Online.Food.ordering.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sandarun.Online.Food.ordering.model.CartItem;
 
 public interface CartItemRepository  extends JpaRepository<CartItem,Long>{
-    
+
+    List<CartItem> findByCartId(Long cartId);
+
+    Optional<CartItem> findFirstByCartIdAndParticipantIdAndFoodId(Long cartId,Long participantId,Long foodId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CartItem c SET c.quantity=c.quantity+:quantity, c.totalPrice=c.totalPrice+:price WHERE c.id=:id")
+    int incrementQuantity(@Param("id") Long id,@Param("quantity") int quantity,@Param("price") Long price);
+
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.food.id IN :foodIds")
+    int deleteByFoodIds(@Param("foodIds") List<Long> foodIds);
 }
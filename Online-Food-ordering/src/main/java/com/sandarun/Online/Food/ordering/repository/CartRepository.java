@@ -1,9 +1,13 @@
 package com.sandarun.Online.Food.ordering.repository;
 
 import com.sandarun.Online.Food.ordering.model.Cart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
 
     public Cart findByCustomerId(Long userId);
+
+    @EntityGraph("Cart.items")
+    public Cart findWithItemsByCustomerId(Long userId);
 }
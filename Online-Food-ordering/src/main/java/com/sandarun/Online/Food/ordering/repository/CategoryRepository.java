@@ -3,10 +3,23 @@ package com.sandarun.Online.Food.ordering.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
 
 import com.sandarun.Online.Food.ordering.model.Category;
 
 public interface CategoryRepository extends JpaRepository<Category,Long>{
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     public List<Category> findByRestaurantId(Long id);
+
+    public List<Category> findByRestaurantIdAndChangeVersionGreaterThan(Long id,Long since);
+
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.restaurant.id=:restaurantId")
+    public int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
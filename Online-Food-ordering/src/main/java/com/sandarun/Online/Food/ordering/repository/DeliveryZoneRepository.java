@@ -0,0 +1,28 @@
+package com.sandarun.Online.Food.ordering.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sandarun.Online.Food.ordering.model.DeliveryZone;
+
+public interface DeliveryZoneRepository extends JpaRepository<DeliveryZone,Long>{
+
+    @EntityGraph(attributePaths = "points")
+    List<DeliveryZone> findByRestaurantId(Long restaurantId);
+
+    @Query("SELECT DISTINCT z FROM DeliveryZone z LEFT JOIN FETCH z.points WHERE z.restaurant.deleting=false")
+    List<DeliveryZone> findAllWithPoints();
+
+    @Modifying
+    @Query(value = "DELETE FROM delivery_zone_points WHERE delivery_zone_id IN (SELECT id FROM delivery_zone WHERE restaurant_id=:restaurantId)", nativeQuery = true)
+    int deletePointsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Modifying
+    @Query("DELETE FROM DeliveryZone z WHERE z.restaurant.id=:restaurantId")
+    int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
+}
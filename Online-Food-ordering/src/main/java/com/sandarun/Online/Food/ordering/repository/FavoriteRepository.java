@@ -0,0 +1,30 @@
+package com.sandarun.Online.Food.ordering.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sandarun.Online.Food.ordering.model.Favorite;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+
+public interface FavoriteRepository extends JpaRepository<Favorite,Long>{
+
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.user.id=:userId AND f.restaurant.id=:restaurantId")
+    int deleteFavorite(@Param("userId") Long userId,@Param("restaurantId") Long restaurantId);
+
+    // Two toggles that both missed the delete both insert, the unique key keeps one row and the other inserts nothing
+    @Modifying
+    @Query(value = "INSERT INTO favorite (id, user_id, restaurant_id) VALUES (nextval('favorite_seq'), :userId, :restaurantId) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertFavorite(@Param("userId") Long userId,@Param("restaurantId") Long restaurantId);
+
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.restaurant.id=:restaurantId")
+    int deleteRestaurantFavorites(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT DISTINCT r FROM Favorite f JOIN f.restaurant r LEFT JOIN FETCH r.images WHERE f.user.id=:userId")
+    List<Restaurant> findFavoriteRestaurants(@Param("userId") Long userId);
+}
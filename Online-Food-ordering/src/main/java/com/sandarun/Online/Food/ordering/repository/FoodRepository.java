@@ -1,17 +1,81 @@
 package com.sandarun.Online.Food.ordering.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
 import com.sandarun.Online.Food.ordering.model.Food;
 
 public interface FoodRepository extends JpaRepository<Food,Long>{
     
-    List<Food> findByRestaurantId(Long restaurantId);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Food> findByRestaurantIdAndDeletedFalse(Long restaurantId);
+
+    Optional<Food> findByIdAndDeletedFalse(Long id);
+
+    @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.category LEFT JOIN FETCH f.ingredients i LEFT JOIN FETCH i.category WHERE f.restaurant.id=:restaurantId AND f.deleted=false")
+    List<Food> findMenuWithIngredients(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.category LEFT JOIN FETCH f.ingredients WHERE f.restaurant.id=:restaurantId AND f.deleted=false AND f.changeVersion>:since")
+    List<Food> findMenuChangedSince(@Param("restaurantId") Long restaurantId,@Param("since") Long since);
+
+    @Query("SELECT f.id FROM Food f WHERE f.restaurant.id=:restaurantId AND f.deleted=true AND f.changeVersion>:since")
+    List<Long> findDeletedIdsSince(@Param("restaurantId") Long restaurantId,@Param("since") Long since);
+
+    @Query("SELECT f.restaurant.id, MAX(f.changeVersion) FROM Food f WHERE f.id IN :ids AND f.restaurant IS NOT NULL GROUP BY f.restaurant.id")
+    List<Object[]> findMaxChangeVersionByRestaurant(@Param("ids") List<Long> ids);
+
+    // Second pass for images, a bag cannot be fetched together with the ingredients
+    @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.images WHERE f IN :foods")
+    List<Food> fetchImages(@Param("foods") List<Food> foods);
+
+    @Query("SELECT DISTINCT f FROM Food f LEFT JOIN FETCH f.ingredients i LEFT JOIN FETCH i.category WHERE f IN :foods")
+    List<Food> fetchIngredients(@Param("foods") List<Food> foods);
 
-    @Query("SELECT f FROM Food f WHERE f.name LIKE %:keyword% OR f.category.name LIKE %:keyword%")
+    // Loads both bags onto foods already in the current persistence context
+    default void fetchDetails(List<Food> foods) {
+        if(!foods.isEmpty()){
+            fetchImages(foods);
+            fetchIngredients(foods);
+        }
+    }
+
+    @Query("SELECT f FROM Food f JOIN FETCH f.category c WHERE f.deleted=false AND (f.name LIKE %:keyword% OR c.name LIKE %:keyword%)")
     List<Food>searchFood(@Param("keyword") String keyword);
+
+    @Query("SELECT f.id FROM Food f WHERE f.restaurant.id=:restaurantId")
+    List<Long> findIdsByRestaurantId(@Param("restaurantId") Long restaurantId,Pageable pageable);
+
+    @Modifying
+    @Query(value = "DELETE FROM food_images WHERE food_id IN :ids", nativeQuery = true)
+    int deleteImagesByFoodIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM food_ingredients WHERE food_id IN :ids", nativeQuery = true)
+    int deleteIngredientLinksByFoodIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Food f WHERE f.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    // Foods soft deleted before the tombstone column existed only had their restaurant cleared
+    @Modifying
+    @Query("UPDATE Food f SET f.deleted=true, f.deletedAt=:now WHERE f.restaurant IS NULL AND f.deleted=false")
+    int markDetachedFoodsDeleted(@Param("now") LocalDateTime now);
+
+    @Query("SELECT f.id FROM Food f WHERE f.deleted=true AND f.id>:afterId AND NOT EXISTS (SELECT oi.id FROM OrderItem oi WHERE oi.food=f) ORDER BY f.id")
+    List<Long> findPurgeableIds(@Param("afterId") Long afterId,Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Food f SET f.category=null WHERE f.category.id IN (SELECT c.id FROM Category c WHERE c.restaurant.id=:restaurantId)")
+    int detachRestaurantCategories(@Param("restaurantId") Long restaurantId);
 }
@@ -3,10 +3,24 @@ package com.sandarun.Online.Food.ordering.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
 
 import com.sandarun.Online.Food.ordering.model.IngredientCategory;
 
 public interface IngredientCategoryRepository extends JpaRepository<IngredientCategory,Long>{
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<IngredientCategory> findByRestaurantId(Long id);
+
+    @Query("SELECT DISTINCT c FROM IngredientCategory c LEFT JOIN FETCH c.ingredients WHERE c.restaurant.id=:restaurantId")
+    List<IngredientCategory> findWithIngredientsByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Modifying
+    @Query("DELETE FROM IngredientCategory c WHERE c.restaurant.id=:restaurantId")
+    int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
@@ -3,10 +3,27 @@ package com.sandarun.Online.Food.ordering.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
 
 import com.sandarun.Online.Food.ordering.model.IngredientsItems;
 
 public interface IngredientItemsRepository extends JpaRepository<IngredientsItems,Long>{
     
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<IngredientsItems> findByRestaurantId(Long id);
+
+    List<IngredientsItems> findByRestaurantIdAndChangeVersionGreaterThan(Long id,Long since);
+
+    @Modifying
+    @Query(value = "DELETE FROM food_ingredients WHERE ingredients_id IN (SELECT id FROM ingredients_items WHERE restaurant_id=:restaurantId)", nativeQuery = true)
+    int deleteFoodLinksByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Modifying
+    @Query("DELETE FROM IngredientsItems i WHERE i.restaurant.id=:restaurantId")
+    int deleteByRestaurantId(@Param("restaurantId") Long restaurantId);
 }
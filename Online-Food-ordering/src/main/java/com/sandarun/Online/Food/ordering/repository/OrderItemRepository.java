@@ -1,9 +1,32 @@
 package com.sandarun.Online.Food.ordering.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.sandarun.Online.Food.ordering.model.OrderItem;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem,Long>{
-    
+
+    @Query("SELECT DISTINCT oi FROM OrderItem oi LEFT JOIN FETCH oi.ingredients WHERE oi IN :items")
+    List<OrderItem> fetchIngredients(@Param("items") List<OrderItem> items);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_item_ingredients WHERE order_item_id IN (SELECT id FROM order_items WHERE order_id IN :orderIds)", nativeQuery = true)
+    int deleteIngredientsByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+    @Query("SELECT DISTINCT oi.food.id FROM OrderItem oi WHERE oi.food.id IN :foodIds")
+    List<Long> findReferencedFoodIds(@Param("foodIds") List<Long> foodIds);
+
+    // Keeps other restaurants' order history when foods it points to are removed
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.food=null WHERE oi.food.id IN :foodIds")
+    int detachFoods(@Param("foodIds") List<Long> foodIds);
 }
@@ -1,9 +1,16 @@
 package com.sandarun.Online.Food.ordering.repository;
 
+import java.util.Date;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.sandarun.Online.Food.ordering.dto.ScheduledOrderDto;
 import com.sandarun.Online.Food.ordering.model.Order;
 
 public interface OrderRepository extends JpaRepository<Order,Long>{
@@ -11,4 +18,39 @@ public interface OrderRepository extends JpaRepository<Order,Long>{
     public List<Order> findByCustomerId(Long userId);
 
     public List<Order> findByRestaurantId(Long restaurantId);
+
+    public List<Order> findByRestaurantIdAndOrderStatusNot(Long restaurantId,String orderStatus);
+
+    @EntityGraph("Order.items")
+    public List<Order> findWithItemsByCustomerId(Long userId);
+
+    @EntityGraph("Order.items")
+    public List<Order> findWithItemsByRestaurantIdAndOrderStatusNot(Long restaurantId,String orderStatus);
+
+    // The created_at range lets PostgreSQL skip the month partitions outside it
+    @EntityGraph("Order.items")
+    public List<Order> findWithItemsByCustomerIdAndCreatedAtBetween(Long userId,Date from,Date to);
+
+    @EntityGraph("Order.items")
+    public List<Order> findWithItemsByRestaurantIdAndOrderStatusNotAndCreatedAtBetween(Long restaurantId,String orderStatus,Date from,Date to);
+
+    @EntityGraph("Order.items")
+    public List<Order> findWithItemsByIdIn(List<Long> ids);
+
+    @Query("SELECT o.id FROM Order o WHERE o.orderStatus IN :statuses AND o.createdAt<:cutoff")
+    public List<Long> findArchivableIds(@Param("statuses") List<String> statuses,@Param("cutoff") Date cutoff,Pageable pageable);
+
+    @Query("SELECT new com.sandarun.Online.Food.ordering.dto.ScheduledOrderDto(o.id, o.releaseAt) FROM Order o WHERE o.orderStatus='SCHEDULED'")
+    public List<ScheduledOrderDto> findScheduledOrders();
+
+    @Modifying
+    @Query("UPDATE Order o SET o.orderStatus='PENDING' WHERE o.id IN :ids AND o.orderStatus='SCHEDULED'")
+    public int releaseScheduledOrders(@Param("ids") List<Long> ids);
+
+    @Query("SELECT o.id FROM Order o WHERE o.restaurant.id=:restaurantId")
+    public List<Long> findIdsByRestaurantId(@Param("restaurantId") Long restaurantId,Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :ids")
+    public int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -1,16 +1,82 @@
 package com.sandarun.Online.Food.ordering.repository;
 
+import com.sandarun.Online.Food.ordering.dto.CatalogVersionDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantHoursDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantLocationDto;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
-    @Query("SELECT r from Restaurant r where lower(r.name) like lower(concat('%',:query,'%')) or lower(r.cuisineType) like lower(concat('%',:query,'%') ) ")
+    // Storefront reads leave out restaurants whose deletion has started
+    @Query("SELECT r from Restaurant r where r.deleting=false and (lower(r.name) like lower(concat('%',:query,'%')) or lower(r.cuisineType) like lower(concat('%',:query,'%') )) ")
     List<Restaurant> findBySearchQuery(String query);
 
     Restaurant findByOwnerId(Long userId);
+
+    List<Restaurant> findByDeletingFalse();
+
+    List<Restaurant> findByOpenTrueAndDeletingFalse();
+
+    @EntityGraph("Restaurant.detail")
+    Optional<Restaurant> findDetailByIdAndDeletingFalse(Long id);
+
+    @Query("SELECT new com.sandarun.Online.Food.ordering.dto.RestaurantHoursDto(r.id, r.openingHours, r.timeZone, r.open) FROM Restaurant r WHERE r.openingHours IS NOT NULL AND r.deleting=false")
+    List<RestaurantHoursDto> findOpeningHours();
+
+    @Query("SELECT new com.sandarun.Online.Food.ordering.dto.RestaurantLocationDto(r.id, a.latitude, a.longitude) FROM Restaurant r JOIN r.address a WHERE a.latitude IS NOT NULL AND a.longitude IS NOT NULL AND r.deleting=false")
+    List<RestaurantLocationDto> findLocations();
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.deleting=true")
+    List<Long> findDeletingIds();
+
+    // The updates below are native and name a query space no entity maps, a JPQL bulk update would
+    // evict the whole restaurant region. Callers evict the restaurants whose cached state they changed.
+    String RESTAURANT_COLUMNS_SPACE="restaurant_columns";
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = RESTAURANT_COLUMNS_SPACE))
+    @Query(value = "UPDATE restaurant SET open=:open, menu_version=COALESCE(menu_version,0)+1, menu_modified_at=:modifiedAt WHERE id IN :ids", nativeQuery = true)
+    int updateOpenStatus(@Param("ids") Collection<Long> ids, @Param("open") boolean open, @Param("modifiedAt") Date modifiedAt);
+
+    // The row lock taken here orders concurrent menu changes of one restaurant.
+    // The version is only read through the queries here, the cached entity's copy may lag.
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = RESTAURANT_COLUMNS_SPACE))
+    @Query(value = "UPDATE restaurant SET menu_version=COALESCE(menu_version,0)+1, menu_modified_at=:modifiedAt WHERE id=:restaurantId", nativeQuery = true)
+    int incrementMenuVersion(@Param("restaurantId") Long restaurantId, @Param("modifiedAt") Date modifiedAt);
+
+    @Query("SELECT COALESCE(r.menuVersion,0) FROM Restaurant r WHERE r.id=:restaurantId")
+    Long findMenuVersion(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT new com.sandarun.Online.Food.ordering.dto.CatalogVersionDto(r.id, COALESCE(r.menuVersion,0), r.menuModifiedAt) FROM Restaurant r WHERE r.id=:restaurantId")
+    CatalogVersionDto findCatalogVersion(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT COALESCE(r.menuCompactedVersion,0) FROM Restaurant r WHERE r.id=:restaurantId")
+    Long findMenuCompactedVersion(@Param("restaurantId") Long restaurantId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = RESTAURANT_COLUMNS_SPACE))
+    @Query(value = "UPDATE restaurant SET menu_compacted_version=:version WHERE id=:restaurantId AND (menu_compacted_version IS NULL OR menu_compacted_version<:version)", nativeQuery = true)
+    int raiseMenuCompactedVersion(@Param("restaurantId") Long restaurantId, @Param("version") Long version);
+
+    @Modifying
+    @Query(value = "DELETE FROM restaurant_images WHERE restaurant_id=:restaurantId", nativeQuery = true)
+    int deleteImages(@Param("restaurantId") Long restaurantId);
+
+    @Modifying
+    @Query("DELETE FROM Restaurant r WHERE r.id=:restaurantId")
+    int deleteRestaurantRow(@Param("restaurantId") Long restaurantId);
 }
- 
\ No newline at end of file
@@ -16,6 +16,7 @@ public class CreateRestaurantRequest {
     private Address address;
     private ContactInformation contactInformation;
     private String openingHours;
+    private String timeZone;
     private List<String> images;
 
 }
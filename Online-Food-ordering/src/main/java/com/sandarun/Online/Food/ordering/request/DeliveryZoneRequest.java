@@ -0,0 +1,14 @@
+package com.sandarun.Online.Food.ordering.request;
+
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.model.GeoPoint;
+
+import lombok.Data;
+
+@Data
+public class DeliveryZoneRequest {
+    private String name;
+    private Long fee;
+    private List<GeoPoint> points;
+}
@@ -1,11 +1,15 @@
 package com.sandarun.Online.Food.ordering.request;
 
+import java.util.Date;
+
 import com.sandarun.Online.Food.ordering.model.Address;
 
 import lombok.Data;
 
 @Data
 public class OrderRequest {
+    // Ignored at checkout: the cart is split into one order per restaurant
     private Long restaurantId;
     private Address deliveryAddress;
+    private Date scheduledFor;
 }
@@ -0,0 +1,14 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsResponse {
+
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRate;
+    private long entriesInMemory;
+}
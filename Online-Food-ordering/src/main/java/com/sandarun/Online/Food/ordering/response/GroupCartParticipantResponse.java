@@ -0,0 +1,17 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
+
+import lombok.Data;
+
+@Data
+public class GroupCartParticipantResponse {
+
+    private Long userId;
+    private String fullName;
+    private Long subtotal;
+    private List<CartItemDto> items=new ArrayList<>();
+}
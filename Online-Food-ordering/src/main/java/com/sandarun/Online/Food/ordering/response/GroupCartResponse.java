@@ -0,0 +1,15 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class GroupCartResponse {
+
+    private Long cartId;
+    private Long hostId;
+    private Long total;
+    private List<GroupCartParticipantResponse> participants=new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.CategoryDto;
+import com.sandarun.Online.Food.ordering.dto.IngredientItemDto;
+import com.sandarun.Online.Food.ordering.dto.MenuItemDto;
+
+import lombok.Data;
+
+@Data
+public class MenuChangesResponse {
+
+    private Long restaurantId;
+    private long since;
+    // Pass this back as since on the next sync
+    private long version;
+    // The client must drop its copy and apply the upserts as the whole menu
+    private boolean fullResync;
+    private List<MenuItemDto> foods=new ArrayList<>();
+    private List<CategoryDto> categories=new ArrayList<>();
+    private List<IngredientItemDto> ingredients=new ArrayList<>();
+    private List<Long> deletedFoodIds=new ArrayList<>();
+}
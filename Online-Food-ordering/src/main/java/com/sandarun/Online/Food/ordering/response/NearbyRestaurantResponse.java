@@ -0,0 +1,12 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+
+import lombok.Data;
+
+@Data
+public class NearbyRestaurantResponse {
+
+    private RestaurantSummaryDto restaurant;
+    private double distanceKm;
+}
@@ -0,0 +1,16 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+
+import lombok.Data;
+
+@Data
+public class ReorderResponse {
+
+    private CartDto cart;
+    private List<String> droppedItems=new ArrayList<>();
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import java.util.Date;
+
+import lombok.Data;
+
+@Data
+public class RestaurantDeletionStatus {
+
+    private Long restaurantId;
+    private volatile String phase;
+    private long deletedOrders;
+    private long deletedFoods;
+    // Set last by the purge thread, readers that see it see the counts too
+    private volatile boolean done;
+    private String error;
+    private Date startedAt;
+    private Date finishedAt;
+}
@@ -0,0 +1,23 @@
+package com.sandarun.Online.Food.ordering.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.CategoryDto;
+import com.sandarun.Online.Food.ordering.dto.IngredientCategoryDto;
+import com.sandarun.Online.Food.ordering.dto.MenuItemDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+
+import lombok.Data;
+
+@Data
+public class RestaurantPageResponse {
+
+    private RestaurantSummaryDto restaurant;
+    private List<CategoryDto> categories;
+    private List<MenuItemDto> menu;
+    private List<IngredientCategoryDto> ingredientCategories;
+
+    // Sections that timed out or failed, the frontend can fall back to the single endpoints
+    private List<String> missingSections=new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.response.CacheStatsResponse;
+
+public interface CacheStatisticsService {
+
+    public List<CacheStatsResponse> getRegionStatistics();
+
+    public void evictAll();
+}
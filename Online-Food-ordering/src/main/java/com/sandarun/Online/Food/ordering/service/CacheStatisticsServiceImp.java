@@ -0,0 +1,52 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.sandarun.Online.Food.ordering.config.CacheConfig;
+import com.sandarun.Online.Food.ordering.response.CacheStatsResponse;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Service
+public class CacheStatisticsServiceImp implements CacheStatisticsService{
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public List<CacheStatsResponse> getRegionStatistics() {
+        Statistics statistics=entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheStatsResponse> regions=new ArrayList<>();
+        for(String region:CacheConfig.REGIONS.keySet()){
+            CacheRegionStatistics stats=CacheConfig.QUERY_RESULTS_REGION.equals(region)
+                    ?statistics.getQueryRegionStatistics(region)
+                    :statistics.getDomainDataRegionStatistics(region);
+            if(stats==null){
+                continue;
+            }
+            CacheStatsResponse response=new CacheStatsResponse();
+            response.setRegion(region);
+            response.setHits(stats.getHitCount());
+            response.setMisses(stats.getMissCount());
+            response.setPuts(stats.getPutCount());
+            long lookups=stats.getHitCount()+stats.getMissCount();
+            response.setHitRate(lookups==0?0:(double) stats.getHitCount()/lookups);
+            response.setEntriesInMemory(stats.getElementCountInMemory());
+            regions.add(response);
+        }
+        return regions;
+    }
+
+    @Override
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+    }
+}
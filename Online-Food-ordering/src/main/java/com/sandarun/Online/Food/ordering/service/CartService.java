@@ -1,16 +1,23 @@
 package com.sandarun.Online.Food.ordering.service;
 
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
 import com.sandarun.Online.Food.ordering.model.Cart;
 import com.sandarun.Online.Food.ordering.model.CartItem;
+import com.sandarun.Online.Food.ordering.model.OrderItem;
+import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.response.ReorderResponse;
 
 public interface CartService {
 
-    public CartItem addItemToCart(AddCardItemRequest req,String jwt)throws Exception;
+    public CartItemDto addItemToCart(AddCardItemRequest req,String jwt)throws Exception;
 
-    public CartItem updateCartItemQuantity(Long cartItemId,int quantity)throws Exception;
+    public CartItemDto updateCartItemQuantity(Long cartItemId,int quantity)throws Exception;
 
-    public Cart removeItemFromCart(Long cartItemId,String jwt)throws Exception;
+    public CartDto removeItemFromCart(Long cartItemId,String jwt)throws Exception;
 
     public Long calculateCartTotals(Cart cart)throws Exception;
 
@@ -18,5 +25,9 @@ public interface CartService {
 
     public Cart findCartByUserId(Long userId)throws Exception;
 
-    public Cart clearCart(Long userId)throws Exception;
+    public CartDto getUserCart(String jwt)throws Exception;
+
+    public CartDto clearCart(Long userId)throws Exception;
+
+    public ReorderResponse addOrderItemsToCart(List<OrderItem> items,User user)throws Exception;
 }
@@ -1,17 +1,33 @@
 package com.sandarun.Online.Food.ordering.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
 import com.sandarun.Online.Food.ordering.model.Cart;
 import com.sandarun.Online.Food.ordering.model.CartItem;
 import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.model.OrderItem;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.repository.CartItemRepository;
 import com.sandarun.Online.Food.ordering.repository.CartRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
 import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.response.ReorderResponse;
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
 
 @Service
 public class CartServiceImp implements CartService{
@@ -28,86 +44,104 @@ public class CartServiceImp implements CartService{
     @Autowired
     private FoodService foodService;
 
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
     @Override
-    public CartItem addItemToCart(AddCardItemRequest req, String jwt) throws Exception {
+    @Timed(value = "service.method", histogram = true)
+    @Transactional
+    public CartItemDto addItemToCart(AddCardItemRequest req, String jwt) throws Exception {
     
         User user=userService.findUserByJwtToken(jwt);
 
         Food food=foodService.findFoodByID(req.getFoodId());
 
-        Cart cart=cartRepository.findByCustomerId(user.getId());
+        return shardTemplate.call(shardTemplate.shardForCustomer(user.getId()), false, ()->{
+            Cart cart=cartRepository.findByCustomerId(user.getId());
 
-        // Create a new cart if user doesn't have one
-        if(cart == null) {
-            cart = new Cart();
-            cart.setCustomer(user);
-            cart.setTotal(0L);
-            cart = cartRepository.save(cart);
-        }
+            // Create a new cart if user doesn't have one
+            if(cart == null) {
+                cart = new Cart();
+                cart.setCustomer(user);
+                cart.setTotal(0L);
+                cart = cartRepository.save(cart);
+            }
 
-        for(CartItem cartItem:cart.getItem()){
-            if(cartItem.getFood().equals(food)){
-                int newQuantity=cartItem.getQuantity()+req.getQuantity();
-                return updateCartItemQuantity(cartItem.getId(),newQuantity);
+            // Compared by id, the cart's foods come from the shard's session
+            for(CartItem cartItem:cart.getItem()){
+                if(cartItem.getFood().getId().equals(food.getId())){
+                    int newQuantity=cartItem.getQuantity()+req.getQuantity();
+                    return updateCartItemQuantity(cartItem.getId(),newQuantity);
+                }
             }
-        }
 
-        CartItem newCartItem=new CartItem();
-        newCartItem.setFood(food);
-        newCartItem.setCart(cart);
-        newCartItem.setQuantity(req.getQuantity());
-        newCartItem.setIngredients(req.getIngredients());
-        newCartItem.setTotalPrice(req.getQuantity()*food.getPrice());
+            CartItem newCartItem=new CartItem();
+            newCartItem.setFood(food);
+            newCartItem.setCart(cart);
+            newCartItem.setQuantity(req.getQuantity());
+            newCartItem.setIngredients(req.getIngredients());
+            newCartItem.setTotalPrice(req.getQuantity()*food.getPrice());
 
-        CartItem savedCartItem=cartItemRepository.save(newCartItem);
-        cart.getItem().add(savedCartItem);
+            CartItem savedCartItem=cartItemRepository.save(newCartItem);
+            cart.getItem().add(savedCartItem);
 
-        Long total = cart.getTotal();
-        long value = total.longValue(); // This line throws NullPointerException if total is null
+            Long total = cart.getTotal();
+            long value = total.longValue(); // This line throws NullPointerException if total is null
 
-        cart.setTotal(value+req.getQuantity());
-        cartRepository.save(cart);
+            cart.setTotal(value+req.getQuantity());
+            cartRepository.save(cart);
 
-        return savedCartItem;
+            return CartItemDto.fromCartItem(savedCartItem);
+        });
     }
 
     @Override
-    public CartItem updateCartItemQuantity(Long cartItemId, int quantity) throws Exception {
-        Optional<CartItem> cartItemOptional=cartItemRepository.findById(cartItemId);
-        if(cartItemOptional.isEmpty()){
-            throw new Exception("Cart item not found");
-        }
-        CartItem item=cartItemOptional.get();
-        item.setQuantity(quantity);
-
-        item.setTotalPrice(item.getFood().getPrice()*quantity);
+    @Transactional
+    public CartItemDto updateCartItemQuantity(Long cartItemId, int quantity) throws Exception {
+        return shardTemplate.call(shardTemplate.shardOfId(cartItemId), false, ()->{
+            Optional<CartItem> cartItemOptional=cartItemRepository.findById(cartItemId);
+            if(cartItemOptional.isEmpty()){
+                throw new Exception("Cart item not found");
+            }
+            CartItem item=cartItemOptional.get();
+            item.setQuantity(quantity);
 
-        return cartItemRepository.save(item);
+            item.setTotalPrice(item.getFood().getPrice()*quantity);
 
+            CartItem saved=cartItemRepository.save(item);
+            foodRepository.fetchDetails(List.of(saved.getFood()));
+            return CartItemDto.fromCartItem(saved);
+        });
     }
 
     @Override
-    public Cart removeItemFromCart(Long cartItemId, String jwt) throws Exception {
+    @Transactional
+    public CartDto removeItemFromCart(Long cartItemId, String jwt) throws Exception {
     
         User user=userService.findUserByJwtToken(jwt);
 
-        Cart cart=cartRepository.findByCustomerId(user.getId());
-        
-        // Handle case where cart doesn't exist
-        if(cart == null) {
-            throw new Exception("Cart not found for user");
-        }
-        
-        Optional<CartItem> cartItemOptional=cartItemRepository.findById(cartItemId);
-        if(cartItemOptional.isEmpty()){
-            throw new Exception("Cart item not found");
-        }
-        
-        CartItem item=cartItemOptional.get();
+        return shardTemplate.call(shardTemplate.shardForCustomer(user.getId()), false, ()->{
+            Cart cart=cartRepository.findByCustomerId(user.getId());
+
+            // Handle case where cart doesn't exist
+            if(cart == null) {
+                throw new Exception("Cart not found for user");
+            }
 
-        cart.getItem().remove(item);
+            Optional<CartItem> cartItemOptional=cartItemRepository.findById(cartItemId);
+            if(cartItemOptional.isEmpty()){
+                throw new Exception("Cart item not found");
+            }
+
+            CartItem item=cartItemOptional.get();
+
+            cart.getItem().remove(item);
 
-        return cartRepository.save(cart);
+            return CartDto.fromCart(fetchCartDetails(cartRepository.save(cart)));
+        });
     }
 
     @Override
@@ -124,7 +158,7 @@ public class CartServiceImp implements CartService{
     @Override
     public Cart findCartById(Long id) throws Exception {
     
-        Optional<Cart> optionalCart=cartRepository.findById(id);
+        Optional<Cart> optionalCart=shardTemplate.call(shardTemplate.shardOfId(id), true, ()->cartRepository.findById(id));
         if(optionalCart.isEmpty()){
             throw new Exception("cart not found with id"+id);
         }
@@ -132,29 +166,121 @@ public class CartServiceImp implements CartService{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Cart findCartByUserId(Long userId) throws Exception {
         
-        Cart cart = cartRepository.findByCustomerId(userId);
-        
-        // Create a new empty cart if user doesn't have one
-        if(cart == null) {
-            cart = new Cart();
-            cart.setTotal(0L);
-            return cart; // Return a new empty cart (not saved to DB yet)
-        }
-        
-        cart.setTotal(calculateCartTotals(cart));
-        return cart;
+        return shardTemplate.call(shardTemplate.shardForCustomer(userId), true, ()->{
+            Cart cart = cartRepository.findWithItemsByCustomerId(userId);
+
+            // Create a new empty cart if user doesn't have one
+            if(cart == null) {
+                cart = new Cart();
+                cart.setTotal(0L);
+                return cart; // Return a new empty cart (not saved to DB yet)
+            }
+
+            fetchCartDetails(cart);
+            cart.setTotal(calculateCartTotals(cart));
+            return cart;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartDto getUserCart(String jwt) throws Exception {
+        // Looked up in this session, the cart's customer is then already loaded
+        User user=userService.findUserByJwtToken(jwt);
+        return CartDto.fromCart(findCartByUserId(user.getId()));
     }
 
     @Override
-    public Cart clearCart(Long userId) throws Exception {
+    @Transactional
+    public CartDto clearCart(Long userId) throws Exception {
         
+        return shardTemplate.call(shardTemplate.shardForCustomer(userId), false, ()->{
+            Cart cart=findCartByUserId(userId);
+
+            cart.getItem().clear();
+            return CartDto.fromCart(cartRepository.save(cart));
+        });
+    }
+
+    @Override
+    @Transactional
+    public ReorderResponse addOrderItemsToCart(List<OrderItem> items, User user) throws Exception {
+
+        return shardTemplate.call(shardTemplate.shardForCustomer(user.getId()), false, ()->{
+            Cart cart=cartRepository.findByCustomerId(user.getId());
 
-        Cart cart=findCartByUserId(userId);
+            if(cart == null) {
+                cart = new Cart();
+                cart.setCustomer(user);
+            }
+
+            // Resolve every food of the order in one query instead of one findFoodByID per item
+            Set<Long> foodIds=items.stream()
+                    .filter(orderItem->orderItem.getFood()!=null)
+                    .map(orderItem->orderItem.getFood().getId())
+                    .collect(Collectors.toSet());
+            Map<Long,Food> foods=foodRepository.findAllById(foodIds).stream()
+                    .collect(Collectors.toMap(Food::getId, Function.identity()));
+
+            ReorderResponse response=new ReorderResponse();
+
+            for(OrderItem orderItem:items){
+                Food food=orderItem.getFood()==null?null:foods.get(orderItem.getFood().getId());
+
+                // Foods removed from the menu or switched off are skipped
+                if(food==null || food.isDeleted() || food.getRestaurant()==null || !food.isAvailable()){
+                    response.getDroppedItems().add(orderItem.getFood()==null?"Unknown item":orderItem.getFood().getName());
+                    continue;
+                }
+
+                CartItem existing=null;
+                for(CartItem cartItem:cart.getItem()){
+                    if(cartItem.getFood().getId().equals(food.getId())){
+                        existing=cartItem;
+                        break;
+                    }
+                }
+
+                if(existing!=null){
+                    existing.setQuantity(existing.getQuantity()+orderItem.getQuantity());
+                    existing.setTotalPrice(food.getPrice()*existing.getQuantity());
+                }else{
+                    CartItem newCartItem=new CartItem();
+                    newCartItem.setFood(food);
+                    newCartItem.setCart(cart);
+                    newCartItem.setQuantity(orderItem.getQuantity());
+                    if(orderItem.getIngredients()!=null){
+                        newCartItem.setIngredients(new ArrayList<>(orderItem.getIngredients()));
+                    }
+                    newCartItem.setTotalPrice(food.getPrice()*orderItem.getQuantity());
+                    cart.getItem().add(newCartItem);
+                }
+            }
 
-        cart.getItem().clear();
-        return cartRepository.save(cart);
+            cart.setTotal(calculateCartTotals(cart));
+            response.setCart(CartDto.fromCart(cartRepository.save(cart)));
+
+            if(response.getDroppedItems().isEmpty()){
+                response.setMessage("All items added to cart");
+            }else{
+                response.setMessage(response.getDroppedItems().size()+" item(s) are no longer available and were skipped");
+            }
+            return response;
+        });
     }
-    
+
+    // Loads everything CartDto reads, the cart may be detached from a shard's session by the time it does
+    private Cart fetchCartDetails(Cart cart) {
+        if(cart.getCustomer()!=null){
+            Hibernate.initialize(cart.getCustomer().getAddresses());
+        }
+        if(!cart.getItem().isEmpty()){
+            foodRepository.fetchDetails(cart.getItem().stream().map(CartItem::getFood).filter(Objects::nonNull).collect(Collectors.toList()));
+        }
+        return cart;
+    }
+
 }
@@ -0,0 +1,25 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.sandarun.Online.Food.ordering.dto.CatalogVersionDto;
+
+public interface CatalogVersionService {
+
+    // Changes that already took a version from MenuSyncService.nextVersion need no bump
+    public void bump(Long restaurantId);
+
+    // Null when the restaurant does not exist
+    public CatalogVersionDto current(Long restaurantId);
+
+    public String etag(CatalogVersionDto version, String resource);
+
+    public long lastModified(CatalogVersionDto version);
+
+    public boolean notModified(String etag, long lastModified, HttpHeaders requestHeaders);
+
+    public <T> ResponseEntity<T> notModifiedResponse(String etag, long lastModified);
+
+    public <T> ResponseEntity<T> okResponse(T body, String etag, long lastModified);
+}
@@ -0,0 +1,98 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sandarun.Online.Food.ordering.dto.CatalogVersionDto;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+
+@Service
+public class CatalogVersionServiceImp implements CatalogVersionService{
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    // The tags come from restaurant.menu_version, so every instance hands out the same tag for the same state.
+    // Joining the caller's transaction, the new version only becomes visible with the change it tags.
+    @Override
+    @Transactional
+    public void bump(Long restaurantId) {
+        if(restaurantId==null){
+            return;
+        }
+        restaurantRepository.incrementMenuVersion(restaurantId, new Date());
+    }
+
+    // Read before loading the data, a concurrent change then only makes the next request refetch
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogVersionDto current(Long restaurantId) {
+        return restaurantRepository.findCatalogVersion(restaurantId);
+    }
+
+    @Override
+    public String etag(CatalogVersionDto version, String resource) {
+        if(version==null){
+            return null;
+        }
+        return "\""+resource+"-"+version.getRestaurantId()+"-"+version.getVersion()+"\"";
+    }
+
+    @Override
+    public long lastModified(CatalogVersionDto version) {
+        return version==null || version.getModifiedAt()==null?-1:version.getModifiedAt().getTime();
+    }
+
+    @Override
+    public boolean notModified(String etag, long lastModified, HttpHeaders requestHeaders) {
+        if(etag==null){
+            return false;
+        }
+        List<String> ifNoneMatch=requestHeaders.getIfNoneMatch();
+        if(!ifNoneMatch.isEmpty()){
+            for(String candidate:ifNoneMatch){
+                String tag=candidate.trim();
+                if(tag.startsWith("W/")){
+                    tag=tag.substring(2);
+                }
+                if(tag.equals("*") || tag.equals(etag)){
+                    return true;
+                }
+            }
+            return false;
+        }
+        // HTTP dates have second precision
+        long ifModifiedSince=requestHeaders.getIfModifiedSince();
+        return ifModifiedSince>=0 && lastModified>=0 && lastModified/1000<=ifModifiedSince/1000;
+    }
+
+    @Override
+    public <T> ResponseEntity<T> notModifiedResponse(String etag, long lastModified) {
+        return tagged(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified).build();
+    }
+
+    @Override
+    public <T> ResponseEntity<T> okResponse(T body, String etag, long lastModified) {
+        if(etag==null){
+            return ResponseEntity.ok(body);
+        }
+        return tagged(ResponseEntity.status(HttpStatus.OK), etag, lastModified).body(body);
+    }
+
+    // Restaurants unchanged since menu_modified_at was added only have the tag
+    private static ResponseEntity.BodyBuilder tagged(ResponseEntity.BodyBuilder builder, String etag, long lastModified) {
+        builder.eTag(etag).cacheControl(CacheControl.noCache());
+        if(lastModified>=0){
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
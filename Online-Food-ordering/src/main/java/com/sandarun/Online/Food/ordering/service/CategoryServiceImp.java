@@ -2,10 +2,13 @@ package com.sandarun.Online.Food.ordering.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sandarun.Online.Food.ordering.dto.CategoryDto;
 import com.sandarun.Online.Food.ordering.model.Category;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.repository.CategoryRepository;
@@ -19,20 +22,27 @@ public class CategoryServiceImp implements CategoryService{
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private MenuSyncService menuSyncService;
+
     @Override
-    public Category createCategory(String name, Long userId) throws Exception{
+    @Transactional
+    public CategoryDto createCategory(String name, Long userId) throws Exception{
         Restaurant restaurant=restaurantService.findRestaurantByUserId(userId);
         Category category=new Category();
         category.setName(name);
         category.setRestaurant(restaurant);
+        category.setChangeVersion(menuSyncService.nextVersion(restaurant.getId()));
 
-        return categoryRepository.save(category);
+        Category savedCategory=categoryRepository.save(category);
+        return CategoryDto.fromCategory(savedCategory);
     }
 
     @Override
-    public List<Category> findCategoryByRestaurantId(Long id) throws Exception {
+    public List<CategoryDto> findCategoryByRestaurantId(Long id) throws Exception {
         Restaurant restaurant=restaurantService.findRestaurantById(id);
-        return categoryRepository.findByRestaurantId(restaurant.getId());
+        return categoryRepository.findByRestaurantId(restaurant.getId()).stream()
+                .map(CategoryDto::fromCategory).collect(Collectors.toList());
     }
 
     @Override
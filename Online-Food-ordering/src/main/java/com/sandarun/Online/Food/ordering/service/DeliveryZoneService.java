@@ -0,0 +1,24 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.DeliveryZoneDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.request.DeliveryZoneRequest;
+
+public interface DeliveryZoneService {
+
+    public DeliveryZoneDto createDeliveryZone(Long restaurantId,DeliveryZoneRequest req)throws Exception;
+
+    public void deleteDeliveryZone(Long zoneId)throws Exception;
+
+    public void removeRestaurantZones(Long restaurantId);
+
+    public List<DeliveryZoneDto> getRestaurantDeliveryZones(Long restaurantId);
+
+    public Long calculateDeliveryFee(Restaurant restaurant,Address address)throws Exception;
+
+    public List<RestaurantSummaryDto> findRestaurantsDeliveringTo(double latitude,double longitude);
+}
@@ -0,0 +1,135 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.dto.DeliveryZoneDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.DeliveryZone;
+import com.sandarun.Online.Food.ordering.model.GeoPoint;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.repository.DeliveryZoneRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.request.DeliveryZoneRequest;
+import com.sandarun.Online.Food.ordering.util.DeliveryZoneIndex;
+
+@Service
+public class DeliveryZoneServiceImp implements DeliveryZoneService{
+
+    @Autowired
+    private DeliveryZoneRepository deliveryZoneRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final DeliveryZoneIndex index=new DeliveryZoneIndex(0.05);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status->{
+            for(DeliveryZone zone:deliveryZoneRepository.findAllWithPoints()){
+                index.put(compile(zone));
+            }
+        });
+    }
+
+    @Override
+    public DeliveryZoneDto createDeliveryZone(Long restaurantId, DeliveryZoneRequest req) throws Exception {
+
+        if(req.getPoints()==null || req.getPoints().size()<3){
+            throw new Exception("A delivery zone needs at least 3 points");
+        }
+        Optional<Restaurant> optionalRestaurant=restaurantRepository.findById(restaurantId);
+        if(optionalRestaurant.isEmpty()){
+            throw new Exception("Restaurant not found with id: "+restaurantId);
+        }
+        Restaurant restaurant=optionalRestaurant.get();
+
+        DeliveryZone zone=new DeliveryZone();
+        zone.setName(req.getName());
+        zone.setFee(req.getFee()==null?0L:req.getFee());
+        zone.setRestaurant(restaurant);
+        zone.getPoints().addAll(req.getPoints());
+
+        DeliveryZone savedZone=deliveryZoneRepository.save(zone);
+        index.put(compile(savedZone));
+        return DeliveryZoneDto.fromZone(savedZone);
+    }
+
+    @Override
+    public void deleteDeliveryZone(Long zoneId) throws Exception {
+
+        Optional<DeliveryZone> optionalZone=deliveryZoneRepository.findById(zoneId);
+        if(optionalZone.isEmpty()){
+            throw new Exception("Delivery zone not found");
+        }
+        deliveryZoneRepository.delete(optionalZone.get());
+        index.remove(zoneId);
+    }
+
+    @Override
+    public void removeRestaurantZones(Long restaurantId) {
+        index.removeRestaurant(restaurantId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DeliveryZoneDto> getRestaurantDeliveryZones(Long restaurantId) {
+        return deliveryZoneRepository.findByRestaurantId(restaurantId).stream()
+                .map(DeliveryZoneDto::fromZone).collect(Collectors.toList());
+    }
+
+    // Restaurants without zones keep delivering anywhere for free
+    @Override
+    public Long calculateDeliveryFee(Restaurant restaurant, Address address) throws Exception {
+
+        if(!index.hasZones(restaurant.getId())){
+            return 0L;
+        }
+        if(address==null || address.getLatitude()==null || address.getLongitude()==null){
+            throw new Exception("Delivery address needs a location for "+restaurant.getName());
+        }
+        DeliveryZoneIndex.Zone zone=index.cheapestZone(restaurant.getId(), address.getLatitude(), address.getLongitude());
+        if(zone==null){
+            throw new Exception(restaurant.getName()+" does not deliver to this address");
+        }
+        return zone.getFee();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RestaurantSummaryDto> findRestaurantsDeliveringTo(double latitude, double longitude) {
+
+        Set<Long> restaurantIds=new LinkedHashSet<>();
+        for(DeliveryZoneIndex.Zone zone:index.zonesAt(latitude, longitude)){
+            restaurantIds.add(zone.getRestaurantId());
+        }
+        return restaurantRepository.findAllById(restaurantIds).stream().map(RestaurantSummaryDto::fromRestaurant).collect(Collectors.toList());
+    }
+
+    private DeliveryZoneIndex.Zone compile(DeliveryZone zone) {
+
+        List<GeoPoint> points=zone.getPoints();
+        double[] latitudes=new double[points.size()];
+        double[] longitudes=new double[points.size()];
+        for(int i=0;i<points.size();i++){
+            latitudes[i]=points.get(i).getLatitude();
+            longitudes[i]=points.get(i).getLongitude();
+        }
+        return new DeliveryZoneIndex.Zone(zone.getId(), zone.getRestaurant().getId(), zone.getFee()==null?0L:zone.getFee(), latitudes, longitudes);
+    }
+}
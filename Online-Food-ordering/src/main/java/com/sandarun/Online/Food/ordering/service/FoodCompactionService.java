@@ -0,0 +1,6 @@
+package com.sandarun.Online.Food.ordering.service;
+
+public interface FoodCompactionService {
+
+    public int compact();
+}
@@ -0,0 +1,105 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.repository.CartItemRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
+import com.sandarun.Online.Food.ordering.repository.OrderItemRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+
+@Service
+public class FoodCompactionServiceImp implements FoodCompactionService{
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Value("${food.compaction.batch-size:200}")
+    private int batchSize;
+
+    @Value("${food.compaction.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${food.compaction.pause-ms:100}")
+    private long pauseMs;
+
+    // Purges tombstoned foods that no order item points at, leaving order history intact
+    @Override
+    @Scheduled(fixedDelayString = "${food.compaction.interval-ms:3600000}", initialDelayString = "${food.compaction.initial-delay-ms:60000}")
+    public int compact() {
+
+        transactionTemplate.execute(tx -> foodRepository.markDetachedFoodsDeleted(LocalDateTime.now()));
+
+        int purged=0;
+        long afterId=0;
+        for(int batch=0;batch<maxBatches;batch++){
+            List<Long> page=foodRepository.findPurgeableIds(afterId, PageRequest.of(0, batchSize));
+            if(page.isEmpty()){
+                break;
+            }
+            afterId=page.get(page.size()-1);
+            List<Long> ids=withoutOrderHistoryOnOtherShards(page);
+            if(!ids.isEmpty()){
+                purged+=transactionTemplate.execute(tx -> {
+                    // Delta sync clients older than a purged tombstone can no longer see it and must resync
+                    for(Object[] row:foodRepository.findMaxChangeVersionByRestaurant(ids)){
+                        if(row[1]!=null){
+                            restaurantRepository.raiseMenuCompactedVersion((Long) row[0], (Long) row[1]);
+                        }
+                    }
+                    shardTemplate.executeOnEveryShard(false, () -> cartItemRepository.deleteByFoodIds(ids));
+                    foodRepository.deleteImagesByFoodIds(ids);
+                    foodRepository.deleteIngredientLinksByFoodIds(ids);
+                    return foodRepository.deleteByIds(ids);
+                });
+            }
+            if(page.size()<batchSize){
+                break;
+            }
+            // Give the menu queries room between batches
+            try{
+                Thread.sleep(pauseMs);
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return purged;
+    }
+
+    // The purgeable query only sees the order items on shard 0
+    private List<Long> withoutOrderHistoryOnOtherShards(List<Long> ids) {
+        if(shardTemplate.getShardCount()==1){
+            return ids;
+        }
+        Set<Long> referenced=new HashSet<>();
+        shardTemplate.executeOnEveryShard(true, () -> orderItemRepository.findReferencedFoodIds(ids)).forEach(referenced::addAll);
+        return ids.stream().filter(id -> !referenced.contains(id)).collect(Collectors.toList());
+    }
+}
@@ -2,25 +2,33 @@ package com.sandarun.Online.Food.ordering.service;
 
 import java.util.List;
 
+import com.sandarun.Online.Food.ordering.dto.FoodDto;
 import com.sandarun.Online.Food.ordering.model.Category;
 import com.sandarun.Online.Food.ordering.model.Food;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.CreateFoodRequest;
 
 public interface FoodService {
     
     public Food createFood(CreateFoodRequest req,Category category,Restaurant restaurant);
 
+    // For the admin endpoint, the restaurant is req's restaurantId
+    public FoodDto createFood(CreateFoodRequest req)throws Exception;
+
     void deleteFood(Long foodId) throws Exception;
 
-    public List<Food> getRestaurantsFood(Long restaurantId);
+    public List<FoodDto> getRestaurantsFood(Long restaurantId);
 
-    public List<Food> searchFood(String keyword);
+    public List<FoodDto> searchFood(String keyword);
 
     public Food findFoodByID(Long foodId)throws Exception;
 
-    public Food updateAvailibilityStatus(Long foodId)throws Exception;
+    public FoodDto getFoodById(Long foodId)throws Exception;
+
+    public FoodDto updateAvailibilityStatus(Long foodId)throws Exception;
 
-    public Food updateFood(Long foodId, CreateFoodRequest req, Category category) throws Exception;
+    // Only the owner of the food's restaurant may update it
+    public FoodDto updateFood(Long foodId, CreateFoodRequest req, Category category, User user) throws Exception;
 
 }
@@ -6,15 +6,20 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sandarun.Online.Food.ordering.dto.FoodDto;
 import com.sandarun.Online.Food.ordering.model.Category;
 import com.sandarun.Online.Food.ordering.model.Food;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.repository.FoodRepository;
 import com.sandarun.Online.Food.ordering.repository.IngredientItemsRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
 import com.sandarun.Online.Food.ordering.request.CreateFoodRequest;
 
 @Service
@@ -26,7 +31,14 @@ public class FoodServiceImp implements FoodService {
     @Autowired
     private IngredientItemsRepository ingredientItemsRepository;
 
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private MenuSyncService menuSyncService;
+
     @Override
+    @Transactional
     public Food createFood(CreateFoodRequest req, Category category, Restaurant restaurant) {
 
         Food food = new Food();
@@ -67,6 +79,7 @@ public class FoodServiceImp implements FoodService {
         }
         
         food.setIngredients(savedIngredients);
+        food.setChangeVersion(menuSyncService.nextVersion(restaurant.getId()));
 
         Food savedFood = foodRepository.save(food);
         restaurant.getFoods().add(savedFood);
@@ -74,18 +87,35 @@ public class FoodServiceImp implements FoodService {
     }
 
     @Override
+    @Transactional
+    public FoodDto createFood(CreateFoodRequest req) throws Exception {
+        Restaurant restaurant=restaurantRepository.findById(req.getRestaurantId())
+                .orElseThrow(() -> new Exception("Restaurant not found with id: "+req.getRestaurantId()));
+        return FoodDto.fromFood(createFood(req, req.getCategory(), restaurant));
+    }
+
+    @Override
+    @Transactional
     public void deleteFood(Long foodId) throws Exception {
 
         Food food = findFoodByID(foodId);
-        food.setRestaurant(null);
+        food.setDeleted(true);
+        food.setDeletedAt(LocalDateTime.now());
+        food.setAvailable(false);
+        food.setChangeVersion(menuSyncService.nextVersion(restaurantIdOf(food)));
         foodRepository.save(food);
 
     }
 
     @Override
-    public List<Food> getRestaurantsFood(Long restaurantId) {
+    @Timed(value = "service.method", histogram = true)
+    @Transactional(readOnly = true)
+    public List<FoodDto> getRestaurantsFood(Long restaurantId) {
 
-        List<Food> foods = foodRepository.findByRestaurantId(restaurantId);
+        List<Food> foods = foodRepository.findMenuWithIngredients(restaurantId);
+        if (!foods.isEmpty()) {
+            foodRepository.fetchImages(foods);
+        }
 
 //        if (isVegitarian) {
 //            foods = filterByVegitarian(foods, isVegitarian);
@@ -100,7 +130,7 @@ public class FoodServiceImp implements FoodService {
 //            foods = filterByCategory(foods, foodCategory);
 //        }
 
-        return foods;
+        return foods.stream().map(FoodDto::fromFood).collect(Collectors.toList());
     }
 
     private List<Food> filterByCategory(List<Food> foods, String foodCategory) {
@@ -125,13 +155,17 @@ public class FoodServiceImp implements FoodService {
     }
 
     @Override
-    public List<Food> searchFood(String keyword) {
-        return foodRepository.searchFood(keyword);
+    @Timed(value = "service.method", histogram = true)
+    @Transactional(readOnly = true)
+    public List<FoodDto> searchFood(String keyword) {
+        List<Food> foods=foodRepository.searchFood(keyword);
+        foodRepository.fetchDetails(foods);
+        return foods.stream().map(FoodDto::fromFood).collect(Collectors.toList());
     }
 
     @Override
     public Food findFoodByID(Long foodId) throws Exception {
-        Optional<Food> optionalFood=foodRepository.findById(foodId);
+        Optional<Food> optionalFood=foodRepository.findByIdAndDeletedFalse(foodId);
 
         if(optionalFood.isEmpty()){
             throw new Exception("Food not exist...");
@@ -140,15 +174,32 @@ public class FoodServiceImp implements FoodService {
     }
 
     @Override
-    public Food updateAvailibilityStatus(Long foodId) throws Exception {
+    @Transactional(readOnly = true)
+    public FoodDto getFoodById(Long foodId) throws Exception {
+        return FoodDto.fromFood(findFoodByID(foodId));
+    }
+
+    @Override
+    @Transactional
+    public FoodDto updateAvailibilityStatus(Long foodId) throws Exception {
         Food food=findFoodByID(foodId);
         food.setAvailable(!food.isAvailable());
-        return foodRepository.save(food);
+        food.setChangeVersion(menuSyncService.nextVersion(restaurantIdOf(food)));
+        Food savedFood=foodRepository.save(food);
+        return FoodDto.fromFood(savedFood);
+    }
+
+    private Long restaurantIdOf(Food food) {
+        return food.getRestaurant()!=null?food.getRestaurant().getId():food.getRes_id();
     }
 
     @Override
-    public Food updateFood(Long foodId, CreateFoodRequest req, Category category) throws Exception {
+    @Transactional
+    public FoodDto updateFood(Long foodId, CreateFoodRequest req, Category category, User user) throws Exception {
         Food food = findFoodByID(foodId);
+        if (!food.getRestaurant().getOwner().getId().equals(user.getId())) {
+            throw new Exception("You are not authorized to update this food item");
+        }
         
         // Update basic food information
         if (req.getName() != null && !req.getName().trim().isEmpty()) {
@@ -196,8 +247,10 @@ public class FoodServiceImp implements FoodService {
             }
             food.setIngredients(savedIngredients);
         }
+        food.setChangeVersion(menuSyncService.nextVersion(restaurantIdOf(food)));
         
-        return foodRepository.save(food);
+        Food savedFood = foodRepository.save(food);
+        return FoodDto.fromFood(savedFood);
     }
 
 }
@@ -0,0 +1,24 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.response.GroupCartResponse;
+
+public interface GroupCartService {
+
+    public CartDto createGroupCart(User host)throws Exception;
+
+    public GroupCartResponse joinGroupCart(Long cartId,User user)throws Exception;
+
+    public CartItemDto addItem(Long cartId,AddCardItemRequest req,User user)throws Exception;
+
+    public void removeItem(Long cartId,Long cartItemId,User user)throws Exception;
+
+    public GroupCartResponse getGroupCart(Long cartId,User user)throws Exception;
+
+    public SseEmitter subscribe(Long cartId,User user)throws Exception;
+}
@@ -0,0 +1,275 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.model.Cart;
+import com.sandarun.Online.Food.ordering.model.CartItem;
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.CartItemRepository;
+import com.sandarun.Online.Food.ordering.repository.CartRepository;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.dto.CartDto;
+import com.sandarun.Online.Food.ordering.dto.CartItemDto;
+import com.sandarun.Online.Food.ordering.response.GroupCartParticipantResponse;
+import com.sandarun.Online.Food.ordering.response.GroupCartResponse;
+
+@Service
+public class GroupCartServiceImp implements GroupCartService{
+
+    private static final Logger log=LoggerFactory.getLogger(GroupCartServiceImp.class);
+
+    private static final long EMITTER_TIMEOUT_MS=30*60*1000L;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private FoodService foodService;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Map<Long,List<SseEmitter>> emitters=new ConcurrentHashMap<>();
+
+    // Carts edited since the last push, flushed together so a burst of edits sends one update
+    private final Set<Long> dirtyCarts=ConcurrentHashMap.newKeySet();
+
+    @Override
+    @Transactional
+    public CartDto createGroupCart(User host) throws Exception {
+
+        Cart cart=new Cart();
+        cart.setGroupCart(true);
+        cart.setHost(host);
+        cart.setTotal(0L);
+        cart.getParticipants().add(host);
+
+        // Lives on the host's shard, the id tells every later call where to find it
+        return shardTemplate.call(shardTemplate.shardForCustomer(host.getId()), false, ()->CartDto.fromCart(cartRepository.save(cart)));
+    }
+
+    @Override
+    @Transactional
+    public GroupCartResponse joinGroupCart(Long cartId, User user) throws Exception {
+
+        return retryOnConflict(()->shardTemplate.callInNewTransaction(shardTemplate.shardOfId(cartId), false, ()->{
+            Cart cart=findGroupCart(cartId);
+            if(!isParticipant(cart, user)){
+                cart.getParticipants().add(user);
+                cartRepository.saveAndFlush(cart);
+                dirtyCarts.add(cartId);
+            }
+            return buildResponse(cart);
+        }));
+    }
+
+    @Override
+    @Transactional
+    public CartItemDto addItem(Long cartId, AddCardItemRequest req, User user) throws Exception {
+
+        Food food=foodService.findFoodByID(req.getFoodId());
+
+        return retryOnConflict(()->shardTemplate.callInNewTransaction(shardTemplate.shardOfId(cartId), false, ()->{
+            Cart cart=findGroupCart(cartId);
+            checkParticipant(cart, user);
+
+            // Lines are owned by one participant, so concurrent edits from different people never touch the same row
+            Optional<CartItem> existing=cartItemRepository.findFirstByCartIdAndParticipantIdAndFoodId(cartId, user.getId(), food.getId());
+
+            CartItem cartItem;
+            if(existing.isPresent()){
+                // Increment in the database so two taps from the same participant both count
+                cartItemRepository.incrementQuantity(existing.get().getId(), req.getQuantity(), food.getPrice()*req.getQuantity());
+                cartItem=existing.get();
+                cartItem.setQuantity(cartItem.getQuantity()+req.getQuantity());
+                cartItem.setTotalPrice(cartItem.getTotalPrice()+food.getPrice()*req.getQuantity());
+                // The increment detached the line, answer with the food loaded by the caller
+                cartItem.setFood(food);
+            }else{
+                cartItem=new CartItem();
+                cartItem.setCart(cart);
+                cartItem.setFood(food);
+                cartItem.setParticipant(user);
+                cartItem.setQuantity(req.getQuantity());
+                cartItem.setIngredients(req.getIngredients());
+                cartItem.setTotalPrice(food.getPrice()*req.getQuantity());
+                cartItem=cartItemRepository.saveAndFlush(cartItem);
+            }
+
+            dirtyCarts.add(cartId);
+            return CartItemDto.fromCartItem(cartItem);
+        }));
+    }
+
+    @Override
+    @Transactional
+    public void removeItem(Long cartId, Long cartItemId, User user) throws Exception {
+
+        shardTemplate.call(shardTemplate.shardOfId(cartId), false, ()->{
+            Optional<CartItem> cartItemOptional=cartItemRepository.findById(cartItemId);
+            if(cartItemOptional.isEmpty() || !cartItemOptional.get().getCart().getId().equals(cartId)){
+                throw new Exception("Cart item not found");
+            }
+
+            CartItem cartItem=cartItemOptional.get();
+            if(cartItem.getParticipant()==null || !cartItem.getParticipant().getId().equals(user.getId())){
+                throw new Exception("You can only remove your own items");
+            }
+
+            cartItemRepository.delete(cartItem);
+            dirtyCarts.add(cartId);
+            return null;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GroupCartResponse getGroupCart(Long cartId, User user) throws Exception {
+
+        return shardTemplate.call(shardTemplate.shardOfId(cartId), true, ()->{
+            Cart cart=findGroupCart(cartId);
+            checkParticipant(cart, user);
+            return buildResponse(cart);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(Long cartId, User user) throws Exception {
+
+        GroupCartResponse response=getGroupCart(cartId, user);
+
+        SseEmitter emitter=new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> cartEmitters=emitters.computeIfAbsent(cartId, id->new CopyOnWriteArrayList<>());
+        cartEmitters.add(emitter);
+
+        emitter.onCompletion(()->cartEmitters.remove(emitter));
+        emitter.onTimeout(()->cartEmitters.remove(emitter));
+        emitter.onError(e->cartEmitters.remove(emitter));
+
+        emitter.send(SseEmitter.event().name("cart").data(objectMapper.writeValueAsString(response),MediaType.APPLICATION_JSON));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelay = 250)
+    public void publishUpdates() {
+
+        for(Long cartId:dirtyCarts){
+            dirtyCarts.remove(cartId);
+
+            List<SseEmitter> cartEmitters=emitters.get(cartId);
+            if(cartEmitters==null || cartEmitters.isEmpty()){
+                continue;
+            }
+
+            // Build and serialize inside a read-only transaction, the lazy food collections are not loaded yet.
+            // A cart that fails to load must not stop the pushes of the others, its next edit marks it dirty again.
+            String payload;
+            try{
+                payload=shardTemplate.call(shardTemplate.shardOfId(cartId), true,
+                        ()->objectMapper.writeValueAsString(buildResponse(findGroupCart(cartId))));
+            }catch(Exception e){
+                log.warn("Skipping the push for group cart {}", cartId, e);
+                continue;
+            }
+
+            for(SseEmitter emitter:cartEmitters){
+                try {
+                    emitter.send(SseEmitter.event().name("cart").data(payload,MediaType.APPLICATION_JSON));
+                } catch (IOException e) {
+                    cartEmitters.remove(emitter);
+                }
+            }
+        }
+    }
+
+    // Unique keys on participants and on each participant's food lines turn a concurrent duplicate into a failed commit.
+    // The attempt runs in a transaction of its own, so the retry starts clean and merges into the row that won.
+    private <T> T retryOnConflict(Callable<T> attempt) throws Exception {
+        try{
+            return attempt.call();
+        }catch(DataIntegrityViolationException e){
+            return attempt.call();
+        }
+    }
+
+    private Cart findGroupCart(Long cartId) throws Exception {
+
+        Optional<Cart> optionalCart=cartRepository.findById(cartId);
+        if(optionalCart.isEmpty() || !optionalCart.get().isGroupCart()){
+            throw new Exception("Group cart not found with id "+cartId);
+        }
+        return optionalCart.get();
+    }
+
+    private boolean isParticipant(Cart cart, User user) {
+        return cart.getParticipants().stream().anyMatch(participant->participant.getId().equals(user.getId()));
+    }
+
+    private void checkParticipant(Cart cart, User user) throws Exception {
+        if(!isParticipant(cart, user)){
+            throw new Exception("Join the group cart first");
+        }
+    }
+
+    private GroupCartResponse buildResponse(Cart cart) {
+
+        Map<Long,GroupCartParticipantResponse> byParticipant=new LinkedHashMap<>();
+        for(User participant:cart.getParticipants()){
+            GroupCartParticipantResponse participantResponse=new GroupCartParticipantResponse();
+            participantResponse.setUserId(participant.getId());
+            participantResponse.setFullName(participant.getFullName());
+            participantResponse.setSubtotal(0L);
+            byParticipant.put(participant.getId(), participantResponse);
+        }
+
+        long total=0;
+        for(CartItem cartItem:cartItemRepository.findByCartId(cart.getId())){
+            if(cartItem.getParticipant()==null){
+                continue;
+            }
+            GroupCartParticipantResponse participantResponse=byParticipant.get(cartItem.getParticipant().getId());
+            if(participantResponse==null){
+                continue;
+            }
+            long lineTotal=cartItem.getFood().getPrice()*cartItem.getQuantity();
+            participantResponse.getItems().add(CartItemDto.fromCartItem(cartItem));
+            participantResponse.setSubtotal(participantResponse.getSubtotal()+lineTotal);
+            total+=lineTotal;
+        }
+
+        GroupCartResponse response=new GroupCartResponse();
+        response.setCartId(cart.getId());
+        response.setHostId(cart.getHost()==null?null:cart.getHost().getId());
+        response.setTotal(total);
+        response.getParticipants().addAll(byParticipant.values());
+        return response;
+    }
+}
@@ -0,0 +1,10 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.http.ResponseEntity;
+
+public interface IdempotencyService {
+
+    public <T> ResponseEntity<T> execute(String operation,String idempotencyKey,String jwt,Object request,Callable<ResponseEntity<T>> action)throws Exception;
+}
@@ -0,0 +1,151 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+
+@Service
+public class IdempotencyServiceImp implements IdempotencyService{
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    // Insertion ordered so the oldest keys are evicted first once the store is full
+    private final LinkedHashMap<String,Entry> entries=new LinkedHashMap<>();
+
+    private static class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> result=new CompletableFuture<>();
+        private volatile long expiresAt;
+
+        private Entry(byte[] fingerprint,long expiresAt) {
+            this.fingerprint=fingerprint;
+            this.expiresAt=expiresAt;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String operation, String idempotencyKey, String jwt, Object request,
+            Callable<ResponseEntity<T>> action) throws Exception {
+
+        if(idempotencyKey==null || idempotencyKey.isBlank()){
+            return action.call();
+        }
+
+        // Keys are scoped per user and endpoint, the token is only parsed so no database work happens here
+        String key=operation+":"+jwtProvider.getEmailFromJwtToken(jwt)+":"+idempotencyKey;
+        byte[] fingerprint=fingerprint(request);
+        long now=System.currentTimeMillis();
+
+        Entry entry;
+        boolean owner=false;
+        synchronized (entries){
+            entry=entries.get(key);
+            if(entry!=null && entry.expiresAt<now){
+                entries.remove(key);
+                entry=null;
+            }
+            if(entry==null){
+                entry=new Entry(fingerprint, now+TimeUnit.SECONDS.toMillis(ttlSeconds));
+                entries.put(key, entry);
+                owner=true;
+                evictCompleted();
+            }
+        }
+
+        if(!owner){
+            if(!MessageDigest.isEqual(entry.fingerprint, fingerprint)){
+                throw new Exception("Idempotency-Key was already used for a different request");
+            }
+            try {
+                return (ResponseEntity<T>) entry.result.get(waitSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                throw new Exception("A request with this Idempotency-Key is still in progress");
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof Exception cause){
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            ResponseEntity<T> response=action.call();
+            entry.expiresAt=System.currentTimeMillis()+TimeUnit.SECONDS.toMillis(ttlSeconds);
+            entry.result.complete(response);
+            return response;
+        } catch (Exception e) {
+            // Failed attempts are forgotten so the client can retry them
+            synchronized (entries){
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Request bodies are compared by a digest of their JSON, hashCode collides and entities do not override it
+    private byte[] fingerprint(Object request) throws Exception {
+        try{
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        }catch(NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Oldest completed keys go first. An in-flight key is never evicted, a retry would run the action a second time,
+    // so the store can run over its size while that many requests are in progress.
+    private void evictCompleted() {
+        Iterator<Entry> iterator=entries.values().iterator();
+        int excess=entries.size()-maxEntries;
+        while(excess>0 && iterator.hasNext()){
+            if(iterator.next().result.isDone()){
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+
+        long now=System.currentTimeMillis();
+        synchronized (entries){
+            Iterator<Entry> iterator=entries.values().iterator();
+            while(iterator.hasNext()){
+                Entry entry=iterator.next();
+                if(entry.expiresAt<now && entry.result.isDone()){
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -2,10 +2,15 @@ package com.sandarun.Online.Food.ordering.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.sandarun.Online.Food.ordering.dto.IngredientCategoryDto;
+import com.sandarun.Online.Food.ordering.dto.IngredientItemDto;
 import com.sandarun.Online.Food.ordering.model.IngredientCategory;
 import com.sandarun.Online.Food.ordering.model.IngredientsItems;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
@@ -24,8 +29,14 @@ public class IngredientsServiceImp implements IngredientsService{
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private MenuSyncService menuSyncService;
+
     @Override
-    public IngredientCategory createiIngredientCategory(String name, Long restaurantId) throws Exception {
+    public IngredientCategoryDto createiIngredientCategory(String name, Long restaurantId) throws Exception {
     
         Restaurant restaurant=restaurantService.findRestaurantById(restaurantId);
 
@@ -33,7 +44,9 @@ public class IngredientsServiceImp implements IngredientsService{
         category.setRestaurant(restaurant);
         category.setName(name);
 
-        return ingredientCategoryRepository.save(category);
+        IngredientCategory savedCategory=ingredientCategoryRepository.save(category);
+        catalogVersionService.bump(restaurantId);
+        return IngredientCategoryDto.fromCategory(savedCategory);
     }
 
     @Override
@@ -48,15 +61,21 @@ public class IngredientsServiceImp implements IngredientsService{
 
     }
 
+    // Ingredients come from the collection cache, so they are initialized here rather than fetch joined.
+    // A cold cache loads them for all the categories in one batch.
     @Override
-    public List<IngredientCategory> findIngredientCategoriesByRestaurantId(Long Id) throws Exception {
+    @Transactional(readOnly = true)
+    public List<IngredientCategoryDto> findIngredientCategoriesByRestaurantId(Long Id) throws Exception {
         
         restaurantService.findRestaurantById(Id);
-        return ingredientCategoryRepository.findByRestaurantId(Id);
+        List<IngredientCategory> categories=ingredientCategoryRepository.findByRestaurantId(Id);
+        categories.forEach(category -> Hibernate.initialize(category.getIngredients()));
+        return categories.stream().map(IngredientCategoryDto::fromCategory).collect(Collectors.toList());
     }
 
     @Override
-    public IngredientsItems createIngredientsItems(Long restaurantId, String ingredientName, Long categoryId)throws Exception {
+    @Transactional
+    public IngredientItemDto createIngredientsItems(Long restaurantId, String ingredientName, Long categoryId)throws Exception {
     
         Restaurant restaurant=restaurantService.findRestaurantById(restaurantId);
         IngredientCategory category=findIngredientCategoryById(categoryId);
@@ -65,21 +84,24 @@ public class IngredientsServiceImp implements IngredientsService{
         item.setName(ingredientName);
         item.setRestaurant(restaurant);
         item.setCategory(category);
+        item.setChangeVersion(menuSyncService.nextVersion(restaurantId));
 
         IngredientsItems ingredient=ingredientItemsRepository.save(item);
         category.getIngredients().add(ingredient);
 
-        return ingredient;
+        return IngredientItemDto.fromIngredient(ingredient);
     }
 
     @Override
-    public List<IngredientsItems> findRestaurantIngredients(Long restaurantId) {
+    public List<IngredientItemDto> findRestaurantIngredients(Long restaurantId) {
     
-        return ingredientItemsRepository.findByRestaurantId(restaurantId);
+        return ingredientItemsRepository.findByRestaurantId(restaurantId).stream()
+                .map(IngredientItemDto::fromIngredient).collect(Collectors.toList());
     }
 
     @Override
-    public IngredientsItems updateStock(Long Id) throws Exception {
+    @Transactional
+    public IngredientItemDto updateStock(Long Id) throws Exception {
     
         Optional<IngredientsItems> optionalIngredientsItem=ingredientItemsRepository.findById(Id);
         if(optionalIngredientsItem.isEmpty()){
@@ -87,7 +109,10 @@ public class IngredientsServiceImp implements IngredientsService{
         }
         IngredientsItems ingredientsItems=optionalIngredientsItem.get();
         ingredientsItems.setInStoke(!ingredientsItems.isInStoke());
-        return ingredientItemsRepository.save(ingredientsItems);
+        if(ingredientsItems.getRestaurant()!=null){
+            ingredientsItems.setChangeVersion(menuSyncService.nextVersion(ingredientsItems.getRestaurant().getId()));
+        }
+        return IngredientItemDto.fromIngredient(ingredientItemsRepository.save(ingredientsItems));
     }
     
 }
@@ -0,0 +1,10 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.response.MenuChangesResponse;
+
+public interface MenuSyncService {
+
+    public Long nextVersion(Long restaurantId);
+
+    public MenuChangesResponse getChanges(Long restaurantId,long since)throws Exception;
+}
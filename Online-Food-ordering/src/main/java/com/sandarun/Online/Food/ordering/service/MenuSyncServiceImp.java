@@ -0,0 +1,87 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sandarun.Online.Food.ordering.dto.CategoryDto;
+import com.sandarun.Online.Food.ordering.dto.IngredientItemDto;
+import com.sandarun.Online.Food.ordering.dto.MenuItemDto;
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.repository.CategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
+import com.sandarun.Online.Food.ordering.repository.IngredientItemsRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.response.MenuChangesResponse;
+
+@Service
+public class MenuSyncServiceImp implements MenuSyncService{
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private IngredientItemsRepository ingredientItemsRepository;
+
+    // Joins the caller's transaction so the version and the change it stamps commit together
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long nextVersion(Long restaurantId) {
+        if(restaurantId==null){
+            return null;
+        }
+        restaurantRepository.incrementMenuVersion(restaurantId, new Date());
+        return restaurantRepository.findMenuVersion(restaurantId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MenuChangesResponse getChanges(Long restaurantId, long since) throws Exception {
+
+        // Read first, changes committed meanwhile carry a higher version and are simply sent again
+        Long version=restaurantRepository.findMenuVersion(restaurantId);
+        if(version==null){
+            throw new Exception("Restaurant not found with id: "+restaurantId);
+        }
+
+        MenuChangesResponse response=new MenuChangesResponse();
+        response.setRestaurantId(restaurantId);
+        response.setSince(since);
+        response.setVersion(version);
+
+        boolean fullResync=since<=0 || since>version || since<restaurantRepository.findMenuCompactedVersion(restaurantId);
+        response.setFullResync(fullResync);
+
+        List<Food> foods;
+        if(fullResync){
+            foods=foodRepository.findMenuWithIngredients(restaurantId);
+            response.setCategories(categoryRepository.findByRestaurantId(restaurantId).stream()
+                    .map(CategoryDto::fromCategory).collect(Collectors.toList()));
+            response.setIngredients(ingredientItemsRepository.findByRestaurantId(restaurantId).stream()
+                    .map(IngredientItemDto::fromIngredient).collect(Collectors.toList()));
+        }else{
+            foods=foodRepository.findMenuChangedSince(restaurantId, since);
+            response.setCategories(categoryRepository.findByRestaurantIdAndChangeVersionGreaterThan(restaurantId, since).stream()
+                    .map(CategoryDto::fromCategory).collect(Collectors.toList()));
+            response.setIngredients(ingredientItemsRepository.findByRestaurantIdAndChangeVersionGreaterThan(restaurantId, since).stream()
+                    .map(IngredientItemDto::fromIngredient).collect(Collectors.toList()));
+            response.setDeletedFoodIds(foodRepository.findDeletedIdsSince(restaurantId, since));
+        }
+        if(!foods.isEmpty()){
+            foodRepository.fetchImages(foods);
+        }
+        response.setFoods(foods.stream().map(MenuItemDto::fromFood).collect(Collectors.toList()));
+        return response;
+    }
+}
@@ -0,0 +1,22 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
+
+public interface OrderArchiveService {
+
+    public int archive();
+
+    // False when every order created from that date on is still in the order table
+    public boolean covers(Date from);
+
+    public List<OrderDto> findCustomerOrders(Long customerId,Date from,Date to)throws Exception;
+
+    public List<OrderDto> findRestaurantOrders(Long restaurantId,Date from,Date to)throws Exception;
+
+    // For callers that read order_archive rows themselves
+    public OrderDto readPayload(byte[] payload)throws IOException;
+}
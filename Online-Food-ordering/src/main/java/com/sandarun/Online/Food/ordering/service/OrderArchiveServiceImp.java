@@ -0,0 +1,261 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
+import com.sandarun.Online.Food.ordering.model.ArchivedOrder;
+import com.sandarun.Online.Food.ordering.model.Order;
+import com.sandarun.Online.Food.ordering.model.OrderItem;
+import com.sandarun.Online.Food.ordering.repository.ArchivedOrderRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
+import com.sandarun.Online.Food.ordering.repository.OrderItemRepository;
+import com.sandarun.Online.Food.ordering.repository.OrderRepository;
+
+@Service
+public class OrderArchiveServiceImp implements OrderArchiveService{
+
+    private static final Logger log=LoggerFactory.getLogger(OrderArchiveServiceImp.class);
+
+    private static final Pattern MONTH_PARTITION=Pattern.compile("order_(\\d{4})_(\\d{2})");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order.archive.after-days:90}")
+    private long afterDays;
+
+    @Value("${order.archive.statuses:COMPLETED,DELIVERED}")
+    private List<String> archivedStatuses;
+
+    @Value("${order.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.archive.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${order.archive.pause-ms:100}")
+    private long pauseMs;
+
+    // Only the PostgreSQL schema is partitioned, null until the first run looks
+    private volatile Boolean partitioned;
+
+    // Moves completed orders older than the archive age out of the order table, shard by shard
+    @Override
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:3600000}", initialDelayString = "${order.archive.initial-delay-ms:120000}")
+    public int archive() {
+
+        Date cutoff=horizon();
+        int archived=0;
+        for(int shard=0;shard<shardTemplate.getShardCount();shard++){
+            int target=shard;
+            for(int batch=0;batch<maxBatches;batch++){
+                int moved=shardTemplate.execute(target, false, () -> archiveBatch(cutoff));
+                archived+=moved;
+                if(moved<batchSize){
+                    break;
+                }
+                // Give the order queries room between batches
+                try{
+                    Thread.sleep(pauseMs);
+                }catch(InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    return archived;
+                }
+            }
+            if(isPartitioned()){
+                maintainPartitions(target, cutoff);
+            }
+        }
+        return archived;
+    }
+
+    // Orders are only archived once they are older than the horizon, so nothing newer can be in the archive
+    @Override
+    public boolean covers(Date from) {
+        return from==null || from.before(horizon());
+    }
+
+    @Override
+    public List<OrderDto> findCustomerOrders(Long customerId, Date from, Date to) throws Exception {
+
+        Date start=from==null?new Date(0):from;
+        Date end=to==null || to.after(horizon())?horizon():to;
+        List<OrderDto> orders=new ArrayList<>();
+        for(List<OrderDto> shardOrders : shardTemplate.callOnEveryShard(true, () -> decode(archivedOrderRepository.findByCustomerIdAndCreatedAtBetween(customerId, start, end)))){
+            orders.addAll(shardOrders);
+        }
+        return orders;
+    }
+
+    @Override
+    public List<OrderDto> findRestaurantOrders(Long restaurantId, Date from, Date to) throws Exception {
+
+        Date start=from==null?new Date(0):from;
+        Date end=to==null || to.after(horizon())?horizon():to;
+        return shardTemplate.call(shardTemplate.shardForRestaurant(restaurantId), true,
+                () -> decode(archivedOrderRepository.findByRestaurantIdAndCreatedAtBetween(restaurantId, start, end)));
+    }
+
+    private Date horizon() {
+        return new Date(System.currentTimeMillis()-TimeUnit.DAYS.toMillis(afterDays));
+    }
+
+    private int archiveBatch(Date cutoff) {
+
+        List<Long> ids=orderRepository.findArchivableIds(archivedStatuses, cutoff, PageRequest.of(0, batchSize));
+        if(ids.isEmpty()){
+            return 0;
+        }
+
+        // Everything OrderDto reads, loaded in bulk the way the history endpoints do
+        List<Order> orders=orderRepository.findWithItemsByIdIn(ids);
+        List<OrderItem> items=orders.stream().flatMap(order -> order.getItems().stream()).collect(Collectors.toList());
+        if(!items.isEmpty()){
+            orderItemRepository.fetchIngredients(items);
+            foodRepository.fetchDetails(items.stream().map(OrderItem::getFood).filter(Objects::nonNull).collect(Collectors.toList()));
+        }
+
+        List<ArchivedOrder> archived=new ArrayList<>();
+        for(Order order : orders){
+            archived.add(new ArchivedOrder(order.getId(),
+                    order.getCustomer()==null?null:order.getCustomer().getId(),
+                    order.getRestaurant()==null?null:order.getRestaurant().getId(),
+                    order.getOrderStatus(), order.getCreatedAt(), encode(OrderDto.fromOrder(order))));
+        }
+        archivedOrderRepository.saveAll(archived);
+
+        orderItemRepository.deleteIngredientsByOrderIds(ids);
+        orderItemRepository.deleteByOrderIds(ids);
+        orderRepository.deleteByIds(ids);
+        return ids.size();
+    }
+
+    // Keeps the next month's partition ready and drops month partitions archival has emptied.
+    // Each statement runs on its own, one failed DDL must not take the rest of the maintenance with it.
+    private void maintainPartitions(int shard, Date cutoff) {
+
+        YearMonth current=YearMonth.now();
+        for(YearMonth month=current;!month.isAfter(current.plusMonths(1));month=month.plusMonths(1)){
+            String sql="CREATE TABLE IF NOT EXISTS "+partitionName(month)+" PARTITION OF \"order\" FOR VALUES FROM ('"
+                    +month.atDay(1)+"') TO ('"+month.plusMonths(1).atDay(1)+"')";
+            try{
+                shardTemplate.execute(shard, false, () -> {
+                    jdbcTemplate.execute(sql);
+                    return null;
+                });
+            }catch(DataAccessException e){
+                // Rows for that month already sit in order_default, they have to be moved by hand
+                log.warn("Could not create order partition for {} on shard {}: {}", month, shard, e.getMessage());
+            }
+        }
+
+        LocalDate horizonDay=cutoff.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        List<String> partitions=shardTemplate.execute(shard, true, () -> jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid=i.inhrelid WHERE i.inhparent='\"order\"'::regclass", String.class));
+        for(String partition : partitions){
+            Matcher matcher=MONTH_PARTITION.matcher(partition);
+            if(!matcher.matches()){
+                continue;
+            }
+            YearMonth month=YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if(month.plusMonths(1).atDay(1).isAfter(horizonDay)){
+                continue;
+            }
+            try{
+                shardTemplate.execute(shard, false, () -> {
+                    // Orders that never completed keep their month around
+                    if(!jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM "+partition+")", Boolean.class)){
+                        jdbcTemplate.execute("DROP TABLE "+partition);
+                    }
+                    return null;
+                });
+            }catch(DataAccessException e){
+                log.warn("Could not drop order partition {} on shard {}: {}", partition, shard, e.getMessage());
+            }
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("order_%d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private boolean isPartitioned() {
+        if(partitioned==null){
+            partitioned=jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().equals("PostgreSQL"));
+        }
+        return partitioned;
+    }
+
+    private byte[] encode(OrderDto order) {
+        ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+        try(GZIPOutputStream gzip=new GZIPOutputStream(bytes)){
+            objectMapper.writeValue(gzip, order);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public OrderDto readPayload(byte[] payload) throws IOException {
+        try(GZIPInputStream gzip=new GZIPInputStream(new ByteArrayInputStream(payload))){
+            return objectMapper.readValue(gzip, OrderDto.class);
+        }
+    }
+
+    private List<OrderDto> decode(List<ArchivedOrder> archived) throws IOException {
+        List<OrderDto> orders=new ArrayList<>();
+        for(ArchivedOrder order : archived){
+            orders.add(readPayload(order.getPayload()));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,11 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+
+public interface OrderExportService {
+
+    // format is csv or ndjson, rows are written to out as they are read
+    public void exportRestaurantOrders(Long restaurantId,String format,Date from,Date to,OutputStream out)throws IOException;
+}
@@ -0,0 +1,128 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
+
+@Service
+public class OrderExportServiceImp implements OrderExportService{
+
+    private static final String[] COLUMNS={"id","created_at","order_status","customer_id","total_item","total_price","delivery_fee","total_amount"};
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Forward-only reads, the driver holds at most fetch-size rows of a result at a time
+    private final JdbcTemplate cursor;
+
+    public OrderExportServiceImp(DataSource dataSource, @Value("${order.export.fetch-size:500}") int fetchSize) {
+        this.cursor=new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void exportRestaurantOrders(Long restaurantId, String format, Date from, Date to, OutputStream out) throws IOException {
+
+        Date start=from==null?new Date(0):from;
+        Date end=to==null?new Date():to;
+        boolean csv=format.equals("csv");
+        Writer writer=new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if(csv){
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        try{
+            // PostgreSQL only honours the fetch size inside a transaction, otherwise it reads the whole result
+            shardTemplate.execute(shardTemplate.shardForRestaurant(restaurantId), true, () -> {
+                // Archived orders are the oldest, they go first
+                if(orderArchiveService.covers(from)){
+                    cursor.query("SELECT payload FROM order_archive WHERE restaurant_id=? AND created_at BETWEEN ? AND ? ORDER BY created_at, id",
+                            (RowCallbackHandler) rs -> {
+                                OrderDto order=readPayload(rs.getBytes(1));
+                                writeRow(writer, csv, order.getId(), order.getCreatedAt(), order.getOrderStatus(),
+                                        order.getCustomer()==null?null:order.getCustomer().getId(), order.getTotalItem(),
+                                        order.getTotalPrice(), order.getDeliveryFee(), order.getTotalAmount());
+                            }, restaurantId, start, end);
+                }
+                // Scheduled orders are left out the same way the restaurant history leaves them out
+                cursor.query("SELECT id, created_at, order_status, customer_id, total_item, total_price, delivery_fee, total_amount FROM \"order\""
+                                + " WHERE restaurant_id=? AND order_status<>'SCHEDULED' AND created_at BETWEEN ? AND ? ORDER BY created_at, id",
+                        (RowCallbackHandler) rs -> writeRow(writer, csv, rs.getLong(1), rs.getTimestamp(2), rs.getString(3), rs.getObject(4),
+                                rs.getInt(5), rs.getObject(6), rs.getObject(7), rs.getObject(8)),
+                        restaurantId, start, end);
+                return null;
+            });
+        }catch(UncheckedIOException e){
+            // Usually the client went away, the cursor and its transaction are already closed
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private OrderDto readPayload(byte[] payload) {
+        try{
+            return orderArchiveService.readPayload(payload);
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeRow(Writer writer, boolean csv, Object... values) {
+        try{
+            if(csv){
+                for(int i=0;i<values.length;i++){
+                    if(i>0){
+                        writer.write(',');
+                    }
+                    writer.write(csvValue(values[i]));
+                }
+            }else{
+                Map<String,Object> row=new LinkedHashMap<>();
+                for(int i=0;i<values.length;i++){
+                    row.put(COLUMNS[i], values[i] instanceof Date date?date.toInstant().toString():values[i]);
+                }
+                writer.write(objectMapper.writeValueAsString(row));
+            }
+            writer.write('\n');
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvValue(Object value) {
+        if(value==null){
+            return "";
+        }
+        String text=value instanceof Date date?date.toInstant().toString():value.toString();
+        if(text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")){
+            return "\""+text.replace("\"", "\"\"")+"\"";
+        }
+        return text;
+    }
+}
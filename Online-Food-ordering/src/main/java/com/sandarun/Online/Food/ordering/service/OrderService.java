@@ -1,15 +1,18 @@
 package com.sandarun.Online.Food.ordering.service;
 
+import java.util.Date;
 import java.util.List;
 
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
 import com.sandarun.Online.Food.ordering.model.Order;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.response.ReorderResponse;
 
 public interface OrderService {
-    public Order createOrder(OrderRequest order,User user)throws Exception;
+    public List<OrderDto> createOrder(OrderRequest order,User user)throws Exception;
 
-    public Order updateOrder(Long orderId,String orderStatus)throws Exception;
+    public OrderDto updateOrder(Long orderId,String orderStatus)throws Exception;
 
     public void cancelOrder(Long orderId)throws Exception;
 
@@ -17,5 +20,15 @@ public interface OrderService {
 
     public List<Order> getRestaurantOrder(Long restaurantId,String orderSttatus)throws Exception;
 
+    // Both bounds are optional, archived orders are only read when the range reaches back far enough
+    public List<OrderDto> getUsersOrderHistory(Long userId,Date from,Date to)throws Exception;
+
+    // The same for the user the token names
+    public List<OrderDto> getOrderHistory(String jwt,Date from,Date to)throws Exception;
+
+    public List<OrderDto> getRestaurantOrderHistory(Long restaurantId,String orderStatus,Date from,Date to)throws Exception;
+
     public Order findOrderById(Long orderId)throws Exception;
+
+    public ReorderResponse reorder(Long orderId,User user)throws Exception;
 }
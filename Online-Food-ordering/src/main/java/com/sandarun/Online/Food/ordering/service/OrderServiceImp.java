@@ -1,47 +1,97 @@
 package com.sandarun.Online.Food.ordering.service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
 import com.sandarun.Online.Food.ordering.model.Address;
 import com.sandarun.Online.Food.ordering.model.Cart;
 import com.sandarun.Online.Food.ordering.model.CartItem;
 import com.sandarun.Online.Food.ordering.model.Order;
 import com.sandarun.Online.Food.ordering.model.OrderItem;
+import com.sandarun.Online.Food.ordering.model.Food;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.repository.AddressRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
+import com.sandarun.Online.Food.ordering.repository.OrderItemRepository;
 import com.sandarun.Online.Food.ordering.repository.OrderRepository;
 import com.sandarun.Online.Food.ordering.repository.UserRepository;
 import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.response.ReorderResponse;
 
 @Service
 public class OrderServiceImp implements OrderService{
 
+    private static final Logger log=LoggerFactory.getLogger(OrderServiceImp.class);
+
     @Autowired 
     private OrderRepository orderRepository;
 
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private ScheduledOrderService scheduledOrderService;
+
+    @Autowired
+    private DeliveryZoneService deliveryZoneService;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Value("${scheduler.prep-lead-minutes:45}")
+    private long prepLeadMinutes;
+
     @Override
-    public Order createOrder(OrderRequest order, User user)throws Exception{
+    @Timed(value = "service.method", histogram = true)
+    @Transactional
+    public List<OrderDto> createOrder(OrderRequest order, User customer)throws Exception{
 
+        // The caller's user may come from outside this transaction, its addresses are read below
+        User user=userRepository.findById(customer.getId()).orElseThrow(() -> new Exception("User not found"));
         Address savedAdress=order.getDeliveryAddress();
 
 //        System.out.println("\n"+order+"\n");
@@ -52,51 +102,159 @@ public class OrderServiceImp implements OrderService{
             userRepository.save(user);
         }
 
-        Restaurant restaurant=restaurantService.findRestaurantById(order.getRestaurantId());
+        Cart cart=cartService.findCartByUserId(user.getId());
+        if(cart.getItem().isEmpty()){
+            throw new Exception("Cart is empty");
+        }
+
+        // Split the cart by the restaurant that owns each food, keeping the cart order
+        Map<Long,List<CartItem>> itemsByRestaurant=new LinkedHashMap<>();
+        Map<Long,Restaurant> restaurants=new HashMap<>();
+        for(CartItem cartItem : cart.getItem()){
+            // Proxies stay bound to the session that made them, the orders may be saved in another shard's session
+            Food food=cartItem.getFood();
+            // Carts keep foods that were deleted or switched off after they were added
+            if(food.isDeleted() || !food.isAvailable() || food.getRestaurant()==null){
+                throw new Exception(food.getName()+" is no longer available");
+            }
+            Restaurant restaurant=(Restaurant) Hibernate.unproxy(food.getRestaurant());
+            // Its purge has started, an order placed now would be deleted with it
+            if(restaurant.isDeleting()){
+                throw new Exception(restaurant.getName()+" is no longer taking orders");
+            }
+            restaurants.putIfAbsent(restaurant.getId(), restaurant);
+            itemsByRestaurant.computeIfAbsent(restaurant.getId(), id->new ArrayList<>()).add(cartItem);
+        }
+
+        Date createdAt=new Date();
+
+        // Orders for later stay hidden from the restaurant until prep should start
+        Date releaseAt=null;
+        if(order.getScheduledFor()!=null){
+            if(!order.getScheduledFor().after(createdAt)){
+                throw new Exception("Scheduled time must be in the future");
+            }
+            releaseAt=new Date(order.getScheduledFor().getTime()-TimeUnit.MINUTES.toMillis(prepLeadMinutes));
+            if(!releaseAt.after(createdAt)){
+                releaseAt=null;
+            }
+        }
+
+        Map<Integer,List<Order>> ordersByShard=new LinkedHashMap<>();
+
+        for(Map.Entry<Long,List<CartItem>> entry : itemsByRestaurant.entrySet()){
+            Restaurant restaurant=restaurants.get(entry.getKey());
+            Order createOrder=buildOrder(user, restaurant, savedAdress, createdAt, entry.getValue());
+
+            // Rejects addresses outside the restaurant's delivery zones
+            Long deliveryFee=deliveryZoneService.calculateDeliveryFee(restaurant, savedAdress);
+            createOrder.setDeliveryFee(deliveryFee);
+            createOrder.setTotalAmount(createOrder.getTotalPrice()+deliveryFee);
+            createOrder.setScheduledFor(order.getScheduledFor());
+            if(releaseAt!=null){
+                createOrder.setOrderStatus("SCHEDULED");
+                createOrder.setReleaseAt(releaseAt);
+            }
+            ordersByShard.computeIfAbsent(shardTemplate.shardForRestaurant(restaurant.getId()), shard->new ArrayList<>()).add(createOrder);
+        }
+
+        // One saveAll per shard so the orders and their cascaded items go out as JDBC batches.
+        // Shards other than the caller's commit on their own, their orders are deleted again if the checkout fails.
+        List<Order> savedOrders=new ArrayList<>();
+        Map<Integer,List<Long>> committedIds=new LinkedHashMap<>();
+        try{
+            for(Map.Entry<Integer,List<Order>> entry : ordersByShard.entrySet()){
+                boolean ownTransaction=!shardTemplate.joinsCurrentTransaction(entry.getKey(), false);
+                List<Order> shardOrders=shardTemplate.call(entry.getKey(), false, ()->orderRepository.saveAll(entry.getValue()));
+                savedOrders.addAll(shardOrders);
+                if(ownTransaction){
+                    committedIds.put(entry.getKey(), shardOrders.stream().map(Order::getId).collect(Collectors.toList()));
+                }
+            }
+        }catch(Exception e){
+            discardOrders(committedIds);
+            throw e;
+        }
+        if(!committedIds.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if(status==STATUS_ROLLED_BACK){
+                        discardOrders(committedIds);
+                    }
+                }
+            });
+        }
+
+        if(releaseAt!=null){
+            for(Order savedOrder : savedOrders){
+                scheduledOrderService.schedule(savedOrder.getId(), releaseAt);
+            }
+        }
+        return savedOrders.stream().map(OrderDto::fromOrder).collect(Collectors.toList());
+    }
+
+    // Compensates a failed checkout, each shard in a transaction of its own
+    private void discardOrders(Map<Integer,List<Long>> idsByShard){
+
+        for(Map.Entry<Integer,List<Long>> entry : idsByShard.entrySet()){
+            List<Long> ids=entry.getValue();
+            try{
+                shardTemplate.execute(entry.getKey(), false, ()->{
+                    orderItemRepository.deleteIngredientsByOrderIds(ids);
+                    orderItemRepository.deleteByOrderIds(ids);
+                    return orderRepository.deleteByIds(ids);
+                });
+            }catch(RuntimeException e){
+                log.error("Could not discard orders {} of a failed checkout on shard {}", ids, entry.getKey(), e);
+            }
+        }
+    }
+
+    private Order buildOrder(User user, Restaurant restaurant, Address address, Date createdAt, List<CartItem> cartItems){
 
         Order createOrder=new Order();
         createOrder.setCustomer(user);
-        createOrder.setCreatedAt(new Date());
+        createOrder.setCreatedAt(createdAt);
         createOrder.setOrderStatus("Pending");
-        createOrder.setDeliveruAddress(savedAdress);
+        createOrder.setDeliveruAddress(address);
         createOrder.setRestaurant(restaurant);
 
-        Cart cart=cartService.findCartByUserId(user.getId());
-
-        // Calculate total price first
-        Long totalPrice=cartService.calculateCartTotals(cart);
-        createOrder.setTotalPrice(totalPrice);
-
         List<OrderItem> orderItems=new ArrayList<>();
+        long totalPrice=0;
+        int totalItem=0;
 
-        for(CartItem cartItem : cart.getItem()){
+        for(CartItem cartItem : cartItems){
             OrderItem orderItem=new OrderItem();
-            orderItem.setFood(cartItem.getFood());
+            orderItem.setFood((Food) Hibernate.unproxy(cartItem.getFood()));
             orderItem.setIngredients(cartItem.getIngredients());
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setTotalPrice(cartItem.getTotalPrice());
             orderItem.setOrder(createOrder); // Set the parent order
 
+            totalPrice+=cartItem.getFood().getPrice()*cartItem.getQuantity();
+            totalItem+=cartItem.getQuantity();
             orderItems.add(orderItem);
         }
 
-        // Set the items to the order before saving
         createOrder.setItems(orderItems);
-
-        // Save the order with cascade - this will automatically save all OrderItems
-        Order savedOrder=orderRepository.save(createOrder);
-        restaurant.getOrders().add(savedOrder);
-        
-        return savedOrder;
+        createOrder.setTotalPrice(totalPrice);
+        createOrder.setTotalItem(totalItem);
+        return createOrder;
     }
 
     @Override
-    public Order updateOrder(Long orderId, String orderStatus) throws Exception {
+    @Transactional
+    public OrderDto updateOrder(Long orderId, String orderStatus) throws Exception {
     
-        Order order=findOrderById(orderId);
         if(orderStatus.equals("OUT_FOR_DELIVERY")||orderStatus.equals("DELIVERED")||orderStatus.equals("COMPLETED")||orderStatus.equals("PENDING")){
-            order.setOrderStatus(orderStatus);
-            return orderRepository.save(order);
+            return shardTemplate.call(shardTemplate.shardOfId(orderId), false, ()->{
+                Order order=findOrderById(orderId);
+                order.setOrderStatus(orderStatus);
+                Order saved=orderRepository.save(order);
+                fetchItemDetails(List.of(saved));
+                return OrderDto.fromOrder(saved);
+            });
         }
         throw new Exception("Plesse select a valid order status");
     }
@@ -104,35 +262,130 @@ public class OrderServiceImp implements OrderService{
     @Override
     public void cancelOrder(Long orderId) throws Exception {
     
-        // Verify order exists before deletion
-        findOrderById(orderId);
-        orderRepository.deleteById(orderId);
+        shardTemplate.call(shardTemplate.shardOfId(orderId), false, ()->{
+            // Verify order exists before deletion
+            findOrderById(orderId);
+            orderRepository.deleteById(orderId);
+            return null;
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> getUsersOrder(Long userId) throws Exception {
-    
-        return orderRepository.findByCustomerId(userId);
+        return findUsersOrders(userId, null, null);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Order> getRestaurantOrder(Long restaurantId, String orderStatus) throws Exception {
-    
-        List<Order> orders=orderRepository.findByRestaurantId(restaurantId);
+        return findRestaurantOrders(restaurantId, orderStatus, null, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> getUsersOrderHistory(Long userId, Date from, Date to) throws Exception {
+
+        List<OrderDto> history=findUsersOrders(userId, from, to).stream().map(OrderDto::fromOrder).collect(Collectors.toList());
+        // Completed orders older than the archive age have moved out of the order table
+        if(orderArchiveService.covers(from)){
+            history.addAll(orderArchiveService.findCustomerOrders(userId, from, to));
+        }
+        history.sort(Comparator.comparing(OrderDto::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return history;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOrderHistory(String jwt, Date from, Date to) throws Exception {
+        // Looked up in this session, the orders' customer is then already loaded
+        User user=userService.findUserByJwtToken(jwt);
+        return getUsersOrderHistory(user.getId(), from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> getRestaurantOrderHistory(Long restaurantId, String orderStatus, Date from, Date to) throws Exception {
+
+        List<OrderDto> history=findRestaurantOrders(restaurantId, orderStatus, from, to).stream().map(OrderDto::fromOrder).collect(Collectors.toList());
+        if(orderArchiveService.covers(from)){
+            orderArchiveService.findRestaurantOrders(restaurantId, from, to).stream()
+                    .filter(order->orderStatus==null || orderStatus.equals(order.getOrderStatus()))
+                    .forEach(history::add);
+        }
+        history.sort(Comparator.comparing(OrderDto::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return history;
+    }
+
+    private List<Order> findUsersOrders(Long userId, Date from, Date to) throws Exception {
+
+        // A customer's orders are spread over their restaurants' shards
+        List<Order> orders=new ArrayList<>();
+        for(List<Order> shardOrders : shardTemplate.callOnEveryShard(true, ()->fetchItemDetails(from==null && to==null
+                ?orderRepository.findWithItemsByCustomerId(userId)
+                :orderRepository.findWithItemsByCustomerIdAndCreatedAtBetween(userId, rangeStart(from), rangeEnd(to))))){
+            orders.addAll(shardOrders);
+        }
+        orders.sort(Comparator.comparing(Order::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return orders;
+    }
+
+    private List<Order> findRestaurantOrders(Long restaurantId, String orderStatus, Date from, Date to) throws Exception {
+
+        // Scheduled orders are not part of the restaurant queue until they are released
+        List<Order> orders=shardTemplate.call(shardTemplate.shardForRestaurant(restaurantId), true,
+                ()->fetchItemDetails(from==null && to==null
+                        ?orderRepository.findWithItemsByRestaurantIdAndOrderStatusNot(restaurantId, "SCHEDULED")
+                        :orderRepository.findWithItemsByRestaurantIdAndOrderStatusNotAndCreatedAtBetween(restaurantId, "SCHEDULED", rangeStart(from), rangeEnd(to))));
         if(orderStatus!=null){
             orders=orders.stream().filter(order->order.getOrderStatus().equals(orderStatus)).collect(Collectors.toList());
         }
         return orders;
     }
 
+    private static Date rangeStart(Date from) {
+        return from==null?new Date(0):from;
+    }
+
+    // Orders are created with the current time, nothing in the table is newer than now
+    private static Date rangeEnd(Date to) {
+        return to==null?new Date():to;
+    }
+
     @Override
     public Order findOrderById(Long orderId) throws Exception {
     
-        Optional<Order> optionalOrder=orderRepository.findById(orderId);
+        Optional<Order> optionalOrder=shardTemplate.call(shardTemplate.shardOfId(orderId), true, ()->orderRepository.findById(orderId));
         if(optionalOrder.isEmpty()){
             throw new Exception("order not found");
         }
         return optionalOrder.get();
     }
-    
+
+    @Override
+    @Transactional
+    public ReorderResponse reorder(Long orderId, User user) throws Exception {
+
+        List<OrderItem> items=shardTemplate.call(shardTemplate.shardOfId(orderId), true, ()->{
+            Order order=findOrderById(orderId);
+            if(!order.getCustomer().getId().equals(user.getId())){
+                throw new Exception("You are not authorized to reorder this order");
+            }
+            return fetchItemDetails(List.of(order)).get(0).getItems();
+        });
+        return cartService.addOrderItemsToCart(items, user);
+    }
+
+
+    // The graph brings items with their food, the remaining bags come in one query each.
+    // Loads everything OrderDto reads, the orders may be detached from a shard's session by the time it does.
+    private List<Order> fetchItemDetails(List<Order> orders) {
+        orders.stream().map(Order::getCustomer).filter(Objects::nonNull).forEach(customer->Hibernate.initialize(customer.getAddresses()));
+        List<OrderItem> items=orders.stream().flatMap(order->order.getItems().stream()).collect(Collectors.toList());
+        if(!items.isEmpty()){
+            orderItemRepository.fetchIngredients(items);
+            foodRepository.fetchDetails(items.stream().map(OrderItem::getFood).filter(Objects::nonNull).collect(Collectors.toList()));
+        }
+        return orders;
+    }
 }
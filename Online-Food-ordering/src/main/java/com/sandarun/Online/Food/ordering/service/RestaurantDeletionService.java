@@ -0,0 +1,10 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.response.RestaurantDeletionStatus;
+
+public interface RestaurantDeletionService {
+
+    public RestaurantDeletionStatus startDeletion(Long restaurantId)throws Exception;
+
+    public RestaurantDeletionStatus getStatus(Long restaurantId)throws Exception;
+}
@@ -0,0 +1,250 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.repository.AddressRepository;
+import com.sandarun.Online.Food.ordering.repository.ArchivedOrderRepository;
+import com.sandarun.Online.Food.ordering.repository.CartItemRepository;
+import com.sandarun.Online.Food.ordering.repository.CategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.DeliveryZoneRepository;
+import com.sandarun.Online.Food.ordering.repository.FavoriteRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
+import com.sandarun.Online.Food.ordering.repository.IngredientCategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.IngredientItemsRepository;
+import com.sandarun.Online.Food.ordering.repository.OrderItemRepository;
+import com.sandarun.Online.Food.ordering.repository.OrderRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.response.RestaurantDeletionStatus;
+
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class RestaurantDeletionServiceImp implements RestaurantDeletionService{
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private IngredientItemsRepository ingredientItemsRepository;
+
+    @Autowired
+    private IngredientCategoryRepository ingredientCategoryRepository;
+
+    @Autowired
+    private DeliveryZoneRepository deliveryZoneRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private RestaurantScheduleService restaurantScheduleService;
+
+    @Autowired
+    private RestaurantGeoService restaurantGeoService;
+
+    @Autowired
+    private DeliveryZoneService deliveryZoneService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    @Value("${restaurant.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    private final Map<Long,RestaurantDeletionStatus> statuses=new ConcurrentHashMap<>();
+
+    // One deletion at a time, so a purge never competes with itself for locks
+    private final ExecutorService executor=Executors.newSingleThreadExecutor(r -> {
+        Thread thread=new Thread(r, "restaurant-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public RestaurantDeletionStatus startDeletion(Long restaurantId) throws Exception {
+
+        if(!restaurantRepository.existsById(restaurantId)){
+            throw new Exception("Restaurant not found with id: "+restaurantId);
+        }
+
+        // Concurrent requests for one restaurant all get the same deletion
+        RestaurantDeletionStatus status=queued(restaurantId);
+        RestaurantDeletionStatus running=statuses.compute(restaurantId, (id, current) -> current!=null && !current.isDone()?current:status);
+        if(running!=status){
+            return running;
+        }
+
+        // Take it off the storefront before the background purge starts, checkout rejects it from here on
+        try{
+            transactionTemplate.executeWithoutResult(tx -> {
+                Restaurant restaurant=restaurantRepository.findById(restaurantId).orElseThrow();
+                restaurant.setDeleting(true);
+                restaurant.setOpen(false);
+            });
+        }catch(RuntimeException e){
+            statuses.remove(restaurantId, status);
+            throw e;
+        }
+        restaurantScheduleService.unregister(restaurantId);
+        restaurantGeoService.remove(restaurantId);
+        deliveryZoneService.removeRestaurantZones(restaurantId);
+
+        executor.submit(() -> purge(status));
+        return status;
+    }
+
+    // Purges a shutdown interrupted, the indexes already skip these restaurants when they rebuild
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeDeletions() {
+        for(Long restaurantId : restaurantRepository.findDeletingIds()){
+            RestaurantDeletionStatus status=queued(restaurantId);
+            if(statuses.putIfAbsent(restaurantId, status)==null){
+                executor.submit(() -> purge(status));
+            }
+        }
+    }
+
+    @Override
+    public RestaurantDeletionStatus getStatus(Long restaurantId) throws Exception {
+        RestaurantDeletionStatus status=statuses.get(restaurantId);
+        if(status==null){
+            throw new Exception("No deletion found for restaurant with id: "+restaurantId);
+        }
+        return status;
+    }
+
+    private void purge(RestaurantDeletionStatus status) {
+
+        Long restaurantId=status.getRestaurantId();
+        try{
+            status.setPhase("ORDERS");
+            int orderShard=shardTemplate.shardForRestaurant(restaurantId);
+            List<Long> orderIds;
+            while(!(orderIds=nextOrderIds(orderShard, restaurantId)).isEmpty()){
+                List<Long> ids=orderIds;
+                int deleted=shardTemplate.execute(orderShard, false, () -> {
+                    orderItemRepository.deleteIngredientsByOrderIds(ids);
+                    orderItemRepository.deleteByOrderIds(ids);
+                    return orderRepository.deleteByIds(ids);
+                });
+                status.setDeletedOrders(status.getDeletedOrders()+deleted);
+            }
+            int archived=shardTemplate.execute(orderShard, false, () -> archivedOrderRepository.deleteByRestaurantId(restaurantId));
+            status.setDeletedOrders(status.getDeletedOrders()+archived);
+
+            status.setPhase("FOODS");
+            List<Long> foodIds;
+            while(!(foodIds=nextFoodIds(restaurantId)).isEmpty()){
+                List<Long> ids=foodIds;
+                int deleted=transactionTemplate.execute(tx -> {
+                    // Any customer's cart and any restaurant's order history can point at these foods
+                    shardTemplate.executeOnEveryShard(false, () -> {
+                        cartItemRepository.deleteByFoodIds(ids);
+                        return orderItemRepository.detachFoods(ids);
+                    });
+                    foodRepository.deleteImagesByFoodIds(ids);
+                    foodRepository.deleteIngredientLinksByFoodIds(ids);
+                    return foodRepository.deleteByIds(ids);
+                });
+                status.setDeletedFoods(status.getDeletedFoods()+deleted);
+            }
+
+            status.setPhase("MENU");
+            transactionTemplate.executeWithoutResult(tx -> {
+                foodRepository.detachRestaurantCategories(restaurantId);
+                ingredientItemsRepository.deleteFoodLinksByRestaurantId(restaurantId);
+                ingredientItemsRepository.deleteByRestaurantId(restaurantId);
+                ingredientCategoryRepository.deleteByRestaurantId(restaurantId);
+                categoryRepository.deleteByRestaurantId(restaurantId);
+            });
+
+            status.setPhase("RESTAURANT");
+            transactionTemplate.executeWithoutResult(tx -> {
+                Long addressId=restaurantRepository.findById(restaurantId)
+                        .map(Restaurant::getAddress)
+                        .map(address -> address.getId())
+                        .orElse(null);
+                deliveryZoneRepository.deletePointsByRestaurantId(restaurantId);
+                deliveryZoneRepository.deleteByRestaurantId(restaurantId);
+                favoriteRepository.deleteRestaurantFavorites(restaurantId);
+                restaurantRepository.deleteImages(restaurantId);
+                restaurantRepository.deleteRestaurantRow(restaurantId);
+                if(addressId!=null){
+                    addressRepository.deleteById(addressId);
+                }
+            });
+
+            status.setPhase("COMPLETED");
+        }catch(Exception e){
+            status.setPhase("FAILED");
+            status.setError(e.getMessage());
+        }finally{
+            catalogVersionService.bump(restaurantId);
+            status.setFinishedAt(new Date());
+            status.setDone(true);
+        }
+    }
+
+    private RestaurantDeletionStatus queued(Long restaurantId) {
+        RestaurantDeletionStatus status=new RestaurantDeletionStatus();
+        status.setRestaurantId(restaurantId);
+        status.setPhase("QUEUED");
+        status.setStartedAt(new Date());
+        return status;
+    }
+
+    private List<Long> nextOrderIds(int shard, Long restaurantId) {
+        return shardTemplate.execute(shard, true, () -> orderRepository.findIdsByRestaurantId(restaurantId, PageRequest.of(0, chunkSize)));
+    }
+
+    private List<Long> nextFoodIds(Long restaurantId) {
+        return foodRepository.findIdsByRestaurantId(restaurantId, PageRequest.of(0, chunkSize));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.response.NearbyRestaurantResponse;
+
+import java.util.List;
+
+public interface RestaurantGeoService {
+
+    // Also how far a search without a radius looks for the nearest restaurants
+    public static final double MAX_RADIUS_KM=200;
+
+    public void index(Restaurant restaurant);
+
+    public void remove(Long restaurantId);
+
+    public List<NearbyRestaurantResponse> findNearby(double latitude, double longitude, Double radiusKm, int limit);
+}
@@ -0,0 +1,79 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.dto.RestaurantLocationDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.response.NearbyRestaurantResponse;
+import com.sandarun.Online.Food.ordering.util.GeoGridIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class RestaurantGeoServiceImp implements RestaurantGeoService {
+
+    // Cells of about 2km, a few cells cover a typical delivery radius
+    private static final double CELL_DEGREES = 0.02;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    private final GeoGridIndex index = new GeoGridIndex(CELL_DEGREES);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (RestaurantLocationDto location : restaurantRepository.findLocations()) {
+            index.put(location.getId(), location.getLatitude(), location.getLongitude());
+        }
+    }
+
+    @Override
+    public void index(Restaurant restaurant) {
+        Address address = restaurant.getAddress();
+        if (address == null || address.getLatitude() == null || address.getLongitude() == null) {
+            index.remove(restaurant.getId());
+            return;
+        }
+        index.put(restaurant.getId(), address.getLatitude(), address.getLongitude());
+    }
+
+    @Override
+    public void remove(Long restaurantId) {
+        index.remove(restaurantId);
+    }
+
+    // Without a radius this is a k-nearest search
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyRestaurantResponse> findNearby(double latitude, double longitude, Double radiusKm, int limit) {
+        List<GeoGridIndex.Match> matches = radiusKm == null
+                ? index.nearest(latitude, longitude, limit, MAX_RADIUS_KM)
+                : index.withinRadius(latitude, longitude, radiusKm, limit);
+
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(matches.stream().map(GeoGridIndex.Match::id).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+
+        List<NearbyRestaurantResponse> nearby = new ArrayList<>();
+        for (GeoGridIndex.Match match : matches) {
+            Restaurant restaurant = restaurants.get(match.id());
+            if (restaurant == null) {
+                continue;
+            }
+            NearbyRestaurantResponse response = new NearbyRestaurantResponse();
+            response.setRestaurant(RestaurantSummaryDto.fromRestaurant(restaurant));
+            response.setDistanceKm(match.distanceKm());
+            nearby.add(response);
+        }
+        return nearby;
+    }
+}
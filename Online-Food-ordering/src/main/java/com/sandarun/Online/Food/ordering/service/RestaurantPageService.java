@@ -0,0 +1,8 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.response.RestaurantPageResponse;
+
+public interface RestaurantPageService {
+
+    public RestaurantPageResponse getRestaurantPage(Long restaurantId)throws Exception;
+}
@@ -0,0 +1,164 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.dto.CategoryDto;
+import com.sandarun.Online.Food.ordering.dto.IngredientCategoryDto;
+import com.sandarun.Online.Food.ordering.dto.MenuItemDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+import com.sandarun.Online.Food.ordering.model.Food;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.repository.CategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.FoodRepository;
+import com.sandarun.Online.Food.ordering.repository.IngredientCategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.response.RestaurantPageResponse;
+import com.sandarun.Online.Food.ordering.util.QueryCounter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class RestaurantPageServiceImp implements RestaurantPageService{
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private IngredientCategoryRepository ingredientCategoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${restaurant.page.threads:16}")
+    private int threads;
+
+    @Value("${restaurant.page.queue-size:64}")
+    private int queueSize;
+
+    @Value("${restaurant.page.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private ThreadPoolExecutor executor;
+
+    // Java 17 has no virtual threads, so the sections run on a small bounded pool instead.
+    // The queue is bounded too, under overload sections come back missing instead of piling up.
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction=new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        // Applied as the statement timeout, so a slow query is cancelled in the database as well
+        readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs+999)));
+
+        AtomicInteger counter=new AtomicInteger();
+        executor=new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), r -> {
+            Thread thread=new Thread(r, "restaurant-page-"+counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public RestaurantPageResponse getRestaurantPage(Long restaurantId) throws Exception {
+
+        CompletableFuture<RestaurantSummaryDto> restaurant=section(() -> loadRestaurant(restaurantId));
+        CompletableFuture<List<CategoryDto>> categories=section(() -> categoryRepository.findByRestaurantId(restaurantId).stream()
+                .map(CategoryDto::fromCategory).collect(Collectors.toList()));
+        CompletableFuture<List<MenuItemDto>> menu=section(() -> loadMenu(restaurantId));
+        CompletableFuture<List<IngredientCategoryDto>> ingredientCategories=section(() -> loadIngredientCategories(restaurantId));
+
+        RestaurantPageResponse response=new RestaurantPageResponse();
+        response.setRestaurant(await(restaurant, "restaurant", response));
+        if(response.getRestaurant()==null && !response.getMissingSections().contains("restaurant")){
+            throw new Exception("Restaurant not found with id: "+restaurantId);
+        }
+        response.setCategories(await(categories, "categories", response));
+        response.setMenu(await(menu, "menu", response));
+        response.setIngredientCategories(await(ingredientCategories, "ingredientCategories", response));
+        return response;
+    }
+
+    private <T> CompletableFuture<T> section(Supplier<T> loader) {
+        CompletableFuture<T> result=new CompletableFuture<>();
+        Future<?> task;
+        try{
+            task=executor.submit(QueryCounter.propagate(() -> {
+                try{
+                    result.complete(readOnlyTransaction.execute(tx -> loader.get()));
+                }catch(Throwable e){
+                    result.completeExceptionally(e);
+                }
+            }));
+        }catch(RejectedExecutionException e){
+            result.completeExceptionally(e);
+            return result;
+        }
+        // A late section is cancelled, still queued it never starts and running it is interrupted
+        result.orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+            if(error instanceof TimeoutException){
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <T> T await(CompletableFuture<T> future, String name, RestaurantPageResponse response) {
+        try{
+            return future.join();
+        }catch(CompletionException e){
+            response.getMissingSections().add(name);
+            return null;
+        }
+    }
+
+    private RestaurantSummaryDto loadRestaurant(Long restaurantId) {
+        Restaurant restaurant=restaurantRepository.findById(restaurantId).orElse(null);
+        if(restaurant==null){
+            return null;
+        }
+        return RestaurantSummaryDto.fromRestaurant(restaurant);
+    }
+
+    private List<MenuItemDto> loadMenu(Long restaurantId) {
+        List<Food> foods=foodRepository.findMenuWithIngredients(restaurantId);
+        if(!foods.isEmpty()){
+            foodRepository.fetchImages(foods);
+        }
+        return foods.stream().map(MenuItemDto::fromFood).collect(Collectors.toList());
+    }
+
+    private List<IngredientCategoryDto> loadIngredientCategories(Long restaurantId) {
+        return ingredientCategoryRepository.findWithIngredientsByRestaurantId(restaurantId).stream()
+                .map(IngredientCategoryDto::fromCategory).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
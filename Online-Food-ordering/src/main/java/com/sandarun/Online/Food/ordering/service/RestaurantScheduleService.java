@@ -0,0 +1,12 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+
+public interface RestaurantScheduleService {
+
+    public boolean register(Restaurant restaurant);
+
+    public void unregister(Long restaurantId);
+
+    public void updateOpenStatuses();
+}
@@ -0,0 +1,123 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import com.sandarun.Online.Food.ordering.dto.RestaurantHoursDto;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.util.OpeningSchedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class RestaurantScheduleServiceImp implements RestaurantScheduleService {
+
+    private static final int UPDATE_BATCH_SIZE = 1000;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<Long, OpeningSchedule> schedules = new ConcurrentHashMap<>();
+
+    // State the schedule had at the last tick, only a change of it flips the flag so manual
+    // open/close by the owner holds until the next boundary
+    private final Map<Long, Boolean> scheduledState = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Instant now = Instant.now();
+        for (RestaurantHoursDto hours : restaurantRepository.findOpeningHours()) {
+            OpeningSchedule schedule = OpeningSchedule.parse(hours.getOpeningHours(), hours.getTimeZone());
+            if (schedule != null) {
+                schedules.put(hours.getId(), schedule);
+                scheduledState.put(hours.getId(), hours.isOpen());
+            }
+        }
+        updateOpenStatuses();
+    }
+
+    // Compiles the restaurant's hours and sets its open flag for now, returns false when the
+    // hours can not be read and the flag stays under manual control
+    @Override
+    public boolean register(Restaurant restaurant) {
+        OpeningSchedule schedule = OpeningSchedule.parse(restaurant.getOpeningHours(), restaurant.getTimeZone());
+        if (schedule == null) {
+            unregister(restaurant.getId());
+            return false;
+        }
+        boolean open = schedule.isOpenAt(Instant.now());
+        restaurant.setOpen(open);
+        if (restaurant.getId() != null) {
+            schedules.put(restaurant.getId(), schedule);
+            scheduledState.put(restaurant.getId(), open);
+        }
+        return true;
+    }
+
+    @Override
+    public void unregister(Long restaurantId) {
+        if (restaurantId != null) {
+            schedules.remove(restaurantId);
+            scheduledState.remove(restaurantId);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "0 * * * * *")
+    public void updateOpenStatuses() {
+        Instant now = Instant.now();
+        List<Long> opening = new ArrayList<>();
+        List<Long> closing = new ArrayList<>();
+
+        for (Map.Entry<Long, OpeningSchedule> entry : schedules.entrySet()) {
+            boolean open = entry.getValue().isOpenAt(now);
+            Boolean previous = scheduledState.put(entry.getKey(), open);
+            if (previous == null || previous != open) {
+                (open ? opening : closing).add(entry.getKey());
+            }
+        }
+
+        if (opening.isEmpty() && closing.isEmpty()) {
+            return;
+        }
+        // The update skips the restaurant region, only the flipped restaurants are evicted, before and after the commit
+        evict(opening);
+        evict(closing);
+        transactionTemplate.executeWithoutResult(status -> {
+            updateInBatches(opening, true);
+            updateInBatches(closing, false);
+        });
+        evict(opening);
+        evict(closing);
+    }
+
+    private void evict(List<Long> ids) {
+        Cache cache = entityManagerFactory.getCache();
+        ids.forEach(id -> cache.evict(Restaurant.class, id));
+    }
+
+    private void updateInBatches(List<Long> ids, boolean open) {
+        Date modifiedAt = new Date();
+        for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+            restaurantRepository.updateOpenStatus(ids.subList(from, Math.min(from + UPDATE_BATCH_SIZE, ids.size())), open, modifiedAt);
+        }
+    }
+}
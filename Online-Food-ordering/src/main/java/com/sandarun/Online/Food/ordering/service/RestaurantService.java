@@ -1,31 +1,43 @@
 package com.sandarun.Online.Food.ordering.service;
 
 import com.sandarun.Online.Food.ordering.dto.RestaurantDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.CreateRestaurantRequest;
+import com.sandarun.Online.Food.ordering.response.RestaurantDeletionStatus;
 
 import java.util.List;
 
 public interface RestaurantService {
 
-    public Restaurant createRestaurant(CreateRestaurantRequest req, User user);
+    public RestaurantSummaryDto createRestaurant(CreateRestaurantRequest req, User user);
 
-    public Restaurant updateRestaurant(Long restaurantId,CreateRestaurantRequest updateRestaurantRequest) throws  Exception;
+    public RestaurantSummaryDto updateRestaurant(Long restaurantId,CreateRestaurantRequest updateRestaurantRequest) throws  Exception;
 
-    public void deleteRestaurant(Long restaurantId)throws Exception;
+    public RestaurantDeletionStatus deleteRestaurant(Long restaurantId)throws Exception;
 
-    public List<Restaurant> getAllRestaurant();
+    public RestaurantDeletionStatus getDeletionStatus(Long restaurantId)throws Exception;
 
-    public List<Restaurant> searchRestaurant(String keyword);
+    public List<RestaurantSummaryDto> getAllRestaurant();
+
+    public List<RestaurantSummaryDto> getOpenRestaurants();
+
+    public List<RestaurantSummaryDto> searchRestaurant(String keyword);
 
     public Restaurant findRestaurantById(Long restaurantId)throws Exception;
 
+    public RestaurantSummaryDto findRestaurantDetailById(Long restaurantId)throws Exception;
+
     public Restaurant findRestaurantByUserId(Long userId)throws Exception;
 
+    public RestaurantSummaryDto getRestaurantByUserId(Long userId)throws Exception;
+
     public RestaurantDto addToFavorites(Long restaurantId,User user)throws Exception;
 
-    public Restaurant updateRestaurantStatus(Long id)throws Exception;
+    public List<RestaurantDto> getFavorites(Long userId);
+
+    public RestaurantSummaryDto updateRestaurantStatus(Long id)throws Exception;
 
 
 }
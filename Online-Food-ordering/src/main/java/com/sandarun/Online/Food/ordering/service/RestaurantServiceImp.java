@@ -1,19 +1,25 @@
 package com.sandarun.Online.Food.ordering.service;
 
 import com.sandarun.Online.Food.ordering.dto.RestaurantDto;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
 import com.sandarun.Online.Food.ordering.model.Address;
 import com.sandarun.Online.Food.ordering.model.Restaurant;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.repository.AddressRepository;
+import com.sandarun.Online.Food.ordering.repository.FavoriteRepository;
 import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
 import com.sandarun.Online.Food.ordering.repository.UserRepository;
 import com.sandarun.Online.Food.ordering.request.CreateRestaurantRequest;
+import com.sandarun.Online.Food.ordering.response.RestaurantDeletionStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 public class RestaurantServiceImp implements RestaurantService {
@@ -27,8 +33,24 @@ public class RestaurantServiceImp implements RestaurantService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private RestaurantScheduleService restaurantScheduleService;
+
+    @Autowired
+    private RestaurantGeoService restaurantGeoService;
+
+    @Autowired
+    private RestaurantDeletionService restaurantDeletionService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
     @Override
-    public Restaurant createRestaurant(CreateRestaurantRequest req, User user) {
+    @Transactional
+    public RestaurantSummaryDto createRestaurant(CreateRestaurantRequest req, User user) {
 
         Address address=addressRepository.save(req.getAddress());
 
@@ -40,14 +62,21 @@ public class RestaurantServiceImp implements RestaurantService {
         restaurant.setDescription(req.getDescription());
         restaurant.setImages(req.getImages());
         restaurant.setOpeningHours(req.getOpeningHours());
+        restaurant.setTimeZone(req.getTimeZone());
         restaurant.setRegistrationDate(LocalDateTime.now());
         restaurant.setOwner(user);
 
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant=restaurantRepository.save(restaurant);
+        if(restaurantScheduleService.register(savedRestaurant)){
+            savedRestaurant=restaurantRepository.save(savedRestaurant);
+        }
+        restaurantGeoService.index(savedRestaurant);
+        return RestaurantSummaryDto.fromRestaurant(savedRestaurant);
     }
 
     @Override
-    public Restaurant updateRestaurant(Long restaurantId, CreateRestaurantRequest updateRestaurant) throws Exception {
+    @Transactional
+    public RestaurantSummaryDto updateRestaurant(Long restaurantId, CreateRestaurantRequest updateRestaurant) throws Exception {
         Restaurant restaurant=findRestaurantById(restaurantId);
 
         if(restaurant.getCuisineType()!=null){
@@ -62,26 +91,65 @@ public class RestaurantServiceImp implements RestaurantService {
         if(restaurant.getName()!=null){
             restaurant.setName(updateRestaurant.getName());
         }
-        return  restaurantRepository.save(restaurant);
+        if(updateRestaurant.getOpeningHours()!=null || updateRestaurant.getTimeZone()!=null){
+            if(updateRestaurant.getOpeningHours()!=null){
+                restaurant.setOpeningHours(updateRestaurant.getOpeningHours());
+            }
+            if(updateRestaurant.getTimeZone()!=null){
+                restaurant.setTimeZone(updateRestaurant.getTimeZone());
+            }
+            restaurantScheduleService.register(restaurant);
+        }
+        if(updateRestaurant.getAddress()!=null){
+            Address address=restaurant.getAddress()!=null?restaurant.getAddress():new Address();
+            Address req=updateRestaurant.getAddress();
+            address.setStreet(req.getStreet());
+            address.setCity(req.getCity());
+            address.setState(req.getState());
+            address.setPostalCode(req.getPostalCode());
+            address.setCountry(req.getCountry());
+            address.setLatitude(req.getLatitude());
+            address.setLongitude(req.getLongitude());
+            restaurant.setAddress(address);
+        }
+        Restaurant savedRestaurant=restaurantRepository.save(restaurant);
+        restaurantGeoService.index(savedRestaurant);
+        catalogVersionService.bump(restaurantId);
+        return RestaurantSummaryDto.fromRestaurant(savedRestaurant);
     }
 
     @Override
-    public void deleteRestaurant(Long restaurantId) throws Exception {
-
-        Restaurant restaurant=findRestaurantById(restaurantId);
+    public RestaurantDeletionStatus deleteRestaurant(Long restaurantId) throws Exception {
+        RestaurantDeletionStatus status=restaurantDeletionService.startDeletion(restaurantId);
+        catalogVersionService.bump(restaurantId);
+        return status;
+    }
 
-        restaurantRepository.delete(restaurant);
+    @Override
+    public RestaurantDeletionStatus getDeletionStatus(Long restaurantId) throws Exception {
+        return restaurantDeletionService.getStatus(restaurantId);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<RestaurantSummaryDto> getAllRestaurant() {
+        return toSummaries(restaurantRepository.findByDeletingFalse());
     }
 
     @Override
-    public List<Restaurant> getAllRestaurant() {
-        return restaurantRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<RestaurantSummaryDto> getOpenRestaurants() {
+        return toSummaries(restaurantRepository.findByOpenTrueAndDeletingFalse());
     }
 
     @Override
-    public List<Restaurant> searchRestaurant(String keyword) {
-        return restaurantRepository.findBySearchQuery(keyword);
+    @Transactional(readOnly = true)
+    public List<RestaurantSummaryDto> searchRestaurant(String keyword) {
+        return toSummaries(restaurantRepository.findBySearchQuery(keyword));
+    }
+
+    private List<RestaurantSummaryDto> toSummaries(List<Restaurant> restaurants) {
+        return restaurants.stream().map(RestaurantSummaryDto::fromRestaurant).collect(Collectors.toList());
     }
 
     @Override
@@ -91,9 +159,25 @@ public class RestaurantServiceImp implements RestaurantService {
         if(opt.isEmpty()){
             throw new Exception("Restaurant not found with id: "+restaurantId);
         }
+        // Writes through here could reopen or re-index a restaurant, or add rows its purge has already passed
+        if(opt.get().isDeleting()){
+            throw new Exception("Restaurant is being deleted: "+restaurantId);
+        }
         return opt.get();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public RestaurantSummaryDto findRestaurantDetailById(Long restaurantId) throws Exception {
+        // Address and images in one query, for the detail view
+        Optional<Restaurant> opt=restaurantRepository.findDetailByIdAndDeletingFalse(restaurantId);
+
+        if(opt.isEmpty()){
+            throw new Exception("Restaurant not found with id: "+restaurantId);
+        }
+        return RestaurantSummaryDto.fromRestaurant(opt.get());
+    }
+
     @Override
     public Restaurant findRestaurantByUserId(Long userId) throws Exception {
 
@@ -108,37 +192,47 @@ public class RestaurantServiceImp implements RestaurantService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public RestaurantSummaryDto getRestaurantByUserId(Long userId) throws Exception {
+        return RestaurantSummaryDto.fromRestaurant(findRestaurantByUserId(userId));
+    }
+
+    @Override
+    @Transactional
     public RestaurantDto addToFavorites(Long restaurantId, User user) throws Exception {
         Restaurant restaurant=findRestaurantById(restaurantId);
 
+        // Toggle with a single DELETE, or a single INSERT when nothing was removed
+        if(favoriteRepository.deleteFavorite(user.getId(), restaurantId)==0){
+            favoriteRepository.insertFavorite(user.getId(), restaurantId);
+        }
+        return toRestaurantDto(restaurant);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RestaurantDto> getFavorites(Long userId) {
+        return favoriteRepository.findFavoriteRestaurants(userId).stream()
+                .map(this::toRestaurantDto)
+                .collect(Collectors.toList());
+    }
+
+    private RestaurantDto toRestaurantDto(Restaurant restaurant) {
         RestaurantDto restaurantDto=new RestaurantDto();
         restaurantDto.setDescription(restaurant.getDescription());
-        restaurantDto.setImages(restaurant.getImages());
+        restaurantDto.setImages(restaurant.getImages()==null?null:new ArrayList<>(restaurant.getImages()));
         restaurantDto.setTitle(restaurant.getName());
-        restaurantDto.setId(restaurantId);
-
-        boolean isFavorited=false;
-        List<RestaurantDto> favorites=user.getFavorites();
-        for(RestaurantDto r:favorites){
-            if(r.getId().equals(restaurantId)){
-                isFavorited=true;
-                break;
-            }
-        }
-        if(isFavorited){
-            favorites.removeIf(favorite -> favorite.getId().equals(restaurantId));
-        }else{
-            favorites.add(restaurantDto);
-        }
-
-        userRepository.save(user);
+        restaurantDto.setId(restaurant.getId());
         return restaurantDto;
     }
 
     @Override
-    public Restaurant updateRestaurantStatus(Long id) throws Exception {
+    @Transactional
+    public RestaurantSummaryDto updateRestaurantStatus(Long id) throws Exception {
         Restaurant restaurant=findRestaurantById(id);
         restaurant.setOpen(!restaurant.isOpen());
-        return restaurantRepository.save(restaurant);
+        Restaurant savedRestaurant=restaurantRepository.save(restaurant);
+        catalogVersionService.bump(id);
+        return RestaurantSummaryDto.fromRestaurant(savedRestaurant);
     }
 }
@@ -0,0 +1,10 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.Date;
+
+public interface ScheduledOrderService {
+
+    public void schedule(Long orderId,Date releaseAt);
+
+    public void releaseDueOrders();
+}
@@ -0,0 +1,113 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sandarun.Online.Food.ordering.config.ShardTemplate;
+import com.sandarun.Online.Food.ordering.dto.ScheduledOrderDto;
+import com.sandarun.Online.Food.ordering.repository.OrderRepository;
+import com.sandarun.Online.Food.ordering.util.TimingWheel;
+
+@Service
+public class ScheduledOrderServiceImp implements ScheduledOrderService{
+
+    private static final Logger log=LoggerFactory.getLogger(ScheduledOrderServiceImp.class);
+
+    private static final int RELEASE_BATCH_SIZE=500;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShardTemplate shardTemplate;
+
+    // One second ticks, 60 slots per level: seconds, minutes, hours, then 2.5 day slots
+    private final TimingWheel<Long> wheel=new TimingWheel<>(1000, 60, System.currentTimeMillis());
+
+    // Orders that were already due when their checkout committed or whose release failed, released on the next tick
+    private final Queue<Long> overdue=new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        List<Long> due=new ArrayList<>();
+        for(List<ScheduledOrderDto> orders:shardTemplate.executeOnEveryShard(true, ()->orderRepository.findScheduledOrders())){
+            for(ScheduledOrderDto order:orders){
+                if(!wheel.add(order.getId(), order.getReleaseAt().getTime())){
+                    due.add(order.getId());
+                }
+            }
+        }
+        release(due);
+    }
+
+    @Override
+    public void schedule(Long orderId, Date releaseAt) {
+
+        // A rolled back checkout must not leave its orders in the wheel
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // The committed transaction is still bound here, the release waits for the tick instead of joining it
+                    if(!wheel.add(orderId, releaseAt.getTime())){
+                        overdue.add(orderId);
+                    }
+                }
+            });
+            return;
+        }
+        if(!wheel.add(orderId, releaseAt.getTime())){
+            List<Long> due=new ArrayList<>();
+            due.add(orderId);
+            release(due);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedRate = 1000)
+    public void releaseDueOrders() {
+        List<Long> due=wheel.advanceClock(System.currentTimeMillis());
+        for(Long orderId=overdue.poll();orderId!=null;orderId=overdue.poll()){
+            due.add(orderId);
+        }
+        release(due);
+    }
+
+    // Released by primary key on the shard the id names, cancelled orders are simply not matched
+    private void release(List<Long> orderIds) {
+
+        Map<Integer,List<Long>> idsByShard=new LinkedHashMap<>();
+        for(Long orderId:orderIds){
+            idsByShard.computeIfAbsent(shardTemplate.shardOfId(orderId), shard->new ArrayList<>()).add(orderId);
+        }
+        for(Map.Entry<Integer,List<Long>> entry:idsByShard.entrySet()){
+            List<Long> ids=entry.getValue();
+            for(int from=0;from<ids.size();from+=RELEASE_BATCH_SIZE){
+                List<Long> batch=ids.subList(from, Math.min(from+RELEASE_BATCH_SIZE, ids.size()));
+                try{
+                    shardTemplate.execute(entry.getKey(), false, ()->orderRepository.releaseScheduledOrders(batch));
+                }catch(RuntimeException e){
+                    // The ids already left the wheel, the next tick tries them again
+                    log.warn("Could not release {} scheduled orders on shard {}, retrying: {}", batch.size(), entry.getKey(), e.getMessage());
+                    overdue.addAll(batch);
+                }
+            }
+        }
+    }
+}
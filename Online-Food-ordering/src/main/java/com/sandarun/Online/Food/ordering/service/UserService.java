@@ -1,5 +1,6 @@
 package com.sandarun.Online.Food.ordering.service;
 
+import com.sandarun.Online.Food.ordering.dto.UserDto;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.request.UpdateUserRequest;
 
@@ -8,8 +9,10 @@ public interface UserService {
     public User findUserByJwtToken(String jwt) throws Exception;
 
     public User findUserByEmail(String email) throws Exception;
+
+    public UserDto getUserProfile(String jwt) throws Exception;
     
-    public User updateUser(Long userId, UpdateUserRequest request) throws Exception;
+    public UserDto updateUser(Long userId, UpdateUserRequest request) throws Exception;
 
 
 
@@ -1,13 +1,16 @@
 package com.sandarun.Online.Food.ordering.service;
 
 import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.dto.UserDto;
 import com.sandarun.Online.Food.ordering.model.Address;
 import com.sandarun.Online.Food.ordering.model.User;
 import com.sandarun.Online.Food.ordering.repository.AddressRepository;
 import com.sandarun.Online.Food.ordering.repository.UserRepository;
 import com.sandarun.Online.Food.ordering.request.UpdateUserRequest;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserServiceImp implements  UserService{
@@ -22,6 +25,7 @@ public class UserServiceImp implements  UserService{
     private JwtProvider jwtProvider;
 
     @Override
+    @Timed(value = "service.method", histogram = true)
     public User findUserByJwtToken(String jwt) throws Exception {
         String email=jwtProvider.getEmailFromJwtToken(jwt);
         User user=findUserByEmail(email);
@@ -39,7 +43,14 @@ public class UserServiceImp implements  UserService{
     }
 
     @Override
-    public User updateUser(Long userId, UpdateUserRequest request) throws Exception {
+    @Transactional(readOnly = true)
+    public UserDto getUserProfile(String jwt) throws Exception {
+        return UserDto.fromUser(findUserByJwtToken(jwt));
+    }
+
+    @Override
+    @Transactional
+    public UserDto updateUser(Long userId, UpdateUserRequest request) throws Exception {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new Exception("User not found"));
         
@@ -64,7 +75,7 @@ public class UserServiceImp implements  UserService{
         }
 
         
-        return userRepository.save(user);
+        return UserDto.fromUser(userRepository.save(user));
     }
 
 }
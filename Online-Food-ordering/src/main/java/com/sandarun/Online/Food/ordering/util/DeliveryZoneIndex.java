@@ -0,0 +1,195 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Delivery zone polygons registered in the grid cells their bounding box overlaps. A lookup only
+// runs the point-in-polygon test for zones in the point's cell whose box contains the point.
+public class DeliveryZoneIndex {
+
+    private final double cellDegrees;
+    private final Map<Long, List<Zone>> cells = new HashMap<>();
+    private final Map<Long, Zone> zones = new HashMap<>();
+    private final Map<Long, List<Zone>> zonesByRestaurant = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static final class Zone {
+        private final long id;
+        private final long restaurantId;
+        private final long fee;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double minLat;
+        private final double maxLat;
+        private final double minLon;
+        private final double maxLon;
+
+        public Zone(long id, long restaurantId, long fee, double[] latitudes, double[] longitudes) {
+            this.id = id;
+            this.restaurantId = restaurantId;
+            this.fee = fee;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+            double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE, minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+            for (int i = 0; i < latitudes.length; i++) {
+                minLat = Math.min(minLat, latitudes[i]);
+                maxLat = Math.max(maxLat, latitudes[i]);
+                minLon = Math.min(minLon, longitudes[i]);
+                maxLon = Math.max(maxLon, longitudes[i]);
+            }
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getRestaurantId() {
+            return restaurantId;
+        }
+
+        public long getFee() {
+            return fee;
+        }
+
+        public boolean contains(double latitude, double longitude) {
+            if (latitude < minLat || latitude > maxLat || longitude < minLon || longitude > maxLon) {
+                return false;
+            }
+            // Ray casting: count the edges crossed by a ray going east from the point
+            boolean inside = false;
+            for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+                if ((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                        && longitude < (longitudes[j] - longitudes[i]) * (latitude - latitudes[i]) / (latitudes[j] - latitudes[i]) + longitudes[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    public DeliveryZoneIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    public void put(Zone zone) {
+        lock.writeLock().lock();
+        try {
+            removeZone(zone.id);
+            zones.put(zone.id, zone);
+            zonesByRestaurant.computeIfAbsent(zone.restaurantId, id -> new ArrayList<>()).add(zone);
+            forEachCell(zone, key -> cells.computeIfAbsent(key, k -> new ArrayList<>()).add(zone));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long zoneId) {
+        lock.writeLock().lock();
+        try {
+            removeZone(zoneId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeRestaurant(long restaurantId) {
+        lock.writeLock().lock();
+        try {
+            List<Zone> restaurantZones = zonesByRestaurant.get(restaurantId);
+            if (restaurantZones != null) {
+                for (Zone zone : new ArrayList<>(restaurantZones)) {
+                    removeZone(zone.id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean hasZones(long restaurantId) {
+        lock.readLock().lock();
+        try {
+            return zonesByRestaurant.containsKey(restaurantId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every zone containing the point, across all restaurants
+    public List<Zone> zonesAt(double latitude, double longitude) {
+        List<Zone> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Zone> candidates = cells.get(cellKey(cell(latitude), cell(longitude)));
+            if (candidates != null) {
+                for (Zone zone : candidates) {
+                    if (zone.contains(latitude, longitude)) {
+                        matches.add(zone);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    // Cheapest zone of the restaurant containing the point, or null when it does not deliver there
+    public Zone cheapestZone(long restaurantId, double latitude, double longitude) {
+        Zone best = null;
+        for (Zone zone : zonesAt(latitude, longitude)) {
+            if (zone.restaurantId == restaurantId && (best == null || zone.fee < best.fee)) {
+                best = zone;
+            }
+        }
+        return best;
+    }
+
+    private void removeZone(long zoneId) {
+        Zone previous = zones.remove(zoneId);
+        if (previous == null) {
+            return;
+        }
+        List<Zone> restaurantZones = zonesByRestaurant.get(previous.restaurantId);
+        if (restaurantZones != null) {
+            restaurantZones.remove(previous);
+            if (restaurantZones.isEmpty()) {
+                zonesByRestaurant.remove(previous.restaurantId);
+            }
+        }
+        forEachCell(previous, key -> {
+            List<Zone> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(previous);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        });
+    }
+
+    private void forEachCell(Zone zone, LongConsumer action) {
+        for (long row = cell(zone.minLat); row <= cell(zone.maxLat); row++) {
+            for (long column = cell(zone.minLon); column <= cell(zone.maxLon); column++) {
+                action.accept(cellKey(row, column));
+            }
+        }
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor((degrees + 180) / cellDegrees);
+    }
+
+    private long cellKey(long row, long column) {
+        return row * 1_000_000L + column;
+    }
+}
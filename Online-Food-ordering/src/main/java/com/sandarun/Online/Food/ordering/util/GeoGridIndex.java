@@ -0,0 +1,161 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory grid of points bucketed by latitude/longitude cells. A radius query only visits the
+// cells overlapping the search box instead of every point.
+public class GeoGridIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final Map<Long, List<Point>> cells = new HashMap<>();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public record Point(long id, double latitude, double longitude) {
+    }
+
+    public record Match(long id, double distanceKm) {
+    }
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees) + 1;
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public void put(long id, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            removePoint(id);
+            Point point = new Point(id, latitude, longitude);
+            points.put(id, point);
+            cells.computeIfAbsent(cellKey(row(latitude), column(longitude)), key -> new ArrayList<>()).add(point);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removePoint(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Points within radiusKm, nearest first
+    public List<Match> withinRadius(double latitude, double longitude, double radiusKm, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        List<Match> matches = new ArrayList<>();
+
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latDelta)));
+        double lonDelta = radiusKm / (KM_PER_DEGREE * cos);
+
+        int fromRow = row(Math.max(-90, latitude - latDelta));
+        int toRow = row(Math.min(90, latitude + latDelta));
+        int fromColumn = columnUnwrapped(longitude - lonDelta);
+        int toColumn = columnUnwrapped(longitude + lonDelta);
+        if (lonDelta >= 180 || toColumn - fromColumn >= columns) {
+            fromColumn = 0;
+            toColumn = columns - 1;
+        }
+
+        lock.readLock().lock();
+        try {
+            for (int row = fromRow; row <= toRow; row++) {
+                for (int column = fromColumn; column <= toColumn; column++) {
+                    List<Point> cell = cells.get(cellKey(row, Math.floorMod(column, columns)));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (Point point : cell) {
+                        double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                        if (distance <= radiusKm) {
+                            matches.add(new Match(point.id(), distance));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // k nearest points, searching outwards by doubling the radius up to maxRadiusKm
+    public List<Match> nearest(double latitude, double longitude, int k, double maxRadiusKm) {
+        double radius = Math.min(1, maxRadiusKm);
+        while (true) {
+            List<Match> matches = withinRadius(latitude, longitude, radius, k);
+            if (matches.size() >= k || radius >= maxRadiusKm) {
+                return matches;
+            }
+            radius = Math.min(radius * 2, maxRadiusKm);
+        }
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void removePoint(long id) {
+        Point previous = points.remove(id);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(row(previous.latitude()), column(previous.longitude()));
+        List<Point> cell = cells.get(key);
+        if (cell != null) {
+            cell.removeIf(point -> point.id() == id);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod(columnUnwrapped(longitude), columns);
+    }
+
+    private int columnUnwrapped(double longitude) {
+        return (int) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+}
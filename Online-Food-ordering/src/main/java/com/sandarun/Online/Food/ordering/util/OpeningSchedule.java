@@ -0,0 +1,241 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Weekly opening hours compiled from Restaurant.openingHours into one bit per minute of the week,
+// so "open at" is a holiday lookup plus a single bit test.
+public class OpeningSchedule {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private static final Pattern TIME_RANGE = Pattern.compile(
+            "(\\d{1,2})(?:[:.](\\d{2}))?\\s*([ap]\\.?m\\.?)?\\s*(?:-|–|to)\\s*(\\d{1,2})(?:[:.](\\d{2}))?\\s*([ap]\\.?m\\.?)?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final String[] DAY_NAMES = {"mon", "tue", "wed", "thu", "fri", "sat", "sun"};
+
+    private final BitSet openMinutes = new BitSet(MINUTES_PER_WEEK);
+    private final Set<LocalDate> holidays = new HashSet<>();
+    // Past-midnight close minute per day, applied once every segment has cleared the days it names
+    private final int[] spills = new int[7];
+    private final ZoneId zone;
+
+    private OpeningSchedule(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public boolean isOpenAt(Instant instant) {
+        ZonedDateTime time = instant.atZone(zone);
+        if (holidays.contains(time.toLocalDate())) {
+            return false;
+        }
+        int minute = (time.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY + time.getHour() * 60 + time.getMinute();
+        return openMinutes.get(minute);
+    }
+
+    // Understands segments separated by ';' or new lines, e.g.
+    // "Mon-Fri: 9:00AM - 9:00PM; Sat, Sun 10:00-14:00, 17:00-23:30; Holidays: 2026-12-25"
+    // Returns null when nothing in the text can be read as opening hours.
+    public static OpeningSchedule parse(String openingHours, String timeZone) {
+        if (openingHours == null || openingHours.isBlank()) {
+            return null;
+        }
+
+        OpeningSchedule schedule = new OpeningSchedule(resolveZone(timeZone));
+        boolean parsed = false;
+
+        for (String segment : openingHours.split("[;\\n|]")) {
+            String text = segment.trim().toLowerCase();
+            if (text.isEmpty()) {
+                continue;
+            }
+
+            if (text.startsWith("holiday") || (text.startsWith("closed") && DATE.matcher(text).find())) {
+                Matcher dates = DATE.matcher(text);
+                while (dates.find()) {
+                    try {
+                        schedule.holidays.add(LocalDate.parse(dates.group()));
+                        parsed = true;
+                    } catch (DateTimeException e) {
+                        // skip dates that do not exist
+                    }
+                }
+                continue;
+            }
+
+            Matcher ranges = TIME_RANGE.matcher(text);
+            boolean hasRange = ranges.find();
+            String dayText = hasRange ? text.substring(0, ranges.start()) : text;
+            boolean[] days = parseDays(dayText.replace("closed", "").replace("24/7", "").replace("24 hours", ""));
+            if (days == null) {
+                continue;
+            }
+
+            // Later segments win for the days they name, so "Mon-Sun 9-21; Sun closed" works
+            for (int day = 0; day < 7; day++) {
+                if (days[day]) {
+                    schedule.openMinutes.clear(day * MINUTES_PER_DAY, (day + 1) * MINUTES_PER_DAY);
+                    schedule.spills[day] = 0;
+                }
+            }
+            parsed = true;
+
+            if (text.contains("24/7") || text.contains("24 hours")) {
+                for (int day = 0; day < 7; day++) {
+                    if (days[day]) {
+                        schedule.openMinutes.set(day * MINUTES_PER_DAY, (day + 1) * MINUTES_PER_DAY);
+                    }
+                }
+                continue;
+            }
+
+            while (hasRange) {
+                String openMeridiem = ranges.group(3);
+                String closeMeridiem = ranges.group(6);
+                int open = toMinute(ranges.group(1), ranges.group(2), meridiem(openMeridiem, closeMeridiem));
+                int close = toMinute(ranges.group(4), ranges.group(5), meridiem(closeMeridiem, openMeridiem));
+                // A borrowed meridiem only holds while the range stays in order, "11-2pm" is 11am to 2pm
+                if (open > close && close >= 0 && (openMeridiem == null) != (closeMeridiem == null)) {
+                    if (openMeridiem == null) {
+                        open = toMinute(ranges.group(1), ranges.group(2), opposite(closeMeridiem));
+                    } else {
+                        close = toMinute(ranges.group(4), ranges.group(5), opposite(openMeridiem));
+                    }
+                }
+                if (open >= 0 && close >= 0) {
+                    for (int day = 0; day < 7; day++) {
+                        if (days[day]) {
+                            schedule.setRange(day, open, close);
+                        }
+                    }
+                }
+                hasRange = ranges.find();
+            }
+        }
+
+        if (!parsed) {
+            return null;
+        }
+        schedule.applySpills();
+        return schedule;
+    }
+
+    private void setRange(int day, int open, int close) {
+        int start = day * MINUTES_PER_DAY + open;
+        if (close > open) {
+            openMinutes.set(start, day * MINUTES_PER_DAY + close);
+            return;
+        }
+        // Past midnight: the rest of the night spills into the next day once parsing is done,
+        // so a later segment naming that day does not clear it
+        openMinutes.set(start, (day + 1) * MINUTES_PER_DAY);
+        spills[day] = Math.max(spills[day], close);
+    }
+
+    // Sunday wraps to Monday
+    private void applySpills() {
+        for (int day = 0; day < 7; day++) {
+            int next = (day + 1) % 7;
+            openMinutes.set(next * MINUTES_PER_DAY, next * MINUTES_PER_DAY + spills[day]);
+        }
+    }
+
+    private static boolean[] parseDays(String text) {
+        String days = text.replace(":", " ").trim();
+        boolean[] result = new boolean[7];
+
+        if (days.isEmpty() || days.startsWith("daily") || days.startsWith("every")) {
+            Arrays.fill(result, true);
+            return result;
+        }
+        if (days.startsWith("weekday")) {
+            Arrays.fill(result, 0, 5, true);
+            return result;
+        }
+        if (days.startsWith("weekend")) {
+            result[5] = true;
+            result[6] = true;
+            return result;
+        }
+
+        boolean any = false;
+        for (String token : days.split("\\s*(?:,|&|\\band\\b)\\s*")) {
+            String[] bounds = token.trim().split("\\s*(?:-|–|to)\\s*");
+            int from = dayIndex(bounds[0]);
+            int to = bounds.length > 1 ? dayIndex(bounds[1]) : from;
+            if (from < 0 || to < 0) {
+                continue;
+            }
+            for (int day = from; ; day = (day + 1) % 7) {
+                result[day] = true;
+                if (day == to) {
+                    break;
+                }
+            }
+            any = true;
+        }
+        return any ? result : null;
+    }
+
+    private static int dayIndex(String token) {
+        String name = token.trim();
+        for (int i = 0; i < DAY_NAMES.length; i++) {
+            if (name.startsWith(DAY_NAMES[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String meridiem(String own, String other) {
+        return own != null ? own : other;
+    }
+
+    private static String opposite(String meridiem) {
+        return meridiem.startsWith("p") ? "am" : "pm";
+    }
+
+    private static int toMinute(String hourText, String minuteText, String meridiem) {
+        int hour = Integer.parseInt(hourText);
+        int minute = minuteText == null ? 0 : Integer.parseInt(minuteText);
+        if (meridiem != null) {
+            if (hour < 1 || hour > 12) {
+                return -1;
+            }
+            hour = hour % 12 + (meridiem.startsWith("p") ? 12 : 0);
+        }
+        if (hour == 24 && minute == 0) {
+            return MINUTES_PER_DAY;
+        }
+        if (hour > 23 || minute > 59) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    private static ZoneId resolveZone(String timeZone) {
+        if (timeZone != null && !timeZone.isBlank()) {
+            try {
+                return ZoneId.of(timeZone);
+            } catch (DateTimeException e) {
+                // fall back to the server zone
+            }
+        }
+        return ZoneId.systemDefault();
+    }
+}
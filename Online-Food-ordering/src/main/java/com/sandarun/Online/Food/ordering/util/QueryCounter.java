@@ -0,0 +1,149 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-thread statement and entity load counts for the request being served.
+ * Counting only happens between start and stop, other threads pay a null check.
+ * Work the request hands to a pool counts towards it when wrapped with propagate.
+ * With shape tracking on, a statement shape repeated up to the threshold within
+ * one request is kept as a suspected N+1 together with the code that issued it.
+ */
+public final class QueryCounter {
+
+    private static final String APP_PACKAGE="com.sandarun.Online.Food.ordering.";
+
+    public record Suspect(String shape, int executions, String callSite) {
+    }
+
+    public static final class Counts {
+        private long statements;
+        private long entityLoads;
+        private final Map<String,Integer> shapes=new LinkedHashMap<>();
+        private final Map<String,String> callSites=new LinkedHashMap<>();
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+
+        public Map<String,Integer> getShapes() {
+            return shapes;
+        }
+
+        public List<Suspect> getSuspects() {
+            List<Suspect> suspects=new ArrayList<>();
+            callSites.forEach((shape,callSite)->suspects.add(new Suspect(shape, shapes.get(shape), callSite)));
+            return suspects;
+        }
+    }
+
+    private static final ThreadLocal<Counts> CURRENT=new ThreadLocal<>();
+
+    // 0 keeps shape tracking off, the fingerprinting is the only part with a real cost
+    private static volatile int repeatThreshold;
+
+    private QueryCounter() {
+    }
+
+    public static void trackRepeatedShapes(int threshold) {
+        repeatThreshold=Math.max(threshold, 0);
+    }
+
+    // Returns false when a caller further out is already counting, only the owner stops it
+    public static boolean start() {
+        if(CURRENT.get()!=null){
+            return false;
+        }
+        CURRENT.set(new Counts());
+        return true;
+    }
+
+    // Puts counts stopped on one thread back on the thread the request continues on
+    public static boolean resume(Counts counts) {
+        if(CURRENT.get()!=null){
+            return false;
+        }
+        CURRENT.set(counts);
+        return true;
+    }
+
+    public static Counts current() {
+        return CURRENT.get();
+    }
+
+    // Runs the task under the caller's counts, so statements it issues on a pool thread are counted too
+    public static Runnable propagate(Runnable task) {
+        Counts counts=CURRENT.get();
+        if(counts==null){
+            return task;
+        }
+        return () -> {
+            CURRENT.set(counts);
+            try{
+                task.run();
+            }finally{
+                CURRENT.remove();
+            }
+        };
+    }
+
+    public static Counts stop() {
+        Counts counts=CURRENT.get();
+        CURRENT.remove();
+        return counts;
+    }
+
+    public static void statementPrepared(String sql) {
+        Counts counts=CURRENT.get();
+        if(counts==null){
+            return;
+        }
+        int threshold=repeatThreshold;
+        String shape=threshold>0?RequestProfile.fingerprint(sql):null;
+        // Propagated counts are shared with pool threads
+        synchronized(counts){
+            counts.statements++;
+            if(shape!=null){
+                int seen=counts.shapes.merge(shape, 1, Integer::sum);
+                if(seen==threshold){
+                    counts.callSites.put(shape, callSite());
+                }
+            }
+        }
+    }
+
+    public static void entityLoaded() {
+        Counts counts=CURRENT.get();
+        if(counts!=null){
+            synchronized(counts){
+                counts.entityLoads++;
+            }
+        }
+    }
+
+    // Lazy loads fired by Jackson happen after the controller returned, there is no code of ours to blame
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames->{
+            for(StackWalker.StackFrame frame:(Iterable<StackWalker.StackFrame>) frames::iterator){
+                String className=frame.getClassName();
+                if(className.startsWith("com.fasterxml.jackson.")){
+                    return "lazy load during JSON serialization";
+                }
+                if(className.startsWith(APP_PACKAGE)
+                        && !className.startsWith(APP_PACKAGE+"util.")
+                        && !className.startsWith(APP_PACKAGE+"config.")
+                        && !className.contains("$$")){
+                    return className+"."+frame.getMethodName()+":"+frame.getLineNumber();
+                }
+            }
+            return "unknown";
+        });
+    }
+}
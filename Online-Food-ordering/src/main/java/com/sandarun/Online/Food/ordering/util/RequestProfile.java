@@ -0,0 +1,123 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Phase timings and statement fingerprints for one profiled request. Lives on the
+ * request thread between start and stop, the static hooks do nothing outside that.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT=new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL=Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL=Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST=Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE=Pattern.compile("\\s+");
+
+    private final long startedAt=System.nanoTime();
+    private final Map<String,Long> phaseNanos=new LinkedHashMap<>();
+    private final Map<String,Integer> fingerprints=new LinkedHashMap<>();
+    private int statements;
+    private long statementNanos;
+    private int serviceDepth;
+    private boolean headerWritten;
+
+    private RequestProfile() {
+    }
+
+    public static RequestProfile start() {
+        RequestProfile profile=new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public static void record(String phase, long startNanos) {
+        RequestProfile profile=CURRENT.get();
+        if(profile!=null){
+            profile.addPhase(phase, System.nanoTime()-startNanos);
+        }
+    }
+
+    public static void statementPrepared(String sql) {
+        RequestProfile profile=CURRENT.get();
+        if(profile!=null){
+            profile.statements++;
+            profile.fingerprints.merge(fingerprint(sql), 1, Integer::sum);
+        }
+    }
+
+    public static void statementExecuted(long nanos) {
+        RequestProfile profile=CURRENT.get();
+        if(profile!=null){
+            profile.statementNanos+=nanos;
+        }
+    }
+
+    // Literals and IN lists collapse so the same query shape always maps to one key
+    public static String fingerprint(String sql) {
+        String shape=STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape=NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape=IN_LIST.matcher(shape).replaceAll("(...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public void addPhase(String phase, long nanos) {
+        phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    // Only the outermost service call is timed so nested calls are not counted twice
+    public boolean enterService() {
+        return serviceDepth++==0;
+    }
+
+    public void exitService() {
+        serviceDepth--;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime()-startedAt)/1_000_000;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Map<String,Integer> getFingerprints() {
+        return fingerprints;
+    }
+
+    public boolean isHeaderWritten() {
+        return headerWritten;
+    }
+
+    public String serverTiming() {
+        headerWritten=true;
+        StringBuilder header=new StringBuilder();
+        phaseNanos.forEach((phase,nanos)->append(header, phase, nanos, null));
+        append(header, "db", statementNanos, statements+" statements");
+        append(header, "total", System.nanoTime()-startedAt, null);
+        return header.toString();
+    }
+
+    private static void append(StringBuilder header, String name, long nanos, String description) {
+        if(header.length()>0){
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos/1_000_000.0));
+        if(description!=null){
+            header.append(";desc=\"").append(description).append('"');
+        }
+    }
+}
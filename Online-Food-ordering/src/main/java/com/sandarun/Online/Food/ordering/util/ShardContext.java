@@ -0,0 +1,52 @@
+package com.sandarun.Online.Food.ordering.util;
+
+/**
+ * Shard the current thread's transactions run against, and the arithmetic that maps keys and ids to shards.
+ * Ids of sharded rows carry their shard above {@link #SHARD_SHIFT}. Shard 0 ids are the plain sequence
+ * values, so rows written before sharding was turned on keep resolving to the database they live in.
+ * Shard numbers stay below 2^13 and values below 2^40, which keeps every id a safe JavaScript number.
+ */
+public final class ShardContext {
+
+    public static final int SHARD_SHIFT=40;
+    public static final int MAX_SHARDS=1<<13;
+
+    private static final long VALUE_MASK=(1L<<SHARD_SHIFT)-1;
+
+    private static final ThreadLocal<Integer> CURRENT=ThreadLocal.withInitial(() -> 0);
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        return CURRENT.get();
+    }
+
+    public static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static long encode(int shard, long value) {
+        if(value>VALUE_MASK){
+            throw new IllegalStateException("Sequence value "+value+" no longer fits below the shard bits");
+        }
+        return ((long) shard<<SHARD_SHIFT)|value;
+    }
+
+    public static int shardOf(long id) {
+        return (int) (id>>>SHARD_SHIFT);
+    }
+
+    // Jump consistent hash (Lamping and Veach), going from n to n+1 shards only moves 1/(n+1) of the keys
+    public static int shardFor(long key, int shards) {
+        long hash=key*0x9E3779B97F4A7C15L;
+        long b=-1;
+        long j=0;
+        while(j<shards){
+            b=j;
+            hash=hash*2862933555777941757L+1;
+            j=(long) ((b+1)*((double) (1L<<31)/(double) ((hash>>>33)+1)));
+        }
+        return (int) b;
+    }
+}
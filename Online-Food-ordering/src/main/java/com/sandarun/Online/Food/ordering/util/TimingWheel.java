@@ -0,0 +1,85 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel: adding an item and advancing one tick are O(1), items far in the
+// future sit in coarser overflow wheels and cascade down as their time gets close.
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+
+    private static class Entry<T> {
+        private final T item;
+        private final long expirationMs;
+
+        private Entry(T item, long expirationMs) {
+            this.item = item;
+            this.expirationMs = expirationMs;
+        }
+    }
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    // Returns false when the item is already due, the caller should handle it right away
+    public synchronized boolean add(T item, long expirationMs) {
+        return addEntry(new Entry<>(item, expirationMs));
+    }
+
+    // Moves the clock to nowMs and returns every item that became due on the way
+    public synchronized List<T> advanceClock(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMs <= nowMs) {
+            List<Entry<T>> flushed = new ArrayList<>();
+            advance(currentTime + tickMs, flushed);
+            for (Entry<T> entry : flushed) {
+                if (!addEntry(entry)) {
+                    expired.add(entry.item);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private boolean addEntry(Entry<T> entry) {
+        if (entry.expirationMs < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.expirationMs < currentTime + interval) {
+            long virtualId = entry.expirationMs / tickMs;
+            buckets.get((int) (virtualId % wheelSize)).add(entry);
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflowWheel.addEntry(entry);
+    }
+
+    private void advance(long timeMs, List<Entry<T>> flushed) {
+        currentTime = timeMs;
+        List<Entry<T>> bucket = buckets.get((int) ((timeMs / tickMs) % wheelSize));
+        if (!bucket.isEmpty()) {
+            flushed.addAll(bucket);
+            bucket.clear();
+        }
+        if (overflowWheel != null && timeMs % overflowWheel.tickMs == 0) {
+            overflowWheel.advance(timeMs, flushed);
+        }
+    }
+}
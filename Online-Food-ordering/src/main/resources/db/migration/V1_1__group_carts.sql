@@ -0,0 +1,15 @@
+-- GroupCartService, a cart can be shared with participants who each own their lines
+ALTER TABLE cart ADD COLUMN host_id bigint;
+ALTER TABLE cart ADD COLUMN group_cart boolean NOT NULL DEFAULT false;
+
+CREATE TABLE cart_participants (
+    cart_id bigint NOT NULL,
+    participants_id bigint NOT NULL
+);
+
+ALTER TABLE cart_item ADD COLUMN participant_id bigint;
+
+ALTER TABLE cart ADD CONSTRAINT FKt2p7wwc26qmodctkkcknl4be4 FOREIGN KEY (host_id) REFERENCES users;
+ALTER TABLE cart_participants ADD CONSTRAINT FK3tdxltvbc1eau5ao31k7l5hbq FOREIGN KEY (cart_id) REFERENCES cart;
+ALTER TABLE cart_participants ADD CONSTRAINT FKih40g6j9x259xly7t5qui8s7p FOREIGN KEY (participants_id) REFERENCES users;
+ALTER TABLE cart_item ADD CONSTRAINT FKhx5e85a6meokgv39nukxoqgbb FOREIGN KEY (participant_id) REFERENCES users;
@@ -0,0 +1,3 @@
+-- ScheduledOrderService, an order for later stays SCHEDULED until release_at
+ALTER TABLE "order" ADD COLUMN scheduled_for timestamp(6);
+ALTER TABLE "order" ADD COLUMN release_at timestamp(6);
@@ -0,0 +1,2 @@
+-- RestaurantScheduleService reads opening_hours in this zone, null falls back to the server zone
+ALTER TABLE restaurant ADD COLUMN time_zone varchar(255);
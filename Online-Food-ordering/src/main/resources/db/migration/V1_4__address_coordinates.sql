@@ -0,0 +1,3 @@
+-- RestaurantGeoService and DeliveryZoneService place addresses by their coordinates
+ALTER TABLE address ADD COLUMN latitude float(53);
+ALTER TABLE address ADD COLUMN longitude float(53);
@@ -0,0 +1,23 @@
+-- DeliveryZoneService, polygons a restaurant delivers to and the fee each one charges
+CREATE SEQUENCE delivery_zone_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE delivery_zone (
+    id bigint NOT NULL,
+    restaurant_id bigint,
+    name varchar(255),
+    fee bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE delivery_zone_points (
+    delivery_zone_id bigint NOT NULL,
+    points_order integer NOT NULL,
+    latitude float(53),
+    longitude float(53),
+    PRIMARY KEY (points_order, delivery_zone_id)
+);
+
+ALTER TABLE "order" ADD COLUMN delivery_fee bigint;
+
+ALTER TABLE delivery_zone ADD CONSTRAINT FKfo3pwkpftrfc0qnty6k15lsyr FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE delivery_zone_points ADD CONSTRAINT FKlvbagd89fjk569srpvfp1i09e FOREIGN KEY (delivery_zone_id) REFERENCES delivery_zone;
@@ -0,0 +1,21 @@
+-- Favorite, one row per user and restaurant instead of restaurant copies embedded in user_favorites
+CREATE SEQUENCE favorite_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE favorite (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    restaurant_id bigint NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (user_id, restaurant_id)
+);
+
+ALTER TABLE favorite ADD CONSTRAINT FKa2lwa7bjrnbti5v12mga2et1y FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE favorite ADD CONSTRAINT FKfx5mp145bk2gfqv97xpmgjevn FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+
+-- Each embedded copy still holds its restaurant's id, favorites of restaurants deleted since are dropped
+INSERT INTO favorite (id, user_id, restaurant_id)
+SELECT nextval('favorite_seq'), f.user_id, f.restaurant_id
+FROM (SELECT DISTINCT uf.user_id, uf.id AS restaurant_id FROM user_favorites uf JOIN restaurant r ON r.id = uf.id) f
+ON CONFLICT DO NOTHING;
+
+DROP TABLE user_favorites;
@@ -0,0 +1,3 @@
+-- FoodCompactionService, a deleted food stays as a tombstone until its row is purged
+ALTER TABLE food ADD COLUMN deleted boolean DEFAULT false;
+ALTER TABLE food ADD COLUMN deleted_at timestamp(6);
@@ -0,0 +1,6 @@
+-- MenuSyncService, rows written before this carry no version and only reach clients through a full resync
+ALTER TABLE restaurant ADD COLUMN menu_version bigint;
+ALTER TABLE restaurant ADD COLUMN menu_compacted_version bigint;
+ALTER TABLE category ADD COLUMN change_version bigint;
+ALTER TABLE ingredients_items ADD COLUMN change_version bigint;
+ALTER TABLE food ADD COLUMN change_version bigint;
@@ -0,0 +1,182 @@
+-- Schema as Hibernate generated it under ddl-auto=update before Flyway took over, existing databases are baselined at this version.
+-- Everything added since lives in the V1_x migrations, which run on baselined databases as well.
+-- Foreign key names are kept so later migrations can refer to them on either kind of database
+
+CREATE SEQUENCE address_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cart_item_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cart_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE category_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE food_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE ingredient_category_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE ingredients_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE order_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE restaurant_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id bigint NOT NULL,
+    email varchar(255),
+    full_name varchar(255),
+    password varchar(255),
+    role smallint CHECK (role BETWEEN 0 AND 2),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE address (
+    id bigint NOT NULL,
+    user_id bigint,
+    street varchar(255),
+    city varchar(255),
+    state varchar(255),
+    postal_code varchar(255),
+    country varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE restaurant (
+    id bigint NOT NULL,
+    owner_id bigint UNIQUE,
+    res_id bigint UNIQUE,
+    name varchar(255),
+    description varchar(255),
+    cuisine_type varchar(255),
+    email varchar(255),
+    mobile varchar(255),
+    twitter varchar(255),
+    instagram varchar(255),
+    opening_hours varchar(255),
+    registration_date timestamp(6),
+    open boolean NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE restaurant_images (
+    restaurant_id bigint NOT NULL,
+    images varchar(1000)
+);
+
+CREATE TABLE category (
+    id bigint NOT NULL,
+    restaurant_id bigint,
+    name varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ingredient_category (
+    id bigint NOT NULL,
+    restaurant_id bigint,
+    name varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE ingredients_items (
+    id bigint NOT NULL,
+    restaurant_id bigint,
+    category_id bigint,
+    name varchar(255),
+    in_stoke boolean NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE food (
+    id bigint NOT NULL,
+    restaurant_id bigint,
+    category_id bigint,
+    res_id bigint,
+    name varchar(255),
+    description varchar(255),
+    price bigint,
+    available boolean NOT NULL,
+    is_vegetarian boolean NOT NULL,
+    is_seasonal boolean NOT NULL,
+    creation_date timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE food_images (
+    food_id bigint NOT NULL,
+    images varchar(1000)
+);
+
+CREATE TABLE food_ingredients (
+    food_id bigint NOT NULL,
+    ingredients_id bigint NOT NULL
+);
+
+CREATE TABLE cart (
+    id bigint NOT NULL,
+    customer_id bigint UNIQUE,
+    total bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE cart_item (
+    id bigint NOT NULL,
+    cart_id bigint,
+    food_id bigint,
+    quantity integer NOT NULL,
+    total_price bigint,
+    ingredients varchar(255) ARRAY,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE "order" (
+    id bigint NOT NULL,
+    customer_id bigint,
+    restaurant_id bigint,
+    deliveru_address_id bigint,
+    order_status varchar(255),
+    total_amount bigint,
+    total_item integer NOT NULL,
+    total_price bigint,
+    created_at timestamp(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE order_items (
+    id bigint NOT NULL,
+    order_id bigint NOT NULL,
+    food_id bigint,
+    quantity integer NOT NULL,
+    total_price bigint,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE order_item_ingredients (
+    order_item_id bigint NOT NULL,
+    ingredients varchar(255)
+);
+
+-- User.favorites, copies of the restaurant embedded per user
+CREATE TABLE user_favorites (
+    user_id bigint NOT NULL,
+    id bigint,
+    title varchar(255),
+    description varchar(255),
+    images varchar(1000) ARRAY
+);
+
+ALTER TABLE address ADD CONSTRAINT FK6i66ijb8twgcqtetl8eeeed6v FOREIGN KEY (user_id) REFERENCES users;
+ALTER TABLE restaurant ADD CONSTRAINT FKsh6jyud453k5uisje3pyubk39 FOREIGN KEY (owner_id) REFERENCES users;
+ALTER TABLE restaurant ADD CONSTRAINT FKqtn7qo0xvkfl7oujgs672sahb FOREIGN KEY (res_id) REFERENCES address;
+ALTER TABLE restaurant_images ADD CONSTRAINT FK810i11orew47qx1nrcwlh43jb FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE category ADD CONSTRAINT FKp6n44aqw5n74qc4f1d6eyqgha FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE ingredient_category ADD CONSTRAINT FKdx2hvej3t5hkiguy698n9covv FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE ingredients_items ADD CONSTRAINT FK3g43w2ewov6tlgad19rw8ty7k FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE ingredients_items ADD CONSTRAINT FKkv38naf64olhekotijdkuhk9x FOREIGN KEY (category_id) REFERENCES ingredient_category;
+ALTER TABLE food ADD CONSTRAINT FKm9xrxt95wwp1r2s7andom1l1c FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE food ADD CONSTRAINT FKkomdx99dhk2cveaxugl2lws2u FOREIGN KEY (category_id) REFERENCES category;
+ALTER TABLE food_images ADD CONSTRAINT FKjjjt9373et45vaj0mguo4pd2p FOREIGN KEY (food_id) REFERENCES food;
+ALTER TABLE food_ingredients ADD CONSTRAINT FKnfwd9dp2aw8o8l4ftu39jmvv9 FOREIGN KEY (food_id) REFERENCES food;
+ALTER TABLE food_ingredients ADD CONSTRAINT FKebujq388xis6e37h8wei2qman FOREIGN KEY (ingredients_id) REFERENCES ingredients_items;
+ALTER TABLE cart ADD CONSTRAINT FKrynrwuqbpdheocivcmp9itsxi FOREIGN KEY (customer_id) REFERENCES users;
+ALTER TABLE cart_item ADD CONSTRAINT FK1uobyhgl1wvgt1jpccia8xxs3 FOREIGN KEY (cart_id) REFERENCES cart;
+ALTER TABLE cart_item ADD CONSTRAINT FKcro8349ry4i72h81en8iw202g FOREIGN KEY (food_id) REFERENCES food;
+ALTER TABLE "order" ADD CONSTRAINT FK8i0eg1fmeed6xqe28akt4mix9 FOREIGN KEY (customer_id) REFERENCES users;
+ALTER TABLE "order" ADD CONSTRAINT FKjdm2akwbbctncy3xae6604lf1 FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+ALTER TABLE "order" ADD CONSTRAINT FKpbob8e1w513njbd1o09p2w9h9 FOREIGN KEY (deliveru_address_id) REFERENCES address;
+ALTER TABLE order_items ADD CONSTRAINT FKjg8ob3r0ws22krbj2xu30nhi1 FOREIGN KEY (order_id) REFERENCES "order";
+ALTER TABLE order_items ADD CONSTRAINT FK7jsocg6uwawnp9ymm8u2j4mmc FOREIGN KEY (food_id) REFERENCES food;
+ALTER TABLE order_item_ingredients ADD CONSTRAINT FKnoklqw81fom3muo54igrm6n4j FOREIGN KEY (order_item_id) REFERENCES order_items;
+ALTER TABLE user_favorites ADD CONSTRAINT FK4sv7b9w9adr0fjnc4u10exlwm FOREIGN KEY (user_id) REFERENCES users;
@@ -0,0 +1,72 @@
+-- One index per repository lookup, named after the table and the columns it leads with.
+-- Runs outside a transaction (see the .conf file) so every index is built CONCURRENTLY and the tables stay writable.
+-- A build that fails leaves an INVALID index behind, drop it before running the migration again.
+
+-- Databases that ran schema.sql already hold these under the same names, idx_food_restaurant_live with fewer columns
+DROP INDEX CONCURRENTLY IF EXISTS idx_food_restaurant_live;
+DROP INDEX CONCURRENTLY IF EXISTS idx_food_category_live;
+DROP INDEX CONCURRENTLY IF EXISTS idx_food_tombstone;
+DROP INDEX CONCURRENTLY IF EXISTS idx_order_items_food;
+
+-- UserRepository.findByEmail returns a single user, duplicate emails have to be merged by hand before the unique index
+DO $$
+DECLARE
+    duplicates text;
+BEGIN
+    SELECT string_agg(email, ', ') INTO duplicates FROM (SELECT email FROM users GROUP BY email HAVING count(*) > 1 LIMIT 20) d;
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'users holds duplicate emails, merge them before migrating: %', duplicates;
+    END IF;
+END $$;
+CREATE UNIQUE INDEX CONCURRENTLY idx_users_email ON users (email);
+
+-- User.addresses
+CREATE INDEX CONCURRENTLY idx_address_user ON address (user_id);
+
+-- RestaurantRepository.findByOpenTrue, findOpeningHours
+CREATE INDEX CONCURRENTLY idx_restaurant_open ON restaurant (id) WHERE open = true;
+CREATE INDEX CONCURRENTLY idx_restaurant_images_restaurant ON restaurant_images (restaurant_id);
+
+-- CategoryRepository.findByRestaurantId, findByRestaurantIdAndChangeVersionGreaterThan
+CREATE INDEX CONCURRENTLY idx_category_restaurant_version ON category (restaurant_id, change_version);
+
+-- IngredientCategoryRepository.findByRestaurantId, findWithIngredientsByRestaurantId
+CREATE INDEX CONCURRENTLY idx_ingredient_category_restaurant ON ingredient_category (restaurant_id);
+
+-- IngredientItemsRepository.findByRestaurantId, findByRestaurantIdAndChangeVersionGreaterThan, IngredientCategory.ingredients
+CREATE INDEX CONCURRENTLY idx_ingredients_items_restaurant_version ON ingredients_items (restaurant_id, change_version);
+CREATE INDEX CONCURRENTLY idx_ingredients_items_category ON ingredients_items (category_id);
+
+-- FoodRepository menu reads only touch live rows, change feeds read both sides by version
+CREATE INDEX CONCURRENTLY idx_food_restaurant_live ON food (restaurant_id, change_version) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY idx_food_restaurant_tombstone ON food (restaurant_id, change_version) WHERE deleted = true;
+CREATE INDEX CONCURRENTLY idx_food_category_live ON food (category_id) WHERE deleted = false;
+CREATE INDEX CONCURRENTLY idx_food_tombstone ON food (id) WHERE deleted = true;
+-- findIdsByRestaurantId pages through every row of a restaurant being deleted
+CREATE INDEX CONCURRENTLY idx_food_restaurant ON food (restaurant_id);
+CREATE INDEX CONCURRENTLY idx_food_images_food ON food_images (food_id);
+CREATE INDEX CONCURRENTLY idx_food_ingredients_food ON food_ingredients (food_id, ingredients_id);
+CREATE INDEX CONCURRENTLY idx_food_ingredients_ingredient ON food_ingredients (ingredients_id);
+
+-- CartRepository.findByCustomerId is served by the unique constraint on cart.customer_id
+CREATE INDEX CONCURRENTLY idx_cart_participants_cart ON cart_participants (cart_id, participants_id);
+-- CartItemRepository.findFirstByCartIdAndParticipantIdAndFoodId, findByCartId uses the leading column
+CREATE INDEX CONCURRENTLY idx_cart_item_cart_participant_food ON cart_item (cart_id, participant_id, food_id);
+CREATE INDEX CONCURRENTLY idx_cart_item_food ON cart_item (food_id);
+
+-- OrderRepository.findByCustomerId, findWithItemsByCustomerId
+CREATE INDEX CONCURRENTLY idx_order_customer ON "order" (customer_id);
+-- OrderRepository.findByRestaurantIdAndOrderStatusNot, findIdsByRestaurantId
+CREATE INDEX CONCURRENTLY idx_order_restaurant_status ON "order" (restaurant_id, order_status);
+-- OrderRepository.findScheduledOrders, scheduled orders are a small slice of the table
+CREATE INDEX CONCURRENTLY idx_order_scheduled ON "order" (release_at) WHERE order_status = 'SCHEDULED';
+CREATE INDEX CONCURRENTLY idx_order_items_order ON order_items (order_id);
+CREATE INDEX CONCURRENTLY idx_order_items_food ON order_items (food_id);
+CREATE INDEX CONCURRENTLY idx_order_item_ingredients_item ON order_item_ingredients (order_item_id);
+
+-- DeliveryZoneRepository.findByRestaurantId, the points primary key leads with the position
+CREATE INDEX CONCURRENTLY idx_delivery_zone_restaurant ON delivery_zone (restaurant_id);
+CREATE INDEX CONCURRENTLY idx_delivery_zone_points_zone ON delivery_zone_points (delivery_zone_id);
+
+-- FavoriteRepository.findFavoriteRestaurants and deleteFavorite use the (user_id, restaurant_id) unique constraint
+CREATE INDEX CONCURRENTLY idx_favorite_restaurant ON favorite (restaurant_id);
@@ -0,0 +1,18 @@
+-- Orders and carts can live on a different shard than the users, restaurants, addresses and foods they point to,
+-- only the keys inside each order or cart stay enforced. A single database keeps every constraint.
+-- ${sharded} is set by FlywayConfig from sharding.urls.
+DO $$
+BEGIN
+    IF ${sharded} THEN
+        ALTER TABLE "order" DROP CONSTRAINT IF EXISTS FK8i0eg1fmeed6xqe28akt4mix9;
+        ALTER TABLE "order" DROP CONSTRAINT IF EXISTS FKjdm2akwbbctncy3xae6604lf1;
+        ALTER TABLE "order" DROP CONSTRAINT IF EXISTS FKpbob8e1w513njbd1o09p2w9h9;
+        ALTER TABLE order_items DROP CONSTRAINT IF EXISTS FK7jsocg6uwawnp9ymm8u2j4mmc;
+
+        ALTER TABLE cart DROP CONSTRAINT IF EXISTS FKrynrwuqbpdheocivcmp9itsxi;
+        ALTER TABLE cart DROP CONSTRAINT IF EXISTS FKt2p7wwc26qmodctkkcknl4be4;
+        ALTER TABLE cart_participants DROP CONSTRAINT IF EXISTS FKih40g6j9x259xly7t5qui8s7p;
+        ALTER TABLE cart_item DROP CONSTRAINT IF EXISTS FKcro8349ry4i72h81en8iw202g;
+        ALTER TABLE cart_item DROP CONSTRAINT IF EXISTS FKhx5e85a6meokgv39nukxoqgbb;
+    END IF;
+END $$;
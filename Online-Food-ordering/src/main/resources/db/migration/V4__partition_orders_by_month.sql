@@ -0,0 +1,77 @@
+-- "order" becomes a table partitioned by created_at month, OrderArchiveService keeps next month's partition ready
+-- and drops month partitions once archival has moved every order out of them.
+-- A partitioned table can only enforce keys that contain created_at, so order_items can no longer reference it.
+ALTER TABLE order_items DROP CONSTRAINT IF EXISTS FKjg8ob3r0ws22krbj2xu30nhi1;
+
+-- created_at becomes part of the key, an order without one has to be given its real date by hand first
+DO $$
+DECLARE
+    undated bigint;
+BEGIN
+    SELECT count(*) INTO undated FROM "order" WHERE created_at IS NULL;
+    IF undated > 0 THEN
+        RAISE EXCEPTION '% orders have no created_at, set it from their payment or item records before migrating', undated;
+    END IF;
+END $$;
+
+ALTER TABLE "order" RENAME TO order_unpartitioned;
+
+CREATE TABLE "order" (LIKE order_unpartitioned INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+ALTER TABLE "order" ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE "order" ADD PRIMARY KEY (id, created_at);
+
+-- Catches rows outside every month partition, it stays empty as long as the months are created ahead
+CREATE TABLE order_default PARTITION OF "order" DEFAULT;
+
+DO $$
+DECLARE
+    month date;
+BEGIN
+    FOR month IN SELECT generate_series(
+            date_trunc('month', coalesce((SELECT min(created_at) FROM order_unpartitioned), now())),
+            date_trunc('month', now()) + interval '1 month',
+            interval '1 month')::date
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF "order" FOR VALUES FROM (%L) TO (%L)',
+                'order_' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO "order" SELECT * FROM order_unpartitioned;
+DROP TABLE order_unpartitioned;
+
+-- LIKE copies no foreign keys, a single database gets back the ones V3 kept
+DO $$
+BEGIN
+    IF NOT ${sharded} THEN
+        ALTER TABLE "order" ADD CONSTRAINT FK8i0eg1fmeed6xqe28akt4mix9 FOREIGN KEY (customer_id) REFERENCES users;
+        ALTER TABLE "order" ADD CONSTRAINT FKjdm2akwbbctncy3xae6604lf1 FOREIGN KEY (restaurant_id) REFERENCES restaurant;
+        ALTER TABLE "order" ADD CONSTRAINT FKpbob8e1w513njbd1o09p2w9h9 FOREIGN KEY (deliveru_address_id) REFERENCES address;
+    END IF;
+END $$;
+
+-- Recreated on the partitioned table, the customer and restaurant history ranges prune by created_at
+-- OrderRepository.findWithItemsByCustomerId, findWithItemsByCustomerIdAndCreatedAtBetween
+CREATE INDEX idx_order_customer ON "order" (customer_id, created_at);
+-- OrderRepository.findByRestaurantIdAndOrderStatusNot, findIdsByRestaurantId
+CREATE INDEX idx_order_restaurant_status ON "order" (restaurant_id, order_status);
+-- OrderRepository.findScheduledOrders, scheduled orders are a small slice of the table
+CREATE INDEX idx_order_scheduled ON "order" (release_at) WHERE order_status = 'SCHEDULED';
+-- OrderRepository.findArchivableIds
+CREATE INDEX idx_order_status_created ON "order" (order_status, created_at);
+
+-- One row per archived order, the items, foods and address it had are kept in the gzipped payload
+CREATE TABLE order_archive (
+    id bigint NOT NULL,
+    customer_id bigint,
+    restaurant_id bigint,
+    order_status varchar(255),
+    created_at timestamp(6),
+    payload bytea,
+    PRIMARY KEY (id)
+);
+
+-- ArchivedOrderRepository.findByCustomerIdAndCreatedAtBetween
+CREATE INDEX idx_order_archive_customer ON order_archive (customer_id, created_at);
+-- ArchivedOrderRepository.findByRestaurantIdAndCreatedAtBetween, deleteByRestaurantId
+CREATE INDEX idx_order_archive_restaurant ON order_archive (restaurant_id, created_at);
@@ -0,0 +1,2 @@
+-- OrderExportService, walks a restaurant's orders by created_at without sorting the range first
+CREATE INDEX idx_order_restaurant_created ON "order" (restaurant_id, created_at);
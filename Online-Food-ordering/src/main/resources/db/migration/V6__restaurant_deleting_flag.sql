@@ -0,0 +1,2 @@
+-- RestaurantDeletionService, a restaurant whose purge has started stays marked until its row is gone
+ALTER TABLE restaurant ADD COLUMN deleting boolean DEFAULT false;
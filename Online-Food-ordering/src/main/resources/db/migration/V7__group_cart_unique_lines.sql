@@ -0,0 +1,20 @@
+-- GroupCartService relies on these keys to catch concurrent joins and adds, duplicates they would have stopped are merged first.
+-- Writes to the cart tables wait for the migration, both tables only hold open carts.
+LOCK TABLE cart_participants, cart_item IN SHARE ROW EXCLUSIVE MODE;
+
+-- Joining twice added the same participant twice, the copies are identical
+DELETE FROM cart_participants a USING cart_participants b
+WHERE a.ctid > b.ctid AND a.cart_id = b.cart_id AND a.participants_id = b.participants_id;
+
+-- Concurrent adds of one food by one participant became separate lines, their quantities move to the oldest line
+UPDATE cart_item keep SET quantity = d.quantity, total_price = d.total_price
+FROM (SELECT min(id) AS id, sum(quantity) AS quantity, sum(total_price) AS total_price
+      FROM cart_item WHERE participant_id IS NOT NULL
+      GROUP BY cart_id, participant_id, food_id HAVING count(*) > 1) d
+WHERE keep.id = d.id;
+DELETE FROM cart_item c USING cart_item keep
+WHERE c.participant_id IS NOT NULL AND c.cart_id = keep.cart_id AND c.participant_id = keep.participant_id
+  AND c.food_id = keep.food_id AND c.id > keep.id;
+
+ALTER TABLE cart_participants ADD CONSTRAINT uk_cart_participants UNIQUE (cart_id, participants_id);
+ALTER TABLE cart_item ADD CONSTRAINT uk_cart_item_participant_food UNIQUE (cart_id, participant_id, food_id);
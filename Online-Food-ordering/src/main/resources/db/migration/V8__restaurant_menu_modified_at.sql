@@ -0,0 +1,2 @@
+-- CatalogVersionService, Last-Modified of the catalog responses moves with menu_version
+ALTER TABLE restaurant ADD COLUMN menu_modified_at timestamp(6);
@@ -0,0 +1,95 @@
+package com.sandarun.Online.Food.ordering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.MigrationType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * A database created by the code before Flyway, under ddl-auto=update, with rows in it. Flyway baselines it
+ * at V1, so the V1_x migrations alone have to bring it to the schema the entities validate against.
+ * The context only starts once they did.
+ */
+@SpringBootTest(properties = {
+		"order.archive.initial-delay-ms=3600000",
+		"food.compaction.initial-delay-ms=3600000" })
+@Testcontainers
+class LegacySchemaMigrationTest {
+
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	// Runs after the container started and before the context, and with it Flyway, is loaded
+	@BeforeAll
+	static void createLegacyDatabase() throws Exception {
+		SingleConnectionDataSource dataSource = new SingleConnectionDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+				POSTGRES.getPassword(), true);
+		try {
+			ScriptUtils.executeSqlScript(dataSource.getConnection(), new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+			JdbcTemplate legacy = new JdbcTemplate(dataSource);
+			legacy.update("INSERT INTO users (id, email, full_name, role) VALUES (1, 'legacy.customer@example.com', 'Legacy Customer', 0)");
+			legacy.update("INSERT INTO address (id, user_id, street, city) VALUES (1, 1, '1 Galle Road', 'Colombo')");
+			legacy.update("INSERT INTO restaurant (id, name, open) VALUES (1, 'Legacy Kitchen', true)");
+			legacy.update("INSERT INTO food (id, restaurant_id, name, price, available, is_vegetarian, is_seasonal) VALUES (1, 1, 'Kottu', 500, true, false, false)");
+			legacy.update("INSERT INTO cart (id, customer_id, total) VALUES (1, 1, 500)");
+			legacy.update("INSERT INTO cart_item (id, cart_id, food_id, quantity, total_price) VALUES (1, 1, 1, 1, 500)");
+			legacy.update("INSERT INTO \"order\" (id, customer_id, restaurant_id, deliveru_address_id, order_status, total_amount, total_item, total_price, created_at)"
+					+ " VALUES (1, 1, 1, 1, 'COMPLETED', 500, 1, 500, now() - interval '1 day')");
+			legacy.update("INSERT INTO order_items (id, order_id, food_id, quantity, total_price) VALUES (1, 1, 1, 1, 500)");
+			// Favorited twice, and a favorite of a restaurant deleted since
+			legacy.update("INSERT INTO user_favorites (user_id, id, title) VALUES (1, 1, 'Legacy Kitchen'), (1, 1, 'Legacy Kitchen'), (1, 99, 'Gone')");
+		} finally {
+			dataSource.destroy();
+		}
+	}
+
+	@Test
+	void baselinedDatabaseGetsEveryLaterMigration() {
+		MigrationInfo[] applied = flyway.info().applied();
+		assertEquals(MigrationType.BASELINE, applied[0].getType());
+		assertEquals("1", applied[0].getVersion().getVersion());
+		assertEquals(flyway.info().all().length, applied.length, "pending migrations left");
+		for (int i = 1; i < applied.length; i++) {
+			assertEquals(MigrationState.SUCCESS, applied[i].getState(), applied[i].getScript());
+		}
+	}
+
+	@Test
+	void legacyRowsSurviveWithDefaultsForTheNewColumns() {
+		assertFalse(jdbc.queryForObject("SELECT group_cart FROM cart WHERE id=1", Boolean.class));
+		assertFalse(jdbc.queryForObject("SELECT deleted FROM food WHERE id=1", Boolean.class));
+		assertFalse(jdbc.queryForObject("SELECT deleting FROM restaurant WHERE id=1", Boolean.class));
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM \"order\" WHERE id=1", Integer.class));
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM order_items WHERE order_id=1", Integer.class));
+	}
+
+	@Test
+	void embeddedFavoritesBecomeFavoriteRows() {
+		assertEquals(List.of(1L), jdbc.queryForList("SELECT restaurant_id FROM favorite WHERE user_id=1", Long.class));
+		assertFalse(jdbc.queryForObject("SELECT to_regclass('user_favorites') IS NOT NULL", Boolean.class));
+	}
+}
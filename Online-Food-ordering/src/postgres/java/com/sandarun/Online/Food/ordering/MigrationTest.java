@@ -0,0 +1,47 @@
+package com.sandarun.Online.Food.ordering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// The context only starts once ddl-auto=validate accepted the migrated schema
+class MigrationTest extends PostgresTest {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void everyMigrationAppliesOnAnEmptyDatabase() {
+		MigrationInfo[] applied = flyway.info().applied();
+		assertEquals(flyway.info().all().length, applied.length, "pending migrations left");
+		for (MigrationInfo migration : applied) {
+			assertEquals(MigrationState.SUCCESS, migration.getState(), migration.getScript());
+		}
+		assertEquals(0, flyway.validateWithResult().invalidMigrations.size());
+	}
+
+	@Test
+	void singleDatabaseKeepsTheOrderForeignKeys() {
+		List<String> constraints = jdbc.queryForList("SELECT lower(conname) FROM pg_constraint WHERE contype='f' AND conrelid='\"order\"'::regclass", String.class);
+		assertTrue(constraints.containsAll(List.of("fk8i0eg1fmeed6xqe28akt4mix9", "fkjdm2akwbbctncy3xae6604lf1", "fkpbob8e1w513njbd1o09p2w9h9")),
+				constraints.toString());
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM pg_constraint WHERE lower(conname)='fkcro8349ry4i72h81en8iw202g'", Integer.class));
+	}
+
+	@Test
+	void lookupIndexesAreValid() {
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM pg_index WHERE NOT indisvalid", Integer.class));
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM pg_indexes WHERE indexname='idx_users_email'", Integer.class));
+	}
+}
@@ -0,0 +1,66 @@
+package com.sandarun.Online.Food.ordering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.service.OrderArchiveService;
+
+class PartitionMaintenanceTest extends PostgresTest {
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private OrderArchiveService orderArchiveService;
+
+	@Test
+	void archiveKeepsNextMonthReadyAndDropsEmptiedMonths() {
+		YearMonth next = YearMonth.now().plusMonths(1);
+		YearMonth completedMonth = YearMonth.now().minusMonths(6);
+		YearMonth pendingMonth = YearMonth.now().minusMonths(7);
+		// V4 only created partitions from the oldest order on, an empty database starts at the current month
+		jdbc.execute("DROP TABLE IF EXISTS " + partition(next));
+		createPartition(completedMonth);
+		createPartition(pendingMonth);
+
+		long customerId = TestFixtures.insertUser(jdbc, "partition.customer@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Partition Restaurant");
+		long completed = TestFixtures.insertOrder(jdbc, customerId, restaurantId, null, null, "COMPLETED", middleOf(completedMonth));
+		TestFixtures.insertOrder(jdbc, customerId, restaurantId, null, null, "PENDING", middleOf(pendingMonth));
+
+		orderArchiveService.archive();
+
+		assertTrue(exists(partition(next)), "next month's partition was not created");
+		assertFalse(exists(partition(completedMonth)), "emptied month was not dropped");
+		assertTrue(exists(partition(pendingMonth)), "month with a pending order was dropped");
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM order_archive WHERE id=?", Integer.class, completed));
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM order_default", Integer.class));
+	}
+
+	private void createPartition(YearMonth month) {
+		jdbc.execute("CREATE TABLE " + partition(month) + " PARTITION OF \"order\" FOR VALUES FROM ('" + month.atDay(1)
+				+ "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+	}
+
+	private boolean exists(String table) {
+		return jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table);
+	}
+
+	private static Date middleOf(YearMonth month) {
+		return Date.from(month.atDay(15).atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+
+	private static String partition(YearMonth month) {
+		return String.format("order_%d_%02d", month.getYear(), month.getMonthValue());
+	}
+}
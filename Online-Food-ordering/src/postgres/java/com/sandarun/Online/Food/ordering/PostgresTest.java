@@ -0,0 +1,23 @@
+package com.sandarun.Online.Food.ordering;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Boots the application the way production does, Flyway migrating an empty PostgreSQL
+ * and Hibernate validating the entities against the result. Subclasses share the
+ * container and the Spring context.
+ */
+@SpringBootTest(properties = {
+		"order.archive.initial-delay-ms=3600000",
+		"food.compaction.initial-delay-ms=3600000" })
+@Testcontainers
+public abstract class PostgresTest {
+
+	@Container
+	@ServiceConnection
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+}
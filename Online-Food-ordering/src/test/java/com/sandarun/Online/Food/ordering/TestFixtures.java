@@ -0,0 +1,90 @@
+package com.sandarun.Online.Food.ordering;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+
+/**
+ * Seeding helpers for the tests sharing the h2 profile. Test classes share one database, so rows
+ * inserted here take ids far above the sequences Hibernate hands out and assertions stay on their own rows.
+ */
+public final class TestFixtures {
+
+	private static final AtomicLong IDS = new AtomicLong(1_000_000);
+
+	private TestFixtures() {
+	}
+
+	public static long nextId() {
+		return IDS.incrementAndGet();
+	}
+
+	public static Date daysAgo(long days) {
+		return new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+	}
+
+	public static <T> T inTransaction(PlatformTransactionManager transactionManager, boolean readOnly, Callable<T> work) {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> {
+			try {
+				return work.call();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	public static String jwt(JwtProvider jwtProvider, String email, USER_ROLE role) {
+		return "Bearer " + jwtProvider.genarateToken(new UsernamePasswordAuthenticationToken(email, null,
+				List.of(new SimpleGrantedAuthority(role.toString()))));
+	}
+
+	public static long insertUser(JdbcTemplate jdbc, String email, USER_ROLE role) {
+		long id = nextId();
+		jdbc.update("INSERT INTO users (id, email, full_name, role) VALUES (?, ?, ?, ?)", id, email, email, role.ordinal());
+		return id;
+	}
+
+	public static long insertAddress(JdbcTemplate jdbc, long userId) {
+		long id = nextId();
+		jdbc.update("INSERT INTO address (id, user_id, street, city) VALUES (?, ?, '1 Main St', 'Colombo')", id, userId);
+		return id;
+	}
+
+	public static long insertRestaurant(JdbcTemplate jdbc, String name) {
+		long id = nextId();
+		jdbc.update("INSERT INTO restaurant (id, name, open) VALUES (?, ?, true)", id, name);
+		return id;
+	}
+
+	public static long insertFood(JdbcTemplate jdbc, long restaurantId, String name) {
+		long id = nextId();
+		jdbc.update("INSERT INTO food (id, restaurant_id, name, price, available, is_vegetarian, is_seasonal, deleted)"
+				+ " VALUES (?, ?, ?, 500, true, false, false, false)", id, restaurantId, name);
+		return id;
+	}
+
+	// Two of the food at 500 each plus a delivery fee of 100
+	public static long insertOrder(JdbcTemplate jdbc, long customerId, long restaurantId, Long addressId, Long foodId, String status, Date createdAt) {
+		long id = nextId();
+		jdbc.update("INSERT INTO \"order\" (id, customer_id, restaurant_id, deliveru_address_id, order_status, total_amount, total_item, total_price, delivery_fee, created_at)"
+				+ " VALUES (?, ?, ?, ?, ?, 1100, 2, 1000, 100, ?)", id, customerId, restaurantId, addressId, status, new Timestamp(createdAt.getTime()));
+		if (foodId != null) {
+			jdbc.update("INSERT INTO order_items (id, order_id, food_id, quantity, total_price) VALUES (?, ?, ?, 2, 1000)", nextId(), id, foodId);
+		}
+		return id;
+	}
+}
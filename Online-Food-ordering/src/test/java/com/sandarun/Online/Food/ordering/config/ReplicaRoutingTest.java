@@ -0,0 +1,134 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+
+/**
+ * Two separate H2 databases stand in for the primary and the replica. Nothing replicates between
+ * them, so a row inserted only on the replica shows which side served a read.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"datasource.replica.url=jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"datasource.replica.lag-query=SELECT lag_ms FROM replica_lag",
+		"datasource.replica.lag-check-ms=3600000",
+		"datasource.replica.max-lag-ms=5000" })
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingTest {
+
+	private static final String REPLICA_ONLY = "replica.only@example.com";
+
+	@Autowired
+	private ReplicaRoutingDataSource routing;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private JdbcTemplate replica;
+
+	@BeforeAll
+	void copySchemaToReplica() {
+		// Hibernate only creates the schema on the primary
+		List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+		replica = new JdbcTemplate(replicaDataSource);
+		schema.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(replica::execute);
+
+		replica.update("INSERT INTO users (id, email, full_name, role) VALUES (1000, ?, 'Replica Only', 0)", REPLICA_ONLY);
+		replica.execute("CREATE TABLE replica_lag (lag_ms bigint)");
+		replica.update("INSERT INTO replica_lag VALUES (0)");
+		routing.checkReplicaLag();
+	}
+
+	@AfterEach
+	void reset() {
+		SecurityContextHolder.clearContext();
+		replica.update("UPDATE replica_lag SET lag_ms=0");
+		routing.checkReplicaLag();
+	}
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		assertNotNull(findReplicaOnlyUser(true));
+		assertNull(findReplicaOnlyUser(false));
+	}
+
+	@Test
+	void writesPinTheirPrincipalToThePrimary() {
+		authenticate("writer@example.com");
+		assertNull(findReplicaOnlyUser(false));
+		assertNull(findReplicaOnlyUser(true), "reads right after a write must see the primary");
+
+		authenticate("someone.else@example.com");
+		assertNotNull(findReplicaOnlyUser(true));
+	}
+
+	// The pin starts at the commit, nothing was written that the replica could miss
+	@Test
+	void rolledBackWritesDoNotPin() {
+		authenticate("rolled.back@example.com");
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.executeWithoutResult(status -> {
+			userRepository.findByEmail(REPLICA_ONLY);
+			status.setRollbackOnly();
+		});
+		assertNotNull(findReplicaOnlyUser(true));
+	}
+
+	@Test
+	void laggingReplicaServesNoReads() {
+		replica.update("UPDATE replica_lag SET lag_ms=60000");
+		routing.checkReplicaLag();
+		assertFalse(routing.isReplicaUsable());
+		assertNull(findReplicaOnlyUser(true));
+
+		replica.update("UPDATE replica_lag SET lag_ms=100");
+		routing.checkReplicaLag();
+		assertTrue(routing.isReplicaUsable());
+		assertNotNull(findReplicaOnlyUser(true));
+	}
+
+	private User findReplicaOnlyUser(boolean readOnly) {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> userRepository.findByEmail(REPLICA_ONLY));
+	}
+
+	private void authenticate(String email) {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+	}
+}
@@ -0,0 +1,250 @@
+package com.sandarun.Online.Food.ordering.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
+import com.sandarun.Online.Food.ordering.model.Order;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.service.CartService;
+import com.sandarun.Online.Food.ordering.service.OrderService;
+import com.sandarun.Online.Food.ordering.util.ShardContext;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Three separate H2 databases stand in for the shards. The reference rows are inserted into every
+ * one of them the way replication would copy them, orders and carts must only show up on their shard.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:shard0;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+		"sharding.urls=jdbc:h2:mem:shard1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE,"
+				+ "jdbc:h2:mem:shard2;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE" })
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardingTest {
+
+	private static final String EMAIL = "sharded.customer@example.com";
+	private static final long CUSTOMER_ID = 7;
+	private static final String FAILED_EMAIL = "failed.checkout@example.com";
+	private static final long FAILED_CUSTOMER_ID = 8;
+
+	@Autowired
+	private ShardTemplate shardTemplate;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("shardJdbcTemplates")
+	private List<JdbcTemplate> shards;
+
+	// Two restaurants on different shards, one of them not shard 0
+	private final List<Long> restaurantIds = new ArrayList<>();
+
+	// One restaurant per shard for the failed checkout
+	private final List<Long> restaurantByShard = new ArrayList<>();
+
+	// Hibernate only creates the schema on shard 0, the other shards need it before startup reads from them
+	@TestConfiguration
+	static class ShardSchema {
+
+		@Bean
+		List<JdbcTemplate> shardJdbcTemplates(EntityManagerFactory entityManagerFactory,
+				@Qualifier("primaryDataSource") DataSource primaryDataSource, ShardRoutingDataSource routing) {
+			JdbcTemplate shardZero = new JdbcTemplate(primaryDataSource);
+			List<String> schema = shardZero.queryForList("SCRIPT NODATA", String.class);
+			List<JdbcTemplate> shards = new ArrayList<>();
+			shards.add(shardZero);
+			for (DataSource shard : routing.getShardPools()) {
+				JdbcTemplate jdbc = new JdbcTemplate(shard);
+				schema.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(jdbc::execute);
+				shards.add(jdbc);
+			}
+			return shards;
+		}
+	}
+
+	@BeforeAll
+	void seedReferenceData() {
+
+		for (long id = 1; restaurantIds.size() < 2; id++) {
+			int shard = shardTemplate.shardForRestaurant(id);
+			if (restaurantIds.isEmpty() ? shard != 0 : shard != shardTemplate.shardForRestaurant(restaurantIds.get(0))) {
+				restaurantIds.add(id);
+			}
+		}
+
+		for (int shard = 0; shard < shards.size(); shard++) {
+			long id = 10;
+			while (shardTemplate.shardForRestaurant(id) != shard) {
+				id++;
+			}
+			restaurantByShard.add(id);
+		}
+
+		for (JdbcTemplate jdbc : shards) {
+			jdbc.update("INSERT INTO users (id, email, full_name, role) VALUES (?, ?, 'Sharded Customer', 0)", CUSTOMER_ID, EMAIL);
+			jdbc.update("INSERT INTO address (id, user_id, street, city) VALUES (1, ?, '1 Main St', 'Colombo')", CUSTOMER_ID);
+			jdbc.update("INSERT INTO users (id, email, full_name, role) VALUES (?, ?, 'Failed Checkout', 0)", FAILED_CUSTOMER_ID, FAILED_EMAIL);
+			jdbc.update("INSERT INTO address (id, user_id, street, city) VALUES (2, ?, '2 Main St', 'Colombo')", FAILED_CUSTOMER_ID);
+			for (Long restaurantId : restaurantIdsToSeed()) {
+				jdbc.update("INSERT INTO restaurant (id, name, open) VALUES (?, ?, true)", restaurantId, "Restaurant " + restaurantId);
+				jdbc.update("INSERT INTO food (id, restaurant_id, name, price, available, is_vegetarian, is_seasonal, deleted)"
+						+ " VALUES (?, ?, ?, 500, true, false, false, false)", restaurantId * 100, restaurantId, "Food " + restaurantId);
+			}
+		}
+	}
+
+	@Test
+	void ordersAndCartsFollowTheirShardKeys() throws Exception {
+		int customerShard = shardTemplate.shardForCustomer(CUSTOMER_ID);
+		String jwt = TestFixtures.jwt(jwtProvider, EMAIL, USER_ROLE.ROLE_CUSTOMER);
+
+		for (Long restaurantId : restaurantIds) {
+			AddCardItemRequest req = new AddCardItemRequest();
+			req.setFoodId(restaurantId * 100);
+			req.setQuantity(2);
+			inTransaction(false, () -> cartService.addItemToCart(req, jwt));
+		}
+		for (int shard = 0; shard < shards.size(); shard++) {
+			assertEquals(shard == customerShard ? 2 : 0, count(shard, "cart_item"), "cart items on shard " + shard);
+		}
+
+		List<OrderDto> placed = inTransaction(false, () -> {
+			User user = userRepository.findByEmail(EMAIL);
+			OrderRequest req = new OrderRequest();
+			req.setDeliveryAddress(user.getAddresses().get(0));
+			return orderService.createOrder(req, user);
+		});
+		assertEquals(2, placed.size());
+
+		for (Long restaurantId : restaurantIds) {
+			int shard = shardTemplate.shardForRestaurant(restaurantId);
+			Long orderId = shards.get(shard).queryForObject("SELECT id FROM \"order\" WHERE restaurant_id=?", Long.class, restaurantId);
+			assertEquals(shard, ShardContext.shardOf(orderId), "the id names the shard the order was written to");
+			assertEquals(1, count(shard, "\"order\""));
+			assertEquals(1, count(shard, "order_items"));
+		}
+
+		// Gathered from both restaurants' shards and still readable once every shard's session is gone
+		List<OrderDto> history = inTransaction(true, () -> {
+			List<Order> orders = orderService.getUsersOrder(CUSTOMER_ID);
+			return orders.stream().map(OrderDto::fromOrder).collect(Collectors.toList());
+		});
+		assertEquals(placed.stream().map(OrderDto::getId).sorted().collect(Collectors.toList()),
+				history.stream().map(OrderDto::getId).sorted().collect(Collectors.toList()));
+		history.forEach(order -> assertEquals(1, order.getItems().size()));
+		history.forEach(order -> assertEquals(1, order.getCustomer().getAddresses().size()));
+
+		// Lookups by id go straight to the shard the id names
+		Long remoteOrderId = placed.stream().map(OrderDto::getId).filter(id -> ShardContext.shardOf(id) != 0).findFirst().orElseThrow();
+		OrderDto completed = orderService.updateOrder(remoteOrderId, "COMPLETED");
+		assertEquals("COMPLETED", completed.getOrderStatus());
+		assertEquals("COMPLETED", shards.get(ShardContext.shardOf(remoteOrderId))
+				.queryForObject("SELECT order_status FROM \"order\" WHERE id=?", String.class, remoteOrderId));
+
+		List<OrderDto> restaurantQueue = inTransaction(true, () -> orderService.getRestaurantOrder(restaurantIds.get(0), null)
+				.stream().map(OrderDto::fromOrder).collect(Collectors.toList()));
+		assertEquals(1, restaurantQueue.size());
+		assertNotNull(restaurantQueue.get(0).getItems().get(0).getFood());
+	}
+
+	// Restaurant 1's shard commits on its own before the other insert fails, in its own transaction or the caller's
+	@Test
+	void failedCheckoutDeletesOrdersOtherShardsAlreadyCommitted() throws Exception {
+		assertCheckoutLeavesNoOrders(2);
+		assertCheckoutLeavesNoOrders(0);
+	}
+
+	private void assertCheckoutLeavesNoOrders(int failingShard) throws Exception {
+		String jwt = TestFixtures.jwt(jwtProvider, FAILED_EMAIL, USER_ROLE.ROLE_CUSTOMER);
+		for (long restaurantId : List.of(restaurantByShard.get(1), restaurantByShard.get(failingShard))) {
+			AddCardItemRequest req = new AddCardItemRequest();
+			req.setFoodId(restaurantId * 100);
+			req.setQuantity(1);
+			inTransaction(false, () -> cartService.addItemToCart(req, jwt));
+		}
+
+		JdbcTemplate shard = shards.get(failingShard);
+		shard.execute("ALTER TABLE \"order\" ADD CONSTRAINT reject_checkout CHECK (customer_id <> " + FAILED_CUSTOMER_ID + ")");
+		try {
+			assertThrows(RuntimeException.class, () -> inTransaction(false, () -> {
+				User user = userRepository.findByEmail(FAILED_EMAIL);
+				OrderRequest req = new OrderRequest();
+				req.setDeliveryAddress(user.getAddresses().get(0));
+				return orderService.createOrder(req, user);
+			}));
+		} finally {
+			shard.execute("ALTER TABLE \"order\" DROP CONSTRAINT reject_checkout");
+			inTransaction(false, () -> cartService.clearCart(FAILED_CUSTOMER_ID));
+		}
+
+		for (int target = 0; target < shards.size(); target++) {
+			assertEquals(0, shards.get(target).queryForObject("SELECT count(*) FROM \"order\" WHERE customer_id=?", Integer.class,
+					FAILED_CUSTOMER_ID), "orders left on shard " + target + " after shard " + failingShard + " failed");
+		}
+	}
+
+	@Test
+	void shardZeroIdsKeepTheirSequenceValues() {
+		assertEquals(42L, ShardContext.encode(0, 42));
+		long id = ShardContext.encode(2, 42);
+		assertNotEquals(42L, id);
+		assertEquals(2, ShardContext.shardOf(id));
+		assertTrue(id < (1L << 53), "ids must stay exact as JSON numbers");
+	}
+
+	private List<Long> restaurantIdsToSeed() {
+		List<Long> ids = new ArrayList<>(restaurantIds);
+		ids.addAll(restaurantByShard);
+		return ids;
+	}
+
+	private int count(int shard, String table) {
+		return shards.get(shard).queryForObject("SELECT count(*) FROM " + table, Integer.class);
+	}
+
+	private <T> T inTransaction(boolean readOnly, Callable<T> work) {
+		return TestFixtures.inTransaction(transactionManager, readOnly, work);
+	}
+}
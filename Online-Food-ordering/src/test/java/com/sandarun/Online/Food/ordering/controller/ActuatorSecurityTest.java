@@ -0,0 +1,46 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class ActuatorSecurityTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void onlyHealthIsOpen() throws Exception {
+		TestFixtures.insertUser(jdbc, "metrics.owner@example.com", USER_ROLE.ROLE_RESTAURANT_OWNER);
+		TestFixtures.insertUser(jdbc, "metrics.admin@example.com", USER_ROLE.ROLE_ADMIN);
+
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+		mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/metrics")
+				.header("Authorization", TestFixtures.jwt(jwtProvider, "metrics.owner@example.com", USER_ROLE.ROLE_RESTAURANT_OWNER)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/metrics")
+				.header("Authorization", TestFixtures.jwt(jwtProvider, "metrics.admin@example.com", USER_ROLE.ROLE_ADMIN)))
+				.andExpect(status().isOk());
+	}
+}
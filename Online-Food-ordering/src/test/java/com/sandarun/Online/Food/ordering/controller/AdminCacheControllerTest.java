@@ -0,0 +1,44 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class AdminCacheControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void onlyAdminsClearTheCache() throws Exception {
+		TestFixtures.insertUser(jdbc, "cache.owner@example.com", USER_ROLE.ROLE_RESTAURANT_OWNER);
+		TestFixtures.insertUser(jdbc, "cache.admin@example.com", USER_ROLE.ROLE_ADMIN);
+
+		mockMvc.perform(delete("/api/admin/cache")
+				.header("Authorization", TestFixtures.jwt(jwtProvider, "cache.owner@example.com", USER_ROLE.ROLE_RESTAURANT_OWNER)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(delete("/api/admin/cache")
+				.header("Authorization", TestFixtures.jwt(jwtProvider, "cache.admin@example.com", USER_ROLE.ROLE_ADMIN)))
+				.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,59 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class CatalogEtagTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	// The update stands in for a menu change served by another instance, nothing in this one saw it
+	@Test
+	void tagFollowsTheVersionInTheDatabase() throws Exception {
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Tagged Restaurant");
+		String email = "etag.customer@example.com";
+		TestFixtures.insertUser(jdbc, email, USER_ROLE.ROLE_CUSTOMER);
+		String jwt = TestFixtures.jwt(jwtProvider, email, USER_ROLE.ROLE_CUSTOMER);
+
+		String etag = mockMvc.perform(get("/api/restaurants/{id}", restaurantId).header("Authorization", jwt))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		mockMvc.perform(get("/api/restaurants/{id}", restaurantId).header("Authorization", jwt).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		jdbc.update("UPDATE restaurant SET menu_version=COALESCE(menu_version,0)+1, menu_modified_at=CURRENT_TIMESTAMP WHERE id=?", restaurantId);
+
+		String changed = mockMvc.perform(get("/api/restaurants/{id}", restaurantId).header("Authorization", jwt).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, changed);
+	}
+}
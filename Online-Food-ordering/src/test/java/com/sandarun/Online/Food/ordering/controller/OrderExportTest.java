@@ -0,0 +1,146 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import static com.sandarun.Online.Food.ordering.TestFixtures.daysAgo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.service.OrderArchiveService;
+import com.sandarun.Online.Food.ordering.util.QueryCounter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// The h2 profile's export fetch size is smaller than these results, so the rows arrive over several fetches
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderExportTest {
+
+	private static final String OWNER = "export.owner@example.com";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@Autowired
+	private OrderArchiveService orderArchiveService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private String ownerJwt;
+	private long restaurantId;
+	private long customerId;
+	private final List<Long> orderIds = new ArrayList<>();
+
+	@BeforeAll
+	void seedOrders() {
+		TestFixtures.insertUser(jdbc, OWNER, USER_ROLE.ROLE_RESTAURANT_OWNER);
+		customerId = TestFixtures.insertUser(jdbc, "export.customer@example.com", USER_ROLE.ROLE_CUSTOMER);
+		restaurantId = TestFixtures.insertRestaurant(jdbc, "Export Restaurant");
+
+		orderIds.add(insertOrder("COMPLETED", daysAgo(200)));
+		orderIds.add(insertOrder("PENDING", daysAgo(5)));
+		orderIds.add(insertOrder("SCHEDULED", daysAgo(1)));
+		orderIds.add(insertOrder("COMPLETED", daysAgo(2)));
+		// Moves the first order to the archive, the export has to read both
+		orderArchiveService.archive();
+
+		ownerJwt = TestFixtures.jwt(jwtProvider, OWNER, USER_ROLE.ROLE_RESTAURANT_OWNER);
+	}
+
+	@Test
+	void csvExportCoversTheArchiveAndTheOrderTable() throws Exception {
+		String[] lines = export("csv", null).split("\n");
+
+		assertEquals("id,created_at,order_status,customer_id,total_item,total_price,delivery_fee,total_amount", lines[0]);
+		assertEquals(List.of(orderIds.get(0), orderIds.get(1), orderIds.get(3)), List.of(lines).subList(1, lines.length).stream()
+				.map(line -> Long.valueOf(line.substring(0, line.indexOf(',')))).collect(Collectors.toList()));
+		assertEquals("COMPLETED," + customerId + ",2,1000,100,1100", lines[1].substring(lines[1].indexOf("COMPLETED")));
+	}
+
+	@Test
+	void ndjsonExportOfARecentRangeSkipsTheArchive() throws Exception {
+		List<JsonNode> rows = export("ndjson", daysAgo(30)).lines().map(line -> {
+			try {
+				return objectMapper.readTree(line);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).collect(Collectors.toList());
+
+		assertEquals(List.of(orderIds.get(1), orderIds.get(3)), rows.stream().map(row -> row.get("id").asLong()).collect(Collectors.toList()));
+		assertEquals("PENDING", rows.get(0).get("order_status").asText());
+		assertEquals(1100, rows.get(0).get("total_amount").asLong());
+	}
+
+	// Async handlers skip afterCompletion on the first dispatch, which must not leave its counts on the worker thread
+	@Test
+	void exportRecordsStatementMetricsAndReleasesTheThread() throws Exception {
+		double before = exportStatementRequests();
+
+		MvcResult started = mockMvc.perform(get("/api/admin/order/restaurant/{id}/export", restaurantId).header("Authorization", ownerJwt))
+				.andExpect(request().asyncStarted()).andReturn();
+		assertNull(QueryCounter.current());
+		mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+		assertNull(QueryCounter.current());
+		assertEquals(before + 1, exportStatementRequests());
+	}
+
+	private double exportStatementRequests() {
+		DistributionSummary summary = meterRegistry.find("http.server.requests.db.statements")
+				.tags("uri", "/api/admin/order/restaurant/{id}/export", "method", "GET").summary();
+		return summary == null ? 0 : summary.count();
+	}
+
+	private String export(String format, Date from) throws Exception {
+		MockHttpServletRequestBuilder export = get("/api/admin/order/restaurant/{id}/export", restaurantId)
+				.param("format", format).header("Authorization", ownerJwt);
+		if (from != null) {
+			export.param("from", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX").format(from));
+		}
+		MvcResult started = mockMvc.perform(export).andExpect(request().asyncStarted()).andReturn();
+		return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+	}
+
+	private long insertOrder(String status, Date createdAt) {
+		return TestFixtures.insertOrder(jdbc, customerId, restaurantId, null, null, status, createdAt);
+	}
+}
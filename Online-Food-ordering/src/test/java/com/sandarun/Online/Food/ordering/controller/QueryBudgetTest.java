@@ -0,0 +1,311 @@
+package com.sandarun.Online.Food.ordering.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.dto.IngredientCategoryDto;
+import com.sandarun.Online.Food.ordering.model.Address;
+import com.sandarun.Online.Food.ordering.model.Category;
+import com.sandarun.Online.Food.ordering.model.IngredientsItems;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.CategoryRepository;
+import com.sandarun.Online.Food.ordering.repository.IngredientItemsRepository;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.request.CreateFoodRequest;
+import com.sandarun.Online.Food.ordering.request.CreateRestaurantRequest;
+import com.sandarun.Online.Food.ordering.request.OrderRequest;
+import com.sandarun.Online.Food.ordering.service.CartService;
+import com.sandarun.Online.Food.ordering.service.FoodService;
+import com.sandarun.Online.Food.ordering.service.IngredientsService;
+import com.sandarun.Online.Food.ordering.service.OrderService;
+import com.sandarun.Online.Food.ordering.service.RestaurantService;
+import com.sandarun.Online.Food.ordering.service.UserService;
+import com.sandarun.Online.Food.ordering.util.QueryCounter;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Statement budgets for the read endpoints, against H2 in PostgreSQL mode with
+ * a cold second-level cache. A budget is the statement count the endpoint is
+ * allowed for the seeded data set, raising one needs a reason in the commit.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+	private static final int MENU_SIZE = 12;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate tx;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private IngredientItemsRepository ingredientItemsRepository;
+
+	@Autowired
+	private RestaurantService restaurantService;
+
+	@Autowired
+	private IngredientsService ingredientsService;
+
+	@Autowired
+	private FoodService foodService;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private UserService userService;
+
+	private Long restaurantId;
+	private String ownerJwt;
+	private String customerJwt;
+	private final List<Long> foodIds = new ArrayList<>();
+
+	@BeforeAll
+	void seed() {
+		User owner = new User();
+		owner.setEmail("budget.owner@example.com");
+		owner.setFullName("Budget Owner");
+		owner.setRole(USER_ROLE.ROLE_RESTAURANT_OWNER);
+		User restaurantOwner = userRepository.save(owner);
+		ownerJwt = TestFixtures.jwt(jwtProvider, restaurantOwner.getEmail(), USER_ROLE.ROLE_RESTAURANT_OWNER);
+
+		Address restaurantAddress = new Address();
+		restaurantAddress.setCity("Colombo");
+		restaurantAddress.setLatitude(6.9271);
+		restaurantAddress.setLongitude(79.8612);
+		CreateRestaurantRequest restaurantRequest = new CreateRestaurantRequest();
+		restaurantRequest.setName("Budget Kitchen");
+		restaurantRequest.setCuisineType("Sri Lankan");
+		restaurantRequest.setAddress(restaurantAddress);
+		restaurantRequest.setImages(List.of("https://example.com/a.png", "https://example.com/b.png"));
+		restaurantId = tx.execute(status -> restaurantService.createRestaurant(restaurantRequest, restaurantOwner).getId());
+
+		tx.executeWithoutResult(status -> {
+			try {
+				Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+				List<IngredientsItems> ingredients = new ArrayList<>();
+				for (String categoryName : List.of("Bread", "Sauce", "Topping")) {
+					IngredientCategoryDto ingredientCategory = ingredientsService.createiIngredientCategory(categoryName, restaurantId);
+					for (int i = 0; i < 3; i++) {
+						Long ingredientId = ingredientsService.createIngredientsItems(restaurantId, categoryName + " " + i, ingredientCategory.getId()).getId();
+						ingredients.add(ingredientItemsRepository.findById(ingredientId).orElseThrow());
+					}
+				}
+				List<Category> categories = new ArrayList<>();
+				for (String name : List.of("Rice", "Kottu", "Drinks")) {
+					Category category = new Category();
+					category.setName(name);
+					category.setRestaurant(restaurant);
+					categories.add(categoryRepository.save(category));
+				}
+				for (int i = 0; i < MENU_SIZE; i++) {
+					CreateFoodRequest food = new CreateFoodRequest();
+					food.setName(categories.get(i % categories.size()).getName() + " " + i);
+					food.setPrice(500L + i);
+					food.setImages(List.of("https://example.com/food/" + i + ".png", "https://example.com/food/" + i + "-b.png"));
+					food.setIngredients(ingredients.subList(i % 3 * 3, i % 3 * 3 + 3));
+					foodIds.add(foodService.createFood(food, categories.get(i % categories.size()), restaurant).getId());
+				}
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+
+		// New foods start switched off, checkout only takes available ones
+		for (Long foodId : foodIds) {
+			tx.execute(status -> {
+				try {
+					return foodService.updateAvailibilityStatus(foodId);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+
+		User customer = new User();
+		customer.setEmail("budget.customer@example.com");
+		customer.setFullName("Budget Customer");
+		Address home = new Address();
+		home.setStreet("1 Galle Road");
+		home.setCity("Colombo");
+		home.setLatitude(6.90);
+		home.setLongitude(79.85);
+		customer.getAddresses().add(home);
+		userRepository.save(customer);
+		customerJwt = TestFixtures.jwt(jwtProvider, customer.getEmail(), USER_ROLE.ROLE_CUSTOMER);
+
+		// Two orders of three items each, then a fresh three item cart
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 3; i++) {
+				AddCardItemRequest item = new AddCardItemRequest();
+				item.setFoodId(foodIds.get(round * 3 + i));
+				item.setQuantity(1);
+				item.setIngredients(List.of("Bread 0", "Sauce 1"));
+				tx.execute(status -> {
+					try {
+						return cartService.addItemToCart(item, customerJwt);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				});
+			}
+			if (round < 2) {
+				tx.executeWithoutResult(status -> {
+					try {
+						User user = userService.findUserByJwtToken(customerJwt);
+						OrderRequest order = new OrderRequest();
+						order.setDeliveryAddress(user.getAddresses().get(0));
+						orderService.createOrder(order, user);
+						cartService.clearCart(user.getId());
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				});
+			}
+		}
+	}
+
+	@Test
+	void userProfile() throws Exception {
+		assertBudget(get("/api/users/profile"), customerJwt, 2);
+	}
+
+	// The tagged endpoints read the persisted menu version first, one statement each
+	@Test
+	void restaurantById() throws Exception {
+		assertBudget(get("/api/restaurants/{id}", restaurantId), customerJwt, 3);
+	}
+
+	// Sections load on the page pool, their statements count towards the request
+	@Test
+	void restaurantPage() throws Exception {
+		assertBudget(get("/api/restaurants/{id}/page", restaurantId), customerJwt, 8);
+	}
+
+	@Test
+	void restaurantMenu() throws Exception {
+		assertBudget(get("/api/food/restaurant/{id}", restaurantId), customerJwt, 4);
+	}
+
+	@Test
+	void menuChanges() throws Exception {
+		assertBudget(get("/api/food/restaurant/{id}/changes", restaurantId).param("since", "0"), customerJwt, 6);
+	}
+
+	@Test
+	void foodSearch() throws Exception {
+		assertBudget(get("/api/food/search").param("name", "Kottu"), customerJwt, 4);
+	}
+
+	@Test
+	void restaurantCategories() throws Exception {
+		assertBudget(get("/api/category/restaurant/{id}", restaurantId), customerJwt, 4);
+	}
+
+	@Test
+	void ingredientCategories() throws Exception {
+		assertBudget(get("/api/admin/ingredients/restaurant/{id}/category", restaurantId), ownerJwt, 3);
+	}
+
+	@Test
+	void cart() throws Exception {
+		assertBudget(get("/api/cart"), customerJwt, 5);
+	}
+
+	// The full history also reads the order archive, one statement more than a recent range
+	@Test
+	void orderHistory() throws Exception {
+		assertBudget(get("/api/order/user"), customerJwt, 7);
+	}
+
+	@Test
+	void recentOrderHistory() throws Exception {
+		assertBudget(get("/api/order/user").param("from", yesterday()), customerJwt, 6);
+	}
+
+	@Test
+	void restaurantOrders() throws Exception {
+		assertBudget(get("/api/admin/order/restaurant/{id}", restaurantId), ownerJwt, 8);
+	}
+
+	@Test
+	void recentRestaurantOrders() throws Exception {
+		assertBudget(get("/api/admin/order/restaurant/{id}", restaurantId).param("from", yesterday()), ownerJwt, 7);
+	}
+
+	private void assertBudget(MockHttpServletRequestBuilder request, String jwt, int budget) throws Exception {
+		// Budgets hold for a cold cache, a warm one only makes them looser
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+		QueryCounter.Counts counts;
+		QueryCounter.start();
+		try {
+			// Serialization failures surface as resolved exceptions once the status is committed
+			mockMvc.perform(request.header("Authorization", jwt))
+					.andExpect(status().isOk())
+					.andExpect(result -> assertNull(result.getResolvedException()));
+		} finally {
+			counts = QueryCounter.stop();
+		}
+
+		StringBuilder report = new StringBuilder();
+		counts.getShapes().forEach((shape, executions) -> report.append("\n  ").append(executions).append(" x ").append(shape));
+		counts.getSuspects().forEach(suspect -> report.append("\n  suspected N+1 from ").append(suspect.callSite()));
+		assertTrue(counts.getStatements() <= budget, () -> request.buildRequest(null).getRequestURI() + " ran "
+				+ counts.getStatements() + " statements, budget is " + budget + report);
+		assertTrue(counts.getSuspects().isEmpty(), () -> request.buildRequest(null).getRequestURI() + " repeats a statement shape" + report);
+	}
+
+	private static String yesterday() {
+		return OffsetDateTime.now().minusDays(1).format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX"));
+	}
+}
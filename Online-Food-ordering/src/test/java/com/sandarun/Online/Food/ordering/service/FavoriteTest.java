@@ -0,0 +1,71 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.FavoriteRepository;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class FavoriteTest {
+
+	@Autowired
+	private RestaurantService restaurantService;
+
+	@Autowired
+	private FavoriteRepository favoriteRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void toggleAddsThenRemoves() {
+		long userId = TestFixtures.insertUser(jdbc, "favorite.toggle@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Favorite Restaurant");
+		User user = inTransaction(() -> userRepository.findById(userId).orElseThrow());
+
+		inTransaction(() -> restaurantService.addToFavorites(restaurantId, user));
+		assertEquals(1, favorites(userId, restaurantId));
+		inTransaction(() -> restaurantService.addToFavorites(restaurantId, user));
+		assertEquals(0, favorites(userId, restaurantId));
+	}
+
+	// The second of two toggles that both missed the delete
+	@Test
+	void insertOfAnExistingFavoriteDoesNothing() {
+		long userId = TestFixtures.insertUser(jdbc, "favorite.race@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Raced Restaurant");
+
+		assertEquals(1, inTransaction(() -> favoriteRepository.insertFavorite(userId, restaurantId)));
+		assertEquals(0, inTransaction(() -> favoriteRepository.insertFavorite(userId, restaurantId)));
+		assertEquals(1, favorites(userId, restaurantId));
+	}
+
+	private int favorites(long userId, long restaurantId) {
+		return jdbc.queryForObject("SELECT count(*) FROM favorite WHERE user_id=? AND restaurant_id=?", Integer.class, userId, restaurantId);
+	}
+
+	private <T> T inTransaction(Callable<T> work) {
+		return TestFixtures.inTransaction(transactionManager, false, work);
+	}
+}
@@ -0,0 +1,91 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+
+// The same participant racing themselves, e.g. a double tap or two open tabs
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class GroupCartServiceTest {
+
+	private static final int ATTEMPTS = 8;
+
+	@Autowired
+	private GroupCartService groupCartService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void concurrentJoinsAndAddsMergeIntoOneRow() throws Exception {
+		long hostId = TestFixtures.insertUser(jdbc, "group.host@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long guestId = TestFixtures.insertUser(jdbc, "group.guest@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long foodId = TestFixtures.insertFood(jdbc, TestFixtures.insertRestaurant(jdbc, "Group Restaurant"), "Devilled Chicken");
+		User host = inTransaction(() -> userRepository.findById(hostId).orElseThrow());
+		User guest = inTransaction(() -> userRepository.findById(guestId).orElseThrow());
+		long cartId = inTransaction(() -> groupCartService.createGroupCart(host)).getId();
+
+		concurrently(() -> groupCartService.joinGroupCart(cartId, guest));
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM cart_participants WHERE cart_id=? AND participants_id=?",
+				Integer.class, cartId, guestId));
+
+		AddCardItemRequest req = new AddCardItemRequest();
+		req.setFoodId(foodId);
+		req.setQuantity(1);
+		concurrently(() -> groupCartService.addItem(cartId, req, guest));
+		assertEquals(List.of(ATTEMPTS), jdbc.queryForList("SELECT quantity FROM cart_item WHERE cart_id=? AND participant_id=?",
+				Integer.class, cartId, guestId));
+	}
+
+	private void concurrently(Callable<?> work) throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(ATTEMPTS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < ATTEMPTS; i++) {
+				results.add(callers.submit(() -> {
+					start.await();
+					return inTransaction(work);
+				}));
+			}
+			start.countDown();
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			callers.shutdown();
+		}
+	}
+
+	private <T> T inTransaction(Callable<T> work) {
+		return TestFixtures.inTransaction(transactionManager, false, work);
+	}
+}
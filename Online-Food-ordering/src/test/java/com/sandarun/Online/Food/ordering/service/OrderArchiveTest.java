@@ -0,0 +1,100 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import static com.sandarun.Online.Food.ordering.TestFixtures.daysAgo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.dto.OrderDto;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderArchiveTest {
+
+	@Autowired
+	private OrderArchiveService orderArchiveService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private long customerId;
+	private long restaurantId;
+	private long oldCompleted;
+	private long oldPending;
+	private long recentCompleted;
+
+	@BeforeAll
+	void seedOrders() {
+		customerId = TestFixtures.insertUser(jdbc, "archive.customer@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long addressId = TestFixtures.insertAddress(jdbc, customerId);
+		restaurantId = TestFixtures.insertRestaurant(jdbc, "Archive Restaurant");
+		long foodId = TestFixtures.insertFood(jdbc, restaurantId, "Kottu");
+
+		// Old and completed, old but never completed, completed but recent
+		oldCompleted = TestFixtures.insertOrder(jdbc, customerId, restaurantId, addressId, foodId, "COMPLETED", daysAgo(200));
+		oldPending = TestFixtures.insertOrder(jdbc, customerId, restaurantId, addressId, foodId, "PENDING", daysAgo(199));
+		recentCompleted = TestFixtures.insertOrder(jdbc, customerId, restaurantId, addressId, foodId, "COMPLETED", daysAgo(10));
+	}
+
+	@Test
+	void completedOrdersPastTheAgeMoveToTheArchive() throws Exception {
+		assertTrue(orderArchiveService.archive() >= 1);
+		assertEquals(0, orderArchiveService.archive(), "archival picks up where the last run stopped");
+
+		assertEquals(List.of(oldPending, recentCompleted),
+				jdbc.queryForList("SELECT id FROM \"order\" WHERE customer_id=? ORDER BY id", Long.class, customerId));
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM order_items WHERE order_id=?", Integer.class, oldCompleted));
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM order_archive WHERE id=?", Integer.class, oldCompleted));
+
+		// The full history reads through to the archive, oldest first
+		List<OrderDto> history = inTransaction(() -> orderService.getUsersOrderHistory(customerId, null, null));
+		assertEquals(List.of(oldCompleted, oldPending, recentCompleted), history.stream().map(OrderDto::getId).collect(Collectors.toList()));
+		OrderDto archived = history.get(0);
+		assertEquals("COMPLETED", archived.getOrderStatus());
+		assertEquals(1, archived.getItems().size());
+		assertEquals("Kottu", archived.getItems().get(0).getFood().getName());
+		assertEquals(customerId, archived.getCustomer().getId());
+		assertEquals("Colombo", archived.getDeliveruAddress().getCity());
+
+		// A recent range never needs the archive
+		Date monthAgo = daysAgo(30);
+		assertFalse(orderArchiveService.covers(monthAgo));
+		assertTrue(orderArchiveService.covers(daysAgo(365)));
+		assertEquals(List.of(recentCompleted), inTransaction(() -> orderService.getUsersOrderHistory(customerId, monthAgo, null))
+				.stream().map(OrderDto::getId).collect(Collectors.toList()));
+		assertEquals(List.of(oldCompleted), inTransaction(() -> orderService.getUsersOrderHistory(customerId, daysAgo(365), daysAgo(100)))
+				.stream().filter(order -> order.getOrderStatus().equals("COMPLETED")).map(OrderDto::getId).collect(Collectors.toList()));
+
+		List<OrderDto> completed = inTransaction(() -> orderService.getRestaurantOrderHistory(restaurantId, "COMPLETED", null, null));
+		assertEquals(List.of(oldCompleted, recentCompleted), completed.stream().map(OrderDto::getId).collect(Collectors.toList()));
+	}
+
+	private <T> T inTransaction(Callable<T> work) {
+		return TestFixtures.inTransaction(transactionManager, true, work);
+	}
+}
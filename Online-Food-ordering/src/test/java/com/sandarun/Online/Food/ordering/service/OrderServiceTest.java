@@ -0,0 +1,179 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.config.JwtProvider;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.model.USER_ROLE;
+import com.sandarun.Online.Food.ordering.model.User;
+import com.sandarun.Online.Food.ordering.repository.UserRepository;
+import com.sandarun.Online.Food.ordering.request.AddCardItemRequest;
+import com.sandarun.Online.Food.ordering.request.OrderRequest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderServiceTest {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private CartService cartService;
+
+	@Autowired
+	private FoodService foodService;
+
+	@Autowired
+	private ScheduledOrderService scheduledOrderService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private long restaurantId;
+
+	@BeforeAll
+	void seedRestaurant() {
+		restaurantId = TestFixtures.insertRestaurant(jdbc, "Checkout Restaurant");
+	}
+
+	@Test
+	void checkoutRejectsFoodsDeletedAfterTheyWereAdded() throws Exception {
+		String email = "deleted.food@example.com";
+		long customerId = customerWithCart(email, TestFixtures.insertFood(jdbc, restaurantId, "Rice"));
+		long deletedFood = TestFixtures.insertFood(jdbc, restaurantId, "Kottu");
+		addToCart(email, deletedFood);
+		inTransaction(() -> {
+			foodService.deleteFood(deletedFood);
+			return null;
+		});
+
+		assertRejected(email, "Kottu is no longer available");
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM \"order\" WHERE customer_id=?", Integer.class, customerId));
+	}
+
+	@Test
+	void checkoutRejectsFoodsSwitchedOff() throws Exception {
+		String email = "unavailable.food@example.com";
+		long unavailableFood = TestFixtures.insertFood(jdbc, restaurantId, "Hoppers");
+		long customerId = customerWithCart(email, unavailableFood);
+		inTransaction(() -> foodService.updateAvailibilityStatus(unavailableFood));
+
+		assertRejected(email, "Hoppers is no longer available");
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM \"order\" WHERE customer_id=?", Integer.class, customerId));
+	}
+
+	@Test
+	void checkoutRejectsRestaurantsBeingDeleted() throws Exception {
+		long closingRestaurant = TestFixtures.insertRestaurant(jdbc, "Closing Restaurant");
+		String email = "deleting.restaurant@example.com";
+		long customerId = customerWithCart(email, TestFixtures.insertFood(jdbc, closingRestaurant, "Lamprais"));
+		jdbc.update("UPDATE restaurant SET deleting=true WHERE id=?", closingRestaurant);
+		entityManagerFactory.getCache().evict(Restaurant.class, closingRestaurant);
+
+		assertRejected(email, "Closing Restaurant is no longer taking orders");
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM \"order\" WHERE customer_id=?", Integer.class, customerId));
+	}
+
+	@Test
+	void releaseIsOnlyScheduledOnceTheCheckoutCommits() {
+		long customerId = TestFixtures.insertUser(jdbc, "scheduled.rollback@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long orderId = TestFixtures.insertOrder(jdbc, customerId, restaurantId, null, null, "SCHEDULED", new Date());
+
+		assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+			scheduledOrderService.schedule(orderId, new Date());
+			throw new Exception("checkout failed");
+		}));
+		scheduledOrderService.releaseDueOrders();
+		assertEquals("SCHEDULED", orderStatus(orderId));
+
+		inTransaction(() -> {
+			scheduledOrderService.schedule(orderId, new Date());
+			return null;
+		});
+		scheduledOrderService.releaseDueOrders();
+		assertEquals("PENDING", orderStatus(orderId));
+	}
+
+	@Test
+	void failedReleaseIsRetriedOnTheNextTick() {
+		long customerId = TestFixtures.insertUser(jdbc, "scheduled.retry@example.com", USER_ROLE.ROLE_CUSTOMER);
+		long orderId = TestFixtures.insertOrder(jdbc, customerId, restaurantId, null, null, "SCHEDULED", new Date());
+
+		// Stands in for a shard that is down or a statement that timed out
+		jdbc.execute("ALTER TABLE \"order\" ADD CONSTRAINT reject_release CHECK (id <> " + orderId + " OR order_status <> 'PENDING')");
+		try {
+			scheduledOrderService.schedule(orderId, new Date());
+			scheduledOrderService.releaseDueOrders();
+			assertEquals("SCHEDULED", orderStatus(orderId));
+		} finally {
+			jdbc.execute("ALTER TABLE \"order\" DROP CONSTRAINT reject_release");
+		}
+
+		scheduledOrderService.releaseDueOrders();
+		assertEquals("PENDING", orderStatus(orderId));
+	}
+
+	private String orderStatus(long orderId) {
+		return jdbc.queryForObject("SELECT order_status FROM \"order\" WHERE id=?", String.class, orderId);
+	}
+
+	private long customerWithCart(String email, long foodId) throws Exception {
+		long customerId = TestFixtures.insertUser(jdbc, email, USER_ROLE.ROLE_CUSTOMER);
+		TestFixtures.insertAddress(jdbc, customerId);
+		addToCart(email, foodId);
+		return customerId;
+	}
+
+	private void addToCart(String email, long foodId) {
+		AddCardItemRequest item = new AddCardItemRequest();
+		item.setFoodId(foodId);
+		item.setQuantity(1);
+		String jwt = TestFixtures.jwt(jwtProvider, email, USER_ROLE.ROLE_CUSTOMER);
+		inTransaction(() -> cartService.addItemToCart(item, jwt));
+	}
+
+	private void assertRejected(String email, String message) {
+		IllegalStateException rejected = assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+			User user = userRepository.findByEmail(email);
+			OrderRequest order = new OrderRequest();
+			order.setDeliveryAddress(user.getAddresses().get(0));
+			return orderService.createOrder(order, user);
+		}));
+		assertEquals(message, rejected.getCause().getMessage());
+	}
+
+	private <T> T inTransaction(Callable<T> work) {
+		return TestFixtures.inTransaction(transactionManager, false, work);
+	}
+}
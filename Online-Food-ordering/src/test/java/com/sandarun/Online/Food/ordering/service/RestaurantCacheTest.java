@@ -0,0 +1,69 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.model.Restaurant;
+import com.sandarun.Online.Food.ordering.repository.RestaurantRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Menu versions and open flags are written with native updates, the restaurant region must survive them
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class RestaurantCacheTest {
+
+	@Autowired
+	private MenuSyncService menuSyncService;
+
+	@Autowired
+	private RestaurantRepository restaurantRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void versionAndOpenUpdatesKeepOtherRestaurantsCached() {
+		long changed = TestFixtures.insertRestaurant(jdbc, "Versioned Restaurant");
+		long bystander = TestFixtures.insertRestaurant(jdbc, "Bystander Restaurant");
+		inTransaction(() -> restaurantRepository.findAllById(List.of(changed, bystander)));
+		assertCached(changed);
+		assertCached(bystander);
+
+		assertEquals(1L, inTransaction(() -> menuSyncService.nextVersion(changed)));
+		assertEquals(1, inTransaction(() -> restaurantRepository.raiseMenuCompactedVersion(changed, 1L)));
+		assertCached(changed);
+		assertCached(bystander);
+
+		inTransaction(() -> restaurantRepository.updateOpenStatus(List.of(changed), false, new Date()));
+		assertCached(bystander);
+	}
+
+	private void assertCached(long restaurantId) {
+		assertTrue(entityManagerFactory.getCache().contains(Restaurant.class, restaurantId), "restaurant " + restaurantId + " was evicted");
+	}
+
+	private <T> T inTransaction(Callable<T> work) {
+		return TestFixtures.inTransaction(transactionManager, false, work);
+	}
+}
@@ -0,0 +1,104 @@
+package com.sandarun.Online.Food.ordering.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sandarun.Online.Food.ordering.TestFixtures;
+import com.sandarun.Online.Food.ordering.dto.RestaurantSummaryDto;
+import com.sandarun.Online.Food.ordering.request.CreateRestaurantRequest;
+import com.sandarun.Online.Food.ordering.response.RestaurantDeletionStatus;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@AutoConfigureMockMvc
+class RestaurantDeletionTest {
+
+	@Autowired
+	private RestaurantDeletionServiceImp restaurantDeletionService;
+
+	@Autowired
+	private RestaurantService restaurantService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void concurrentRequestsShareOneDeletion() throws Exception {
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Doubly Deleted");
+		TestFixtures.insertFood(jdbc, restaurantId, "Pittu");
+
+		ExecutorService callers = Executors.newFixedThreadPool(4);
+		List<Future<RestaurantDeletionStatus>> started = new ArrayList<>();
+		try {
+			for (int i = 0; i < 4; i++) {
+				started.add(callers.submit(() -> restaurantDeletionService.startDeletion(restaurantId)));
+			}
+			for (Future<RestaurantDeletionStatus> status : started) {
+				assertSame(started.get(0).get(), status.get());
+			}
+		} finally {
+			callers.shutdown();
+		}
+
+		assertFinished(restaurantId);
+	}
+
+	// A purge the previous run never finished, the flag is all that is left of it
+	@Test
+	void startupResumesUnfinishedDeletions() throws Exception {
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Half Deleted");
+		TestFixtures.insertFood(jdbc, restaurantId, "String Hoppers");
+		jdbc.update("UPDATE restaurant SET deleting=true, open=false WHERE id=?", restaurantId);
+
+		restaurantDeletionService.resumeDeletions();
+
+		assertFinished(restaurantId);
+	}
+
+	@Test
+	void restaurantsBeingDeletedLeaveTheStorefront() {
+		long restaurantId = TestFixtures.insertRestaurant(jdbc, "Vanishing Kitchen");
+		jdbc.update("UPDATE restaurant SET deleting=true WHERE id=?", restaurantId);
+
+		assertFalse(ids(restaurantService.getAllRestaurant()).contains(restaurantId));
+		assertFalse(ids(restaurantService.getOpenRestaurants()).contains(restaurantId));
+		assertTrue(restaurantService.searchRestaurant("Vanishing").isEmpty());
+		assertThrows(Exception.class, () -> restaurantService.findRestaurantDetailById(restaurantId));
+		// Neither reopened nor re-indexed while the purge runs
+		assertThrows(Exception.class, () -> restaurantService.updateRestaurantStatus(restaurantId));
+		assertThrows(Exception.class, () -> restaurantService.updateRestaurant(restaurantId, new CreateRestaurantRequest()));
+		assertTrue(jdbc.queryForObject("SELECT open FROM restaurant WHERE id=?", Boolean.class, restaurantId));
+	}
+
+	private static List<Long> ids(List<RestaurantSummaryDto> restaurants) {
+		return restaurants.stream().map(RestaurantSummaryDto::getId).collect(Collectors.toList());
+	}
+
+	private void assertFinished(long restaurantId) throws Exception {
+		RestaurantDeletionStatus status = restaurantDeletionService.getStatus(restaurantId);
+		for (int i = 0; i < 100 && !status.isDone(); i++) {
+			Thread.sleep(50);
+		}
+		assertTrue(status.isDone(), "deletion still " + status.getPhase());
+		assertEquals("COMPLETED", status.getPhase(), status.getError());
+		assertEquals(1, status.getDeletedFoods());
+		assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM restaurant WHERE id=?", Integer.class, restaurantId));
+	}
+}
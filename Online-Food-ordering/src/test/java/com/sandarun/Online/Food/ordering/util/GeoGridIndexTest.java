@@ -0,0 +1,78 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeoGridIndexTest {
+
+	// Every query is checked against a scan of all the points, GeoGridIndexBenchmark measures the speed
+	private static final int RESTAURANTS = 100_000;
+	private static final int QUERIES = 20;
+
+	@Test
+	void radiusSearchMatchesNaiveScan() {
+		Random random = new Random(42);
+		GeoGridIndex index = new GeoGridIndex(0.02);
+		double[][] points = new double[RESTAURANTS][];
+
+		// Roughly the size of Sri Lanka
+		for (int i = 0; i < RESTAURANTS; i++) {
+			points[i] = new double[] { 5.9 + random.nextDouble() * 4, 79.6 + random.nextDouble() * 2.3 };
+			index.put(i, points[i][0], points[i][1]);
+		}
+
+		double[][] queries = new double[QUERIES][];
+		for (int i = 0; i < QUERIES; i++) {
+			queries[i] = new double[] { 5.9 + random.nextDouble() * 4, 79.6 + random.nextDouble() * 2.3 };
+		}
+
+		for (double[] query : queries) {
+			List<Long> fromIndex = new ArrayList<>();
+			index.withinRadius(query[0], query[1], 3, Integer.MAX_VALUE).forEach(match -> fromIndex.add(match.id()));
+			fromIndex.sort(null);
+
+			List<Long> fromScan = new ArrayList<>();
+			for (int i = 0; i < RESTAURANTS; i++) {
+				if (GeoGridIndex.distanceKm(query[0], query[1], points[i][0], points[i][1]) <= 3) {
+					fromScan.add((long) i);
+				}
+			}
+
+			assertEquals(fromScan, fromIndex);
+		}
+	}
+
+	@Test
+	void nearestReturnsClosestFirst() {
+		GeoGridIndex index = new GeoGridIndex(0.02);
+		index.put(1, 6.9271, 79.8612);
+		index.put(2, 6.9350, 79.8500);
+		index.put(3, 7.2906, 80.6337);
+		index.remove(2);
+
+		List<GeoGridIndex.Match> matches = index.nearest(6.9300, 79.8550, 2, 200);
+
+		assertEquals(2, matches.size());
+		assertEquals(1, matches.get(0).id());
+		assertEquals(3, matches.get(1).id());
+	}
+
+	@Test
+	void limitKeepsTheNearestAndMustBePositive() {
+		GeoGridIndex index = new GeoGridIndex(0.02);
+		index.put(1, 6.9271, 79.8612);
+		index.put(2, 6.9350, 79.8500);
+
+		List<GeoGridIndex.Match> matches = index.withinRadius(6.9340, 79.8510, 5, 1);
+
+		assertEquals(1, matches.size());
+		assertEquals(2, matches.get(0).id());
+		assertThrows(IllegalArgumentException.class, () -> index.withinRadius(6.9340, 79.8510, 5, 0));
+	}
+}
@@ -0,0 +1,72 @@
+package com.sandarun.Online.Food.ordering.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class OpeningScheduleTest {
+
+	// 2026-10-19 is a Monday
+	private static boolean openOnMondayAt(OpeningSchedule schedule, int hour, int minute) {
+		return schedule.isOpenAt(LocalDateTime.of(2026, 10, 19, hour, minute).toInstant(ZoneOffset.UTC));
+	}
+
+	private static boolean openOnTuesdayAt(OpeningSchedule schedule, int hour, int minute) {
+		return schedule.isOpenAt(LocalDateTime.of(2026, 10, 20, hour, minute).toInstant(ZoneOffset.UTC));
+	}
+
+	@Test
+	void startBorrowsTheOppositeMeridiemWhenTheEndsWouldCross() {
+		OpeningSchedule lunch = OpeningSchedule.parse("Mon 11-2pm", "UTC");
+		assertFalse(openOnMondayAt(lunch, 10, 59));
+		assertTrue(openOnMondayAt(lunch, 11, 0));
+		assertTrue(openOnMondayAt(lunch, 13, 59));
+		assertFalse(openOnMondayAt(lunch, 14, 0));
+		assertFalse(openOnMondayAt(lunch, 23, 0));
+	}
+
+	@Test
+	void startKeepsTheEndsMeridiemWhenItStaysInOrder() {
+		OpeningSchedule dinner = OpeningSchedule.parse("Mon 6-11pm", "UTC");
+		assertFalse(openOnMondayAt(dinner, 6, 0));
+		assertTrue(openOnMondayAt(dinner, 18, 0));
+		assertTrue(openOnMondayAt(dinner, 22, 59));
+		assertFalse(openOnMondayAt(dinner, 23, 0));
+	}
+
+	@Test
+	void endBorrowsTheOppositeMeridiemWhenTheEndsWouldCross() {
+		OpeningSchedule lateNight = OpeningSchedule.parse("Mon 11pm-2", "UTC");
+		assertTrue(openOnMondayAt(lateNight, 23, 30));
+		assertTrue(openOnTuesdayAt(lateNight, 1, 59));
+		assertFalse(openOnTuesdayAt(lateNight, 2, 0));
+		assertFalse(openOnMondayAt(lateNight, 13, 0));
+
+		OpeningSchedule day = OpeningSchedule.parse("Mon 10am-4", "UTC");
+		assertTrue(openOnMondayAt(day, 15, 59));
+		assertFalse(openOnMondayAt(day, 16, 0));
+		assertFalse(openOnTuesdayAt(day, 3, 0));
+	}
+
+	// A later segment naming the next day keeps the night that spilled into it
+	@Test
+	void pastMidnightSpillSurvivesTheNextDaysSegment() {
+		OpeningSchedule weekend = OpeningSchedule.parse("Mon-Thu 11:00-22:00; Fri-Sat 11:00-02:00; Sun 12:00-22:00", "UTC");
+		// 2026-10-24 is a Saturday, 2026-10-25 a Sunday
+		assertTrue(weekend.isOpenAt(LocalDateTime.of(2026, 10, 24, 1, 0).toInstant(ZoneOffset.UTC)));
+		assertTrue(weekend.isOpenAt(LocalDateTime.of(2026, 10, 25, 1, 0).toInstant(ZoneOffset.UTC)));
+		assertFalse(weekend.isOpenAt(LocalDateTime.of(2026, 10, 25, 2, 0).toInstant(ZoneOffset.UTC)));
+		assertFalse(weekend.isOpenAt(LocalDateTime.of(2026, 10, 25, 11, 0).toInstant(ZoneOffset.UTC)));
+		assertTrue(weekend.isOpenAt(LocalDateTime.of(2026, 10, 25, 21, 59).toInstant(ZoneOffset.UTC)));
+		assertFalse(openOnMondayAt(weekend, 1, 0));
+
+		// A day named again drops the night its earlier range spilled into the next day
+		OpeningSchedule overridden = OpeningSchedule.parse("Mon-Sun 11:00-02:00; Sat 11:00-22:00", "UTC");
+		assertFalse(overridden.isOpenAt(LocalDateTime.of(2026, 10, 25, 1, 0).toInstant(ZoneOffset.UTC)));
+		assertTrue(overridden.isOpenAt(LocalDateTime.of(2026, 10, 24, 1, 0).toInstant(ZoneOffset.UTC)));
+	}
+}